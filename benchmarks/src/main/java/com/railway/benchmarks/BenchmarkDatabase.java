@@ -0,0 +1,169 @@
+package com.railway.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.railway.util.IdGenerator;
+
+/**
+ * Recreates a throwaway copy of the schema on a local MySQL server and seeds it
+ * at a chosen scale. Runs before DatabaseConfig is first touched and points it
+ * at the benchmark database through -Drailway.db.url, so the real railway_db is
+ * never written to.
+ *
+ * Server, credentials and database name come from -Dbench.db.server (default
+ * jdbc:mysql://localhost:3306/), -Drailway.db.user, -Drailway.db.password and
+ * -Dbench.db.name (default railway_bench). The schema file is looked up via
+ * -Dbench.schema, then ../database/schema.sql, then database/schema.sql.
+ */
+public final class BenchmarkDatabase {
+    private static final String SERVER = System.getProperty("bench.db.server", "jdbc:mysql://localhost:3306/");
+    private static final String NAME = System.getProperty("bench.db.name", "railway_bench");
+    private static final String USERNAME = System.getProperty("railway.db.user", "root");
+    private static final String PASSWORD = System.getProperty("railway.db.password", "Thamarai@2006");
+
+    // Matches the route names in schema.sql so searches hit seeded trains as well as the sample data
+    static final String[] STATIONS = {
+        "Chennai", "Coimbatore", "Madurai", "Tirunelveli", "Tuticorin", "Tiruchirappalli",
+        "Salem", "Thanjavur", "Erode", "Kanyakumari", "Rameswaram", "Dharmapuri"
+    };
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Drops and recreates the benchmark database, then adds {@code extraTrains}
+     * trains with {@code seatsPerTrain} seats each, a fraction
+     * {@code occupancy} of which are booked. Returns the ids of the added trains.
+     */
+    public static int[] seed(int extraTrains, int seatsPerTrain, double occupancy) throws SQLException, IOException {
+        int[] trainIds;
+        String schema = new String(Files.readAllBytes(schemaPath()), StandardCharsets.UTF_8)
+            .replace("railway_db", NAME);
+
+        try (Connection conn = DriverManager.getConnection(SERVER + "?rewriteBatchedStatements=true",
+                                                          USERNAME, PASSWORD);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP DATABASE IF EXISTS " + NAME);
+            for (String sql : statements(schema)) {
+                stmt.execute(sql);
+            }
+            trainIds = seedTrains(conn, extraTrains, seatsPerTrain, occupancy);
+        }
+
+        System.setProperty("railway.db.url", SERVER + NAME + "?rewriteBatchedStatements=true");
+        return trainIds;
+    }
+
+    private static int[] seedTrains(Connection conn, int extraTrains, int seatsPerTrain, double occupancy)
+            throws SQLException {
+        Random random = new Random(42);
+        int booked = (int) (seatsPerTrain * occupancy);
+        conn.setAutoCommit(false);
+
+        String trainSql = "INSERT INTO trains (train_name, source, destination, departure_time, arrival_time, "
+            + "total_seats, available_seats, fare) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        int[] trainIds = new int[extraTrains];
+        double[] fares = new double[extraTrains];
+        try (PreparedStatement stmt = conn.prepareStatement(trainSql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < extraTrains; i++) {
+                int from = random.nextInt(STATIONS.length);
+                int to = (from + 1 + random.nextInt(STATIONS.length - 1)) % STATIONS.length;
+                int departs = random.nextInt(24 * 60);
+                stmt.setString(1, "Bench Express " + i);
+                stmt.setString(2, STATIONS[from]);
+                stmt.setString(3, STATIONS[to]);
+                stmt.setString(4, clock(departs));
+                stmt.setString(5, clock(departs + 60 + random.nextInt(600)));
+                stmt.setInt(6, seatsPerTrain);
+                stmt.setInt(7, seatsPerTrain - booked);
+                fares[i] = 50 + random.nextInt(400);
+                stmt.setDouble(8, fares[i]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (int i = 0; keys.next(); i++) {
+                    trainIds[i] = keys.getInt(1);
+                }
+            }
+        }
+
+        String ticketSql = "INSERT INTO tickets (train_id, passenger_name, passenger_email, passenger_phone, "
+            + "seat_number, fare, booking_time, status, journey_date, pnr_number) "
+            + "VALUES (?, ?, ?, '9000000000', ?, ?, ?, 'BOOKED', ?, ?)";
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Date today = new Date(now.getTime());
+        try (PreparedStatement stmt = conn.prepareStatement(ticketSql)) {
+            for (int i = 0; i < extraTrains; i++) {
+                for (int seat = 1; seat <= booked; seat++) {
+                    stmt.setInt(1, trainIds[i]);
+                    stmt.setString(2, "Passenger " + i + "-" + seat);
+                    stmt.setString(3, "bench" + (seat % 1000) + "@example.com");
+                    stmt.setInt(4, seat);
+                    stmt.setDouble(5, fares[i]);
+                    stmt.setTimestamp(6, now);
+                    stmt.setDate(7, today);
+                    stmt.setString(8, IdGenerator.nextPnr());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+
+        // All seeded bookings are for today's run
+        String runSql = "INSERT INTO train_runs (train_id, journey_date, available_seats) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(runSql)) {
+            for (int i = 0; i < extraTrains; i++) {
+                stmt.setInt(1, trainIds[i]);
+                stmt.setDate(2, today);
+                stmt.setInt(3, seatsPerTrain - booked);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        return trainIds;
+    }
+
+    private static String clock(int minute) {
+        minute %= 24 * 60;
+        return String.format("%02d:%02d:00", minute / 60, minute % 60);
+    }
+
+    // schema.sql split into statements, with -- comments removed
+    private static String[] statements(String script) {
+        StringBuilder cleaned = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                cleaned.append(line).append('\n');
+            }
+        }
+        return Arrays.stream(cleaned.toString().split(";"))
+            .map(String::trim)
+            .filter(sql -> !sql.isEmpty())
+            .toArray(String[]::new);
+    }
+
+    private static Path schemaPath() {
+        String configured = System.getProperty("bench.schema");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        Path sibling = Paths.get("..", "database", "schema.sql");
+        return Files.exists(sibling) ? sibling : Paths.get("database", "schema.sql");
+    }
+}
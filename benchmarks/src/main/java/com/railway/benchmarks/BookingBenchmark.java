@@ -0,0 +1,30 @@
+package com.railway.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full booking path (seat allocation, ticket insert, counter update, commit)
+ * followed by a cancel of the same ticket, so inventory stays level however
+ * long the run. Run with {@code -t N} to measure contention.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class BookingBenchmark {
+
+    @Benchmark
+    public boolean bookAndCancel(SeededDatabase db) {
+        int ticketId = db.service.bookTicket(db.randomTrainId(), "Bench Passenger", "bench@example.com", "9000000000");
+        return ticketId > 0 && db.service.cancelTicket(ticketId);
+    }
+}
@@ -0,0 +1,64 @@
+package com.railway.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.railway.model.Ticket;
+import com.railway.model.Train;
+import com.railway.util.PDFTicketGenerator;
+
+/**
+ * Single-ticket rendering, to a file as the CLI does and into a discarding
+ * stream to separate rendering from disk I/O. Run from the repository root so
+ * the logo at src/irctc.png is found.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PdfBenchmark {
+    private Ticket ticket;
+    private Train train;
+    private File outputFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        train = new Train(1, "Chennai Express", "Chennai", "Coimbatore", "06:00:00", "12:30:00", 120, 60, 285.50);
+        ticket = new Ticket(1, "Bench Passenger", "bench@example.com", "9000000000", 30, "F",
+                            "S1-42", "S1", "SLEEPER", 285.50, LocalDate.now().plusDays(7));
+        ticket.setTicketId(42);
+        outputFile = File.createTempFile("bench-ticket-", ".pdf");
+    }
+
+    @TearDown
+    public void tearDown() {
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public boolean generateTicketPDF() {
+        return PDFTicketGenerator.generateTicketPDF(ticket, train, outputFile.getPath());
+    }
+
+    @Benchmark
+    public void writeTicketPDF() throws IOException {
+        PDFTicketGenerator.writeTicketPDF(ticket, train, OutputStream.nullOutputStream());
+    }
+}
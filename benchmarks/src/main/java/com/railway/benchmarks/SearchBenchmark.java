@@ -0,0 +1,33 @@
+package com.railway.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.railway.model.Train;
+
+// Direct-route search straight against MySQL versus the in-memory route index
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Benchmark
+    public List<Train> daoSearchTrains(SeededDatabase db) {
+        return db.trainDAO.searchTrains(SeededDatabase.randomStation(), SeededDatabase.randomStation());
+    }
+
+    @Benchmark
+    public List<Train> indexedSearchTrains(SeededDatabase db) {
+        return db.service.searchTrains(SeededDatabase.randomStation(), SeededDatabase.randomStation());
+    }
+}
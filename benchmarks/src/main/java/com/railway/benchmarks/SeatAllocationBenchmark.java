@@ -0,0 +1,56 @@
+package com.railway.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.railway.inventory.SeatBitmap;
+
+// The legacy gap-finding SQL query versus claiming and releasing a seat in the in-memory bitmap
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SeatAllocationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Bitmap {
+        @Param({"100"})
+        public int seats;
+
+        @Param({"0.5"})
+        public double occupancy;
+
+        public SeatBitmap bitmap;
+
+        @Setup
+        public void setUp() {
+            bitmap = new SeatBitmap(seats);
+            for (int seat = 1; seat <= seats * occupancy; seat++) {
+                bitmap.markTaken(seat);
+            }
+        }
+    }
+
+    @Benchmark
+    public int dbNextAvailableSeat(SeededDatabase db) {
+        return db.ticketDAO.getNextAvailableSeat(db.randomTrainId(), LocalDate.now());
+    }
+
+    @Benchmark
+    public boolean bitmapAllocateRelease(Bitmap state) {
+        return state.bitmap.release(state.bitmap.allocate());
+    }
+}
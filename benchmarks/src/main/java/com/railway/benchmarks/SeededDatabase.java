@@ -0,0 +1,58 @@
+package com.railway.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.dao.TicketDAO;
+import com.railway.dao.TrainDAO;
+import com.railway.service.ReservationService;
+
+/**
+ * Database fixture shared by the DB-bound benchmarks. Scale is set per run with
+ * JMH parameters, e.g. {@code -p trains=10000 -p occupancy=0.9}.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    @Param({"1000"})
+    public int trains;
+
+    @Param({"100"})
+    public int seatsPerTrain;
+
+    @Param({"0.5"})
+    public double occupancy;
+
+    public int[] trainIds;
+    public TrainDAO trainDAO;
+    public TicketDAO ticketDAO;
+    public ReservationService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        trainIds = BenchmarkDatabase.seed(trains, seatsPerTrain, occupancy);
+        trainDAO = new TrainDAO();
+        ticketDAO = new TicketDAO();
+        service = new ReservationService();
+        service.warmUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConfig.shutdown();
+    }
+
+    public int randomTrainId() {
+        return trainIds[ThreadLocalRandom.current().nextInt(trainIds.length)];
+    }
+
+    public static String randomStation() {
+        return BenchmarkDatabase.STATIONS[ThreadLocalRandom.current().nextInt(BenchmarkDatabase.STATIONS.length)];
+    }
+}
@@ -0,0 +1,30 @@
+package com.railway.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.railway.model.Ticket;
+
+// Ticket construction, which includes PNR generation and fare calculation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketBenchmark {
+    private final LocalDate journeyDate = LocalDate.now().plusDays(7);
+
+    @Benchmark
+    public Ticket newTicket() {
+        return new Ticket(1, "Bench Passenger", "bench@example.com", "9000000000", 30, "F",
+                          "S1-42", "S1", "SLEEPER", 285.50, journeyDate);
+    }
+}
@@ -11,11 +11,25 @@ CREATE TABLE trains (
     departure_time TIME NOT NULL,
     arrival_time TIME NOT NULL,
     total_seats INT NOT NULL,
+    -- Legacy single-run counter; bookings count seats per date in train_runs
     available_seats INT NOT NULL,
     fare DECIMAL(10,2) NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Coach layout per train. Seat numbers are train-wide and each coach owns a
+-- contiguous run of them; berth types follow the class's bay pattern. A train
+-- with no rows here is treated as one GENERAL coach covering all its seats.
+CREATE TABLE coaches (
+    train_id INT NOT NULL,
+    coach_code VARCHAR(5) NOT NULL,
+    ticket_class VARCHAR(20) NOT NULL,
+    first_seat INT NOT NULL,
+    seat_count INT NOT NULL,
+    PRIMARY KEY (train_id, coach_code),
+    FOREIGN KEY (train_id) REFERENCES trains(train_id)
+);
+
 -- Create tickets table
 CREATE TABLE tickets (
     ticket_id INT PRIMARY KEY AUTO_INCREMENT,
@@ -23,13 +37,119 @@ CREATE TABLE tickets (
     passenger_name VARCHAR(100) NOT NULL,
     passenger_email VARCHAR(100) NOT NULL,
     passenger_phone VARCHAR(15) NOT NULL,
-    seat_number INT NOT NULL,
+    -- NULL while the ticket is RAC or WAITING
+    seat_number INT NULL,
     fare DECIMAL(10,2) NOT NULL,
     booking_time TIMESTAMP NOT NULL,
-    status ENUM('BOOKED', 'CANCELLED') DEFAULT 'BOOKED',
+    status ENUM('BOOKED', 'CANCELLED', 'RAC', 'WAITING') DEFAULT 'BOOKED',
+    ticket_class VARCHAR(20) NOT NULL DEFAULT 'GENERAL',
+    -- The run (train and date) the seat belongs to; seat numbers repeat across dates
+    journey_date DATE NOT NULL,
+    -- Where seat_number sits in the coach layout, printed as coach-berth (S1-23); NULL while waiting
+    coach_number VARCHAR(5) NULL,
+    berth_number INT NULL,
+    berth_type VARCHAR(12) NULL,
+    -- 15-digit PNR from IdGenerator (time, node, sequence, check digit); tickets
+    -- booked before it carry their zero-padded ticket id
+    pnr_number VARCHAR(15) NOT NULL,
+    -- Payment reference; shared by every ticket of a group booking
+    transaction_id VARCHAR(20) NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Seat held by a live booking; NULL once cancelled so a seat can be cancelled more than once
+    booked_seat INT AS (IF(status = 'BOOKED', seat_number, NULL)) STORED,
     FOREIGN KEY (train_id) REFERENCES trains(train_id),
-    UNIQUE KEY unique_seat_per_train (train_id, seat_number, status)
+    UNIQUE KEY unique_seat_per_run (train_id, journey_date, booked_seat),
+    UNIQUE KEY unique_pnr (pnr_number)
+);
+
+-- Tickets of journeys older than railway.archive.retentionDays, moved here in
+-- batches by TicketArchiver; same columns as tickets plus when the row moved
+CREATE TABLE tickets_archive (
+    ticket_id INT PRIMARY KEY,
+    train_id INT NOT NULL,
+    passenger_name VARCHAR(100) NOT NULL,
+    passenger_email VARCHAR(100) NOT NULL,
+    passenger_phone VARCHAR(15) NOT NULL,
+    seat_number INT NULL,
+    fare DECIMAL(10,2) NOT NULL,
+    booking_time TIMESTAMP NOT NULL,
+    status ENUM('BOOKED', 'CANCELLED', 'RAC', 'WAITING') NOT NULL,
+    ticket_class VARCHAR(20) NOT NULL,
+    journey_date DATE NOT NULL,
+    coach_number VARCHAR(5) NULL,
+    berth_number INT NULL,
+    berth_type VARCHAR(12) NULL,
+    pnr_number VARCHAR(15) NOT NULL,
+    transaction_id VARCHAR(20) NULL,
+    created_at TIMESTAMP NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (train_id) REFERENCES trains(train_id),
+    UNIQUE KEY unique_archive_pnr (pnr_number)
+);
+
+-- Free seats per train run. A row is created with every seat free the first time
+-- a date is booked; bookings lock and update only their own run's row.
+CREATE TABLE train_runs (
+    train_id INT NOT NULL,
+    journey_date DATE NOT NULL,
+    available_seats INT NOT NULL,
+    PRIMARY KEY (train_id, journey_date),
+    FOREIGN KEY (train_id) REFERENCES trains(train_id)
+);
+
+-- Station master data. station_name is the name trains, distances and
+-- timetables use; official_name is printed for passengers.
+CREATE TABLE stations (
+    station_code VARCHAR(6) PRIMARY KEY,
+    station_name VARCHAR(50) NOT NULL,
+    official_name VARCHAR(100) NOT NULL,
+    state VARCHAR(50) NOT NULL,
+    zone VARCHAR(50) NOT NULL,
+    division VARCHAR(50) NOT NULL,
+    platforms INT NOT NULL DEFAULT 1,
+    UNIQUE KEY unique_station_name (station_name)
+);
+
+-- Other names passengers search a station by (old names, local names)
+CREATE TABLE station_aliases (
+    station_code VARCHAR(6) NOT NULL,
+    alias VARCHAR(100) NOT NULL,
+    PRIMARY KEY (station_code, alias),
+    FOREIGN KEY (station_code) REFERENCES stations(station_code)
+);
+
+-- Calling pattern of each train, origin first. Times are clock times;
+-- day_offset is the day of the journey (0 = the day it leaves the origin) on
+-- which the train reaches the stop, and distance_km is measured from the
+-- origin. Trains with no rows here run non-stop between their endpoints.
+CREATE TABLE train_stops (
+    train_id INT NOT NULL,
+    stop_sequence INT NOT NULL,
+    station_name VARCHAR(50) NOT NULL,
+    arrival_time TIME NULL,
+    departure_time TIME NULL,
+    day_offset INT NOT NULL DEFAULT 0,
+    distance_km INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (train_id, stop_sequence),
+    FOREIGN KEY (train_id) REFERENCES trains(train_id)
+);
+
+-- Track distance between adjacent stations, either direction; FareEngine
+-- derives the distance between any two connected stations from these
+CREATE TABLE station_distances (
+    from_station VARCHAR(50) NOT NULL,
+    to_station VARCHAR(50) NOT NULL,
+    distance_km INT NOT NULL,
+    PRIMARY KEY (from_station, to_station)
+);
+
+-- Base fare (before taxes) of each class for journeys up to slab_km, from the
+-- previous slab's bound + 1. A class with no row for a slab is not sold that far.
+CREATE TABLE fare_slabs (
+    ticket_class VARCHAR(20) NOT NULL,
+    slab_km INT NOT NULL,
+    fare DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (ticket_class, slab_km)
 );
 
 -- Insert sample train data for Tamil Nadu districts
@@ -59,8 +179,140 @@ INSERT INTO trains (train_name, source, destination, departure_time, arrival_tim
 ('Tamirabarani Express', 'Tirunelveli', 'Tenkasi', '09:15:00', '10:30:00', 60, 60, 45.50),
 ('Courtallam Express', 'Tirunelveli', 'Courtallam', '14:45:00', '16:15:00', 55, 55, 55.75);
 
+-- Sample coach layout: 40% sleeper, 20% AC 3-tier, 10% AC 2-tier, the rest general seating
+INSERT INTO coaches (train_id, coach_code, ticket_class, first_seat, seat_count)
+WITH layout AS (
+    SELECT train_id, total_seats,
+           FLOOR(total_seats * 0.4) AS sleeper,
+           FLOOR(total_seats * 0.2) AS ac3,
+           FLOOR(total_seats * 0.1) AS ac2
+    FROM trains
+)
+SELECT train_id, 'S1', 'SLEEPER', 1, sleeper FROM layout
+UNION ALL SELECT train_id, 'B1', 'AC_3_TIER', sleeper + 1, ac3 FROM layout
+UNION ALL SELECT train_id, 'A1', 'AC_2_TIER', sleeper + ac3 + 1, ac2 FROM layout
+UNION ALL SELECT train_id, 'GS', 'GENERAL', sleeper + ac3 + ac2 + 1, total_seats - sleeper - ac3 - ac2 FROM layout;
+
+-- Sample stations served by the trains above
+INSERT INTO stations (station_code, station_name, official_name, state, zone, division, platforms) VALUES
+('MAS', 'Chennai', 'Chennai Central', 'Tamil Nadu', 'Southern Railway', 'Chennai', 12),
+('CBE', 'Coimbatore', 'Coimbatore Junction', 'Tamil Nadu', 'Southern Railway', 'Salem', 6),
+('MDU', 'Madurai', 'Madurai Junction', 'Tamil Nadu', 'Southern Railway', 'Madurai', 6),
+('TEN', 'Tirunelveli', 'Tirunelveli Junction', 'Tamil Nadu', 'Southern Railway', 'Madurai', 5),
+('TN', 'Tuticorin', 'Thoothukudi', 'Tamil Nadu', 'Southern Railway', 'Madurai', 3),
+('TPJ', 'Tiruchirappalli', 'Tiruchirappalli Junction', 'Tamil Nadu', 'Southern Railway', 'Tiruchirappalli', 8),
+('SA', 'Salem', 'Salem Junction', 'Tamil Nadu', 'Southern Railway', 'Salem', 6),
+('TJ', 'Thanjavur', 'Thanjavur Junction', 'Tamil Nadu', 'Southern Railway', 'Tiruchirappalli', 4),
+('CAPE', 'Kanyakumari', 'Kanyakumari', 'Tamil Nadu', 'Southern Railway', 'Thiruvananthapuram', 3),
+('RMM', 'Rameswaram', 'Rameswaram', 'Tamil Nadu', 'Southern Railway', 'Madurai', 3),
+('ED', 'Erode', 'Erode Junction', 'Tamil Nadu', 'Southern Railway', 'Salem', 4),
+('DPJ', 'Dharmapuri', 'Dharmapuri', 'Tamil Nadu', 'Southern Railway', 'Bangalore', 2),
+('UAM', 'Ooty', 'Udagamandalam', 'Tamil Nadu', 'Southern Railway', 'Salem', 1),
+('KQN', 'Kodaikanal', 'Kodaikanal Road', 'Tamil Nadu', 'Southern Railway', 'Madurai', 2),
+('TENI', 'Theni', 'Theni', 'Tamil Nadu', 'Southern Railway', 'Madurai', 2),
+('TSI', 'Tenkasi', 'Tenkasi Junction', 'Tamil Nadu', 'Southern Railway', 'Madurai', 3),
+('CTLM', 'Courtallam', 'Courtallam', 'Tamil Nadu', 'Southern Railway', 'Madurai', 1);
+
+INSERT INTO station_aliases (station_code, alias) VALUES
+('MAS', 'Madras'),
+('MAS', 'Madras Central'),
+('CBE', 'Kovai'),
+('TEN', 'Nellai'),
+('TN', 'Thoothukudi'),
+('TPJ', 'Trichy'),
+('TPJ', 'Tiruchi'),
+('TJ', 'Tanjore'),
+('CAPE', 'Cape Comorin'),
+('UAM', 'Udhagamandalam'),
+('CTLM', 'Kutralam');
+
+-- Sample track distances between the stations the trains serve
+INSERT INTO station_distances (from_station, to_station, distance_km) VALUES
+('Chennai', 'Coimbatore', 497),
+('Chennai', 'Madurai', 462),
+('Chennai', 'Salem', 335),
+('Chennai', 'Tiruchirappalli', 337),
+('Chennai', 'Thanjavur', 351),
+('Salem', 'Erode', 60),
+('Erode', 'Coimbatore', 100),
+('Salem', 'Dharmapuri', 67),
+('Coimbatore', 'Ooty', 86),
+('Coimbatore', 'Madurai', 229),
+('Tiruchirappalli', 'Thanjavur', 50),
+('Tiruchirappalli', 'Salem', 140),
+('Tiruchirappalli', 'Madurai', 155),
+('Madurai', 'Tirunelveli', 155),
+('Madurai', 'Kanyakumari', 242),
+('Madurai', 'Rameswaram', 173),
+('Madurai', 'Kodaikanal', 120),
+('Madurai', 'Theni', 75),
+('Tirunelveli', 'Tuticorin', 50),
+('Tirunelveli', 'Tenkasi', 72),
+('Tenkasi', 'Courtallam', 6);
+
+-- Sample tariff: 25 km slabs up to 1500 km, priced per km of the slab's upper bound with a minimum fare
+INSERT INTO fare_slabs (ticket_class, slab_km, fare)
+WITH RECURSIVE slabs (slab_km) AS (
+    SELECT 25
+    UNION ALL SELECT slab_km + 25 FROM slabs WHERE slab_km < 1500
+),
+rates (ticket_class, per_km, minimum) AS (
+    SELECT 'GENERAL', 0.45, 30
+    UNION ALL SELECT 'SLEEPER', 0.70, 100
+    UNION ALL SELECT 'AC_3_TIER', 1.20, 250
+    UNION ALL SELECT 'AC_2_TIER', 1.70, 400
+    UNION ALL SELECT 'AC_1_TIER', 2.80, 650
+)
+SELECT r.ticket_class, s.slab_km, GREATEST(r.minimum, ROUND(s.slab_km * r.per_km))
+FROM slabs s CROSS JOIN rates r;
+
+-- Sample calling patterns; train ids follow the insert order of the trains above
+INSERT INTO train_stops (train_id, stop_sequence, station_name, arrival_time, departure_time, day_offset, distance_km) VALUES
+(1, 1, 'Chennai', NULL, '06:00:00', 0, 0),
+(1, 2, 'Salem', '10:45:00', '10:50:00', 0, 335),
+(1, 3, 'Erode', '11:45:00', '11:50:00', 0, 395),
+(1, 4, 'Coimbatore', '12:30:00', NULL, 0, 495),
+(2, 1, 'Chennai', NULL, '22:30:00', 0, 0),
+(2, 2, 'Tiruchirappalli', '03:40:00', '03:45:00', 1, 337),
+(2, 3, 'Madurai', '06:45:00', NULL, 1, 492),
+(3, 1, 'Chennai', NULL, '20:45:00', 0, 0),
+(3, 2, 'Tiruchirappalli', '01:55:00', '02:00:00', 1, 337),
+(3, 3, 'Madurai', '04:30:00', '04:35:00', 1, 492),
+(3, 4, 'Tirunelveli', '08:15:00', NULL, 1, 647),
+(4, 1, 'Chennai', NULL, '14:20:00', 0, 0),
+(4, 2, 'Salem', '18:30:00', '18:35:00', 0, 335),
+(4, 3, 'Erode', '19:30:00', '19:32:00', 0, 395),
+(4, 4, 'Coimbatore', '20:45:00', NULL, 0, 495),
+(5, 1, 'Chennai', NULL, '16:15:00', 0, 0),
+(5, 2, 'Tiruchirappalli', '21:20:00', '21:25:00', 0, 337),
+(5, 3, 'Madurai', '23:55:00', '00:05:00', 0, 492),
+(5, 4, 'Tirunelveli', '02:50:00', '02:55:00', 1, 647),
+(5, 5, 'Tuticorin', '04:30:00', NULL, 1, 697),
+(7, 1, 'Chennai', NULL, '13:40:00', 0, 0),
+(7, 2, 'Tiruchirappalli', '18:55:00', '19:00:00', 0, 337),
+(7, 3, 'Madurai', '21:55:00', NULL, 0, 492),
+(8, 1, 'Chennai', NULL, '21:45:00', 0, 0),
+(8, 2, 'Tiruchirappalli', '02:50:00', '02:55:00', 1, 337),
+(8, 3, 'Madurai', '05:40:00', '05:45:00', 1, 492),
+(8, 4, 'Tirunelveli', '09:30:00', NULL, 1, 647),
+(11, 1, 'Coimbatore', NULL, '05:45:00', 0, 0),
+(11, 2, 'Madurai', '09:20:00', '09:30:00', 0, 229),
+(11, 3, 'Tirunelveli', '12:30:00', NULL, 0, 384),
+(12, 1, 'Coimbatore', NULL, '07:20:00', 0, 0),
+(12, 2, 'Erode', '08:45:00', '08:50:00', 0, 100),
+(12, 3, 'Salem', '10:45:00', NULL, 0, 160);
+
 -- Create indexes for better performance
 CREATE INDEX idx_trains_route ON trains(source, destination);
-CREATE INDEX idx_tickets_passenger ON tickets(passenger_email);
+-- Passenger history pages are range scans keyed on (booking_time, ticket_id)
+CREATE INDEX idx_tickets_passenger ON tickets(passenger_email, booking_time, ticket_id);
 CREATE INDEX idx_tickets_train ON tickets(train_id);
-CREATE INDEX idx_tickets_status ON tickets(status);
\ No newline at end of file
+CREATE INDEX idx_tickets_status ON tickets(status);
+-- Loads each run's RAC/waitlist queue in booking order
+CREATE INDEX idx_tickets_waitlist ON tickets(train_id, journey_date, status, ticket_id);
+-- Warm-up loads only runs from today on
+CREATE INDEX idx_tickets_journey ON tickets(journey_date, status);
+-- PNR status checks read only this index (ticket_id is the implicit primary key suffix)
+CREATE INDEX idx_tickets_pnr_status ON tickets(pnr_number, status, train_id, journey_date, ticket_class,
+                                               seat_number, coach_number, berth_number, berth_type);
+CREATE INDEX idx_tickets_archive_passenger ON tickets_archive(passenger_email, booking_time, ticket_id);
\ No newline at end of file
@@ -1,20 +1,45 @@
 package com.railway;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
+import com.railway.config.DatabaseConfig;
+import com.railway.config.PoolStats;
+import com.railway.metrics.MetricsRegistry;
+import com.railway.model.BookingResult;
+import com.railway.model.Coach;
+import com.railway.model.Fare;
+import com.railway.model.Itinerary;
+import com.railway.model.PassengerRequest;
+import com.railway.model.PnrStatus;
+import com.railway.model.Station;
+import com.railway.model.Ticket;
+import com.railway.model.TicketPage;
 import com.railway.model.Train;
+import com.railway.model.TrainStop;
 import com.railway.service.ReservationService;
+import com.railway.service.TicketArchiver;
 
 public class RailwayReservationSystem {
     private static final ReservationService reservationService = new ReservationService();
     private static final Scanner scanner = new Scanner(System.in);
+    private static final int TICKET_PAGE_SIZE = 20;
+    private static final int STATION_SUGGESTIONS = 5;
     
     public static void main(String[] args) {
         System.out.println("=================================");
         System.out.println("  RAILWAY RESERVATION SYSTEM");
         System.out.println("=================================");
         
+        reservationService.warmUp();
+        MetricsRegistry.startFileExporter();
+        TicketArchiver.startScheduled();
+        
         while (true) {
             showMenu();
             int choice = getIntInput("Enter your choice: ");
@@ -51,7 +76,14 @@ public class RailwayReservationSystem {
                     showStationInfo();
                     break;
                 case 11:
+                    bookGroup();
+                    break;
+                case 12:
+                    showMetrics();
+                    break;
+                case 13:
                     System.out.println("Thank you for using Railway Reservation System!");
+                    DatabaseConfig.shutdown();
                     System.exit(0);
                     break;
                 default:
@@ -72,10 +104,12 @@ public class RailwayReservationSystem {
         System.out.println("5. View My Tickets");
         System.out.println("6. Update Passenger Details");
         System.out.println("7. Print Ticket");
-        System.out.println("8. Train Schedule & Live Status");
+        System.out.println("8. Train Schedule");
         System.out.println("9. Fare Calculator");
         System.out.println("10. Station Information");
-        System.out.println("11. Exit");
+        System.out.println("11. Group Booking");
+        System.out.println("12. Performance Metrics");
+        System.out.println("13. Exit");
         System.out.println("================");
     }
     
@@ -90,6 +124,9 @@ public class RailwayReservationSystem {
         
         if (trains.isEmpty()) {
             System.out.println("No trains found for the given route!");
+            suggestStations(source);
+            suggestStations(destination);
+            showConnectingJourneys(source, destination);
             return;
         }
         
@@ -102,13 +139,37 @@ public class RailwayReservationSystem {
             System.out.printf("%-8d %-20s %-15s %-15s %-10d $%-9.2f %-8d%n",
                              train.getTrainId(), train.getTrainName(), 
                              train.getDepartureTime(), train.getArrivalTime(),
-                             train.getTotalSeats(), train.getFare(), train.getAvailableSeats());
+                             train.getTotalSeats(), reservationService.quoteFare(train, "GENERAL").getTotalFare(),
+                             train.getAvailableSeats());
+        }
+    }
+    
+    private static void showConnectingJourneys(String source, String destination) {
+        List<Itinerary> journeys = reservationService.planJourney(source, destination, java.time.LocalTime.now(), 2, 5);
+        if (journeys.isEmpty()) {
+            return;
+        }
+        
+        System.out.println("\n=== CONNECTING JOURNEYS ===");
+        int option = 1;
+        for (Itinerary journey : journeys) {
+            System.out.printf("Option %d: %d change(s), %dh %02dm, Rs.%.2f (GENERAL)%n", option++,
+                             journey.getTransfers(), journey.getDurationMinutes() / 60,
+                             journey.getDurationMinutes() % 60, reservationService.quoteJourney(journey, "GENERAL"));
+            for (Itinerary.Leg leg : journey.getLegs()) {
+                System.out.printf("   Train %-4d %-20s %-15s %-12s -> %-15s %-12s%n",
+                                 leg.getTrain().getTrainId(), leg.getTrain().getTrainName(),
+                                 leg.getFromStation(), leg.getDepartureTime(),
+                                 leg.getToStation(), leg.getArrivalTime());
+            }
         }
     }
     
     private static void bookTicket() {
         System.out.println("\n=== BOOK TICKET ===");
         int trainId = getIntInput("Enter Train ID: ");
+        java.time.LocalDate journeyDate = readJourneyDate();
+        showClassAvailability(trainId, journeyDate);
         System.out.print("Enter passenger name: ");
         String name = scanner.nextLine().trim();
         System.out.print("Enter passenger email: ");
@@ -121,67 +182,123 @@ public class RailwayReservationSystem {
         System.out.print("Enter gender (M/F/O): ");
         String gender = scanner.nextLine().trim().toUpperCase();
         
+        String ticketClass = chooseTicketClass();
+        String berthPreference = null;
+        if (!"GENERAL".equals(ticketClass)) {
+            System.out.print("Berth preference (LOWER/MIDDLE/UPPER/SIDE_LOWER/SIDE_UPPER) or press Enter for none: ");
+            String berthInput = scanner.nextLine().trim().toUpperCase();
+            if (Coach.isBerthType(berthInput)) {
+                berthPreference = berthInput;
+            } else if (!berthInput.isEmpty()) {
+                System.out.println("Unknown berth type, allotting any free berth");
+            }
+        }
+        
+        BookingResult result = reservationService.bookTicket(trainId, name, email, phone, age, gender, ticketClass, journeyDate,
+                                                             berthPreference);
+        System.out.println(result.getMessage());
+        if (result.isSuccess()) {
+            Ticket ticket = result.getTicket();
+            System.out.println("Ticket ID: " + ticket.getTicketId());
+            System.out.println("PNR: " + ticket.getPnrNumber());
+            System.out.println("Seat: " + ticket.getSeatNumber() + " (" + ticket.getBerthType() + ")");
+            System.out.println("Class: " + ticketClass);
+            System.out.println("Total Fare: Rs." + ticket.getTotalFare());
+            
+            int ticketId = result.getTicketId();
+            System.out.println("\n=== BOOKING CONFIRMATION ===");
+            showTicketDetails(ticketId);
+            
+            System.out.print("\nWould you like to print the ticket? (y/n): ");
+            String printChoice = scanner.nextLine().trim().toLowerCase();
+            if ("y".equals(printChoice) || "yes".equals(printChoice)) {
+                chooseAndPrint(ticketId);
+            }
+        } else if (result.isWaitlisted()) {
+            Ticket ticket = result.getTicket();
+            System.out.println("Ticket ID: " + ticket.getTicketId());
+            System.out.println("PNR: " + ticket.getPnrNumber());
+            System.out.println("Waitlist status: " + reservationService.getWaitlistStatus(ticket));
+            System.out.println("You will be allotted a seat automatically if one is cancelled.");
+        }
+    }
+    
+    private static void bookGroup() {
+        System.out.println("\n=== GROUP BOOKING ===");
+        int trainId = getIntInput("Enter Train ID: ");
+        java.time.LocalDate journeyDate = readJourneyDate();
+        showClassAvailability(trainId, journeyDate);
+        String ticketClass = chooseTicketClass();
+        int count = getIntInput("Number of passengers: ");
+        if (count <= 0) {
+            System.out.println("Invalid number of passengers!");
+            return;
+        }
+        
+        System.out.print("Contact email for the group: ");
+        String email = scanner.nextLine().trim();
+        System.out.print("Contact phone for the group: ");
+        String phone = scanner.nextLine().trim();
+        
+        List<PassengerRequest> passengers = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            System.out.print("Passenger " + i + " name: ");
+            String name = scanner.nextLine().trim();
+            int age = getIntInput("Passenger " + i + " age: ");
+            System.out.print("Passenger " + i + " gender (M/F/O): ");
+            String gender = scanner.nextLine().trim().toUpperCase();
+            passengers.add(new PassengerRequest(name, email, phone, age, gender));
+        }
+        
+        BookingResult result = reservationService.bookGroup(trainId, passengers, ticketClass, journeyDate);
+        System.out.println(result.getMessage());
+        for (Ticket ticket : result.getTickets()) {
+            System.out.println("Ticket ID: " + ticket.getTicketId() + " | " + ticket.getPassengerName()
+                               + " | Seat: " + ticket.getSeatNumber() + " | Fare: Rs." + ticket.getTotalFare());
+        }
+    }
+    
+    private static String chooseTicketClass() {
         System.out.println("\nSelect ticket class:");
         System.out.println("1. General");
         System.out.println("2. Sleeper");
         System.out.println("3. AC 3 Tier");
         System.out.println("4. AC 2 Tier");
-        int classChoice = getIntInput("Enter choice (1-4): ");
+        System.out.println("5. AC 1 Tier");
+        int classChoice = getIntInput("Enter choice (1-5): ");
         
-        String ticketClass;
         switch (classChoice) {
-            case 2: ticketClass = "SLEEPER"; break;
-            case 3: ticketClass = "AC_3_TIER"; break;
-            case 4: ticketClass = "AC_2_TIER"; break;
-            default: ticketClass = "GENERAL"; break;
+            case 2: return "SLEEPER";
+            case 3: return "AC_3_TIER";
+            case 4: return "AC_2_TIER";
+            case 5: return "AC_1_TIER";
+            default: return "GENERAL";
         }
-        
+    }
+    
+    private static java.time.LocalDate readJourneyDate() {
         System.out.print("Enter journey date (dd-MM-yyyy) or press Enter for today: ");
         String dateInput = scanner.nextLine().trim();
-        java.time.LocalDate journeyDate;
         if (dateInput.isEmpty()) {
-            journeyDate = java.time.LocalDate.now();
-        } else {
-            try {
-                journeyDate = java.time.LocalDate.parse(dateInput, 
-                    java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-            } catch (Exception e) {
-                System.out.println("Invalid date format, using today's date");
-                journeyDate = java.time.LocalDate.now();
-            }
+            return java.time.LocalDate.now();
         }
-        
-        int ticketId = reservationService.bookTicket(trainId, name, email, phone, age, gender, ticketClass, journeyDate);
-        if (ticketId > 0) {
-            System.out.println("\n=== BOOKING CONFIRMATION ===");
-            reservationService.viewTicket(ticketId);
-            
-            System.out.print("\nWould you like to print the ticket? (y/n): ");
-            String printChoice = scanner.nextLine().trim().toLowerCase();
-            if ("y".equals(printChoice) || "yes".equals(printChoice)) {
-                System.out.println("\nChoose print format:");
-                System.out.println("1. Console Print (Text)");
-                System.out.println("2. PDF File");
-                System.out.println("3. Both");
-                
-                int choice = getIntInput("Enter your choice (1-3): ");
-                
-                switch (choice) {
-                    case 1:
-                        reservationService.printTicket(ticketId);
-                        break;
-                    case 2:
-                        reservationService.printTicketToPDF(ticketId);
-                        break;
-                    case 3:
-                        reservationService.printTicket(ticketId);
-                        reservationService.printTicketToPDF(ticketId);
-                        break;
-                    default:
-                        System.out.println("Invalid choice! Printing to console...");
-                        reservationService.printTicket(ticketId);
-                }
-            }
+        try {
+            return java.time.LocalDate.parse(dateInput, 
+                java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        } catch (Exception e) {
+            System.out.println("Invalid date format, using today's date");
+            return java.time.LocalDate.now();
+        }
+    }
+    
+    private static void showClassAvailability(int trainId, java.time.LocalDate journeyDate) {
+        Map<String, Integer> availability = reservationService.getClassAvailability(trainId, journeyDate);
+        if (availability.isEmpty()) {
+            return;
+        }
+        System.out.println("Seats available by class on " + journeyDate + ":");
+        for (Map.Entry<String, Integer> entry : availability.entrySet()) {
+            System.out.printf("  %-10s %d%n", entry.getKey(), entry.getValue());
         }
     }
     
@@ -190,35 +307,122 @@ public class RailwayReservationSystem {
         int ticketId = getIntInput("Enter Ticket ID to cancel: ");
         
         System.out.println("\nTicket details:");
-        reservationService.viewTicket(ticketId);
+        Ticket ticket = showTicketDetails(ticketId);
+        if (ticket == null) {
+            return;
+        }
+        if ("CANCELLED".equals(ticket.getStatus())) {
+            System.out.println("Ticket is already cancelled!");
+            return;
+        }
         
         System.out.print("\nAre you sure you want to cancel this ticket? (y/n): ");
         String confirm = scanner.nextLine().trim().toLowerCase();
         
         if ("y".equals(confirm) || "yes".equals(confirm)) {
-            reservationService.cancelTicket(ticketId);
+            if (reservationService.cancelTicket(ticketId)) {
+                System.out.println("Ticket cancelled successfully!");
+            } else {
+                System.out.println("Error cancelling ticket!");
+            }
         } else {
             System.out.println("Cancellation aborted.");
         }
     }
     
+    // A PNR (10 or 15 digits) shows its status; a shorter number is a ticket id and shows the full ticket
     private static void viewTicket() {
         System.out.println("\n=== VIEW TICKET ===");
-        int ticketId = getIntInput("Enter Ticket ID: ");
-        reservationService.viewTicket(ticketId);
+        while (true) {
+            System.out.print("Enter Ticket ID or PNR: ");
+            String input = scanner.nextLine().trim();
+            if (input.length() >= 10) {
+                showPnrStatus(input);
+                return;
+            }
+            try {
+                showTicketDetails(Integer.parseInt(input));
+                return;
+            } catch (NumberFormatException e) {
+                System.out.println("Please enter a valid number!");
+            }
+        }
+    }
+    
+    private static void showPnrStatus(String pnr) {
+        PnrStatus status = reservationService.getPnrStatus(pnr);
+        if (status == null) {
+            System.out.println("PNR not found! Check the number and try again.");
+            return;
+        }
+        
+        Train train = reservationService.getTrain(status.getTrainId());
+        String waitlist = reservationService.getWaitlistStatus(status);
+        
+        System.out.println("\n=== PNR STATUS ===");
+        System.out.println("PNR: " + status.getPnrNumber());
+        System.out.println("Train: " + status.getTrainId() + " / " + (train != null ? train.getTrainName() : "Unknown"));
+        System.out.println("Journey Date: " + status.getJourneyDate());
+        System.out.println("Class: " + status.getTicketClass());
+        System.out.println("Status: " + (waitlist != null ? waitlist : status.getStatus()));
+        if (waitlist == null && status.getSeatNumber() != null && !"CANCELLED".equals(status.getStatus())) {
+            System.out.println("Seat Number: " + status.getSeatNumber()
+                               + (status.getBerthType() != null ? " (" + status.getBerthType() + ")" : ""));
+        }
+        System.out.println("==================");
     }
     
     private static void viewPassengerTickets() {
         System.out.println("\n=== MY TICKETS ===");
         System.out.print("Enter your email: ");
         String email = scanner.nextLine().trim();
-        reservationService.viewPassengerTickets(email);
+        
+        TicketPage page;
+        try {
+            page = reservationService.getPassengerTicketPage(email, null, TICKET_PAGE_SIZE);
+        } catch (IllegalStateException e) {
+            System.out.println("Could not load your tickets, please try again.");
+            return;
+        }
+        if (page.getTickets().isEmpty()) {
+            System.out.println("No tickets found for this email!");
+            return;
+        }
+        
+        System.out.println("\n=== YOUR TICKETS ===");
+        while (true) {
+            for (Ticket ticket : page.getTickets()) {
+                System.out.println("Ticket ID: " + ticket.getTicketId() +
+                                 " | Train: " + ticket.getTrainName() +
+                                 " | Date: " + ticket.getJourneyDate() +
+                                 " | Seat: " + (ticket.getSeatNumber() != null ? ticket.getSeatNumber()
+                                                : reservationService.getWaitlistStatus(ticket)) +
+                                 " | Status: " + ticket.getStatus());
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            System.out.print("Press Enter for more, or q to stop: ");
+            if ("q".equalsIgnoreCase(scanner.nextLine().trim())) {
+                break;
+            }
+            try {
+                page = reservationService.getPassengerTicketPage(email, page.getNextPageToken(), TICKET_PAGE_SIZE);
+            } catch (IllegalStateException e) {
+                System.out.println("Could not load more tickets, please try again.");
+                break;
+            }
+        }
+        System.out.println("===================");
     }
     
     private static void printTicket() {
         System.out.println("\n=== PRINT TICKET ===");
         int ticketId = getIntInput("Enter Ticket ID to print: ");
-        
+        chooseAndPrint(ticketId);
+    }
+    
+    private static void chooseAndPrint(int ticketId) {
         System.out.println("\nChoose print format:");
         System.out.println("1. Console Print (Text)");
         System.out.println("2. PDF File");
@@ -228,18 +432,18 @@ public class RailwayReservationSystem {
         
         switch (choice) {
             case 1:
-                reservationService.printTicket(ticketId);
+                printTicketSlip(ticketId);
                 break;
             case 2:
-                reservationService.printTicketToPDF(ticketId);
+                saveTicketPDF(ticketId);
                 break;
             case 3:
-                reservationService.printTicket(ticketId);
-                reservationService.printTicketToPDF(ticketId);
+                printTicketSlip(ticketId);
+                saveTicketPDF(ticketId);
                 break;
             default:
                 System.out.println("Invalid choice! Printing to console...");
-                reservationService.printTicket(ticketId);
+                printTicketSlip(ticketId);
         }
     }
     
@@ -248,7 +452,14 @@ public class RailwayReservationSystem {
         int ticketId = getIntInput("Enter Ticket ID: ");
         
         System.out.println("\nCurrent ticket details:");
-        reservationService.viewTicket(ticketId);
+        Ticket ticket = showTicketDetails(ticketId);
+        if (ticket == null) {
+            return;
+        }
+        if ("CANCELLED".equals(ticket.getStatus())) {
+            System.out.println("Cannot update details for cancelled ticket!");
+            return;
+        }
         
         System.out.print("\nDo you want to update passenger details? (y/n): ");
         String confirm = scanner.nextLine().trim().toLowerCase();
@@ -260,42 +471,204 @@ public class RailwayReservationSystem {
             String email = scanner.nextLine().trim();
             System.out.print("Enter new passenger phone: ");
             String phone = scanner.nextLine().trim();
-            
-            reservationService.updatePassengerDetails(ticketId, name, email, phone);
+        
+            if (reservationService.updatePassengerDetails(ticketId, name, email, phone)) {
+                System.out.println("Passenger details updated successfully!");
+                System.out.println("Updated Details:");
+                System.out.println("Name: " + name);
+                System.out.println("Email: " + email);
+                System.out.println("Phone: " + phone);
+            } else {
+                System.out.println("Error updating passenger details!");
+            }
         } else {
             System.out.println("Update cancelled.");
         }
     }
     
-    private static void showTrainSchedule() {
-        System.out.println("\n=== TRAIN SCHEDULE & LIVE STATUS ===");
-        System.out.print("Enter Train Number: ");
-        String trainNum = scanner.nextLine().trim();
+    // ===== TICKET DISPLAY =====
+    
+    // Prints the ticket summary and returns it, or null (after saying so) if it does not exist
+    private static Ticket showTicketDetails(int ticketId) {
+        Ticket ticket = reservationService.getTicket(ticketId);
+        if (ticket == null) {
+            System.out.println("Ticket not found!");
+            return null;
+        }
         
-        System.out.println("\n=== TRAIN SCHEDULE FOR TRAIN " + trainNum + " ===");
-        System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", 
-                         "Station", "Station Name", "Arrival", "Departure", "Status");
-        System.out.println("------------------------------------------------------------------------");
+        Train train = reservationService.getTrain(ticket.getTrainId());
+        
+        System.out.println("\n=== TICKET DETAILS ===");
+        System.out.println("Ticket ID: " + ticket.getTicketId());
+        System.out.println("Train: " + (train != null ? train.getTrainName() : "Unknown"));
+        System.out.println("Route: " + (train != null ? train.getSource() + " -> " + train.getDestination() : "Unknown"));
+        System.out.println("Journey Date: " + ticket.getJourneyDate());
+        System.out.println("Passenger: " + ticket.getPassengerName());
+        System.out.println("Email: " + ticket.getPassengerEmail());
+        System.out.println("Phone: " + ticket.getPassengerPhone());
+        String waitlist = reservationService.getWaitlistStatus(ticket);
+        System.out.println("Seat Number: " + (waitlist != null ? waitlist : ticket.getSeatNumber()));
+        if (waitlist == null && ticket.getBerthType() != null) {
+            System.out.println("Berth: " + ticket.getBerthType());
+        }
+        System.out.println("Fare: $" + ticket.getFare());
+        System.out.println("Booking Time: " + ticket.getBookingTime());
+        System.out.println("Status: " + ticket.getStatus());
+        if (train != null) {
+            System.out.println("Departure: " + train.getDepartureTime());
+            System.out.println("Arrival: " + train.getArrivalTime());
+        }
+        System.out.println("=====================");
+        return ticket;
+    }
+    
+    private static void saveTicketPDF(int ticketId) {
+        try {
+            String outputPath = reservationService.saveTicketPDF(ticketId);
+            if (outputPath == null) {
+                System.out.println("Ticket or train information not found!");
+                return;
+            }
+            System.out.println("\n[SUCCESS] PDF ticket generated successfully!");
+            System.out.println("[FILE] File saved as: " + outputPath);
+            System.out.println("[PATH] Full path: " + System.getProperty("user.dir") + "/" + outputPath);
+            System.out.println("[INFO] PDF ticket ready for printing");
+        } catch (IOException e) {
+            System.out.println("[ERROR] Error generating PDF ticket: " + e.getMessage());
+        }
+    }
+    
+    private static void printTicketSlip(int ticketId) {
+        Ticket ticket = reservationService.getTicket(ticketId);
+        if (ticket == null) {
+            System.out.println("Ticket not found!");
+            return;
+        }
+        
+        Train train = reservationService.getTrain(ticket.getTrainId());
+        if (train == null) {
+            System.out.println("Train information not found!");
+            return;
+        }
+        
+        // Print formatted ticket
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("                    TAMIL NADU RAILWAY RESERVATION SYSTEM");
+        System.out.println("                         Electronic Reservation Slip (ERS)");
+        System.out.println("=".repeat(80));
+        
+        // Header section
+        System.out.printf("%-25s %-30s %-20s%n", "Booked From", "Boarding At", "To");
+        System.out.printf("%-25s %-30s %-20s%n", 
+                         train.getSource().toUpperCase(), 
+                         train.getSource().toUpperCase(), 
+                         train.getDestination().toUpperCase());
+        
+        System.out.println("-".repeat(80));
+        
+        // Journey details
+        System.out.printf("%-20s %-25s %-15s %-15s%n", 
+                         "Start Date", "Departure", "Arrival", "Class");
+        System.out.printf("%-20s %-25s %-15s %-15s%n", 
+                         ticket.getJourneyDate().toString(),
+                         train.getDepartureTime(),
+                         train.getArrivalTime(),
+                         ticket.getTicketClass());
+        
+        System.out.println("-".repeat(80));
+        
+        // Train and booking details
+        System.out.printf("%-15s %-25s %-20s %-15s%n", 
+                         "PNR", "Train No./Name", "Distance", "Booking Date");
+        System.out.printf("%-15s %-25s %-20s %-15s%n", 
+                         ticket.getPnrNumber(),
+                         train.getTrainId() + " / " + train.getTrainName(),
+                         distanceLabel(train),
+                         ticket.getBookingTime().toLocalDate().toString());
+        
+        System.out.println("-".repeat(80));
+        
+        String waitlist = reservationService.getWaitlistStatus(ticket);
+        
+        // Passenger details header
+        System.out.println("Passenger Details");
+        System.out.printf("%-5s %-25s %-10s %-15s %-20s%n", 
+                         "#", "Name", "Age", "Gender", "Booking Status");
+        System.out.printf("%-5s %-25s %-10s %-15s %-20s%n", 
+                         "1.", ticket.getPassengerName(), "N/A", "N/A", waitlist != null ? waitlist : "CONFIRMED");
+        
+        System.out.println("-".repeat(80));
+        
+        // Seat and fare details
+        System.out.printf("%-20s: %-10s%n", "Seat Number", waitlist != null ? "Not allotted" : ticket.getSeatNumber());
+        if (waitlist == null && ticket.getBerthType() != null) {
+            System.out.printf("%-20s: %-10s%n", "Berth", ticket.getBerthType());
+        }
+        System.out.printf("%-20s: %-10s%n", "Contact", ticket.getPassengerPhone());
+        System.out.printf("%-20s: %-10s%n", "Email", ticket.getPassengerEmail());
+        
+        System.out.println("-".repeat(80));
+        
+        // Payment details
+        System.out.println("Payment Details");
+        System.out.printf("%-30s: Rs. %.2f%n", "Base Fare", ticket.getBaseFare());
+        System.out.printf("%-30s: Rs. %.2f%n", "Taxes", ticket.getTaxes());
+        System.out.printf("%-30s: Rs. %.2f%n", "Convenience Fee", 0.0);
+        System.out.printf("%-30s: Rs. %.2f%n", "Total Fare (all inclusive)", ticket.getFare());
         
-        // Sample schedule data based on train number
-        if (trainNum.equals("1") || trainNum.toLowerCase().contains("chennai")) {
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "MAS", "Chennai Central", "--", "06:00", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "AJJ", "Arakkonam Jn", "06:45", "06:47", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "KPD", "Katpadi Jn", "07:30", "07:35", "Delayed 5 min");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "JTJ", "Jolarpettai", "09:15", "09:20", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "SA", "Salem Jn", "10:45", "10:50", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "ED", "Erode Jn", "11:45", "11:50", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "CBE", "Coimbatore Jn", "12:30", "--", "Expected");
+        System.out.println("-".repeat(80));
+        
+        // Transaction details
+        if (ticket.getTransactionId() != null) {
+            System.out.println("Transaction ID: " + ticket.getTransactionId());
         } else {
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "SRC", "Source Station", "--", "08:00", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "INT1", "Intermediate 1", "09:30", "09:32", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "INT2", "Intermediate 2", "11:15", "11:17", "On Time");
-            System.out.printf("%-15s %-20s %-10s %-10s %-15s%n", "DEST", "Destination", "13:45", "--", "Expected");
+            // Booked before transaction ids were stored
+            System.out.printf("Transaction ID: TN%s%010d%n", 
+                             ticket.getBookingTime().toLocalDate().toString().replace("-", ""), 
+                             ticketId);
+        }
+        
+        System.out.println("-".repeat(80));
+        
+        // Important notes
+        System.out.println("IMPORTANT INSTRUCTIONS:");
+        System.out.println("• Please carry a valid photo ID proof during journey");
+        System.out.println("• Ticket is valid only for the specified train and date");
+        System.out.println("• Report to station at least 30 minutes before departure");
+        System.out.println("• This is a computer generated ticket and does not require signature");
+        
+        System.out.println("-".repeat(80));
+        
+        // Footer
+        System.out.println("                    TAMIL NADU RAILWAY - SAFE & COMFORTABLE JOURNEY");
+        System.out.println("                          Status: " + ticket.getStatus());
+        System.out.println("=".repeat(80));
+        
+        System.out.println("\n*** HAPPY JOURNEY ***");
+    }
+    
+    private static void showTrainSchedule() {
+        System.out.println("\n=== TRAIN SCHEDULE ===");
+        int trainId = getIntInput("Enter Train ID: ");
+        
+        Train train = reservationService.getTrain(trainId);
+        if (train == null) {
+            System.out.println("Train not found!");
+            return;
         }
         
-        System.out.println("\n[INFO] Live tracking available on IRCTC app");
-        System.out.println("[INFO] SMS alerts: Send 'SPOT <PNR>' to 139");
-        System.out.println("[INFO] Train Number searched: " + trainNum);
+        System.out.println("\n=== SCHEDULE OF " + train.getTrainId() + " " + train.getTrainName().toUpperCase() + " ===");
+        System.out.printf("%-4s %-6s %-26s %-8s %-10s %-4s %s%n",
+                         "No", "Code", "Station", "Arrival", "Departure", "Day", "Km");
+        System.out.println("------------------------------------------------------------------------");
+        for (TrainStop stop : reservationService.getSchedule(trainId)) {
+            Station station = reservationService.resolveStation(stop.getStationName());
+            System.out.printf("%-4d %-6s %-26s %-8s %-10s %-4d %s%n", stop.getSequence(),
+                             station != null ? station.getCode() : "",
+                             station != null ? station.getOfficialName() : stop.getStationName(),
+                             stop.getArrivalTime(), stop.getDepartureTime(), stop.getDay(),
+                             stop.getDistanceKm() >= 0 ? String.valueOf(stop.getDistanceKm()) : "--");
+        }
     }
     
     private static void calculateFare() {
@@ -305,76 +678,114 @@ public class RailwayReservationSystem {
         System.out.print("Enter destination station: ");
         String destination = scanner.nextLine().trim();
         
+        Map<String, Fare> fares = reservationService.quoteFares(source, destination);
+        if (fares.isEmpty()) {
+            System.out.println("No fare found for this route! Check the station names.");
+            return;
+        }
+        
         System.out.println("\n=== FARE BREAKDOWN FOR " + source.toUpperCase() + " TO " + destination.toUpperCase() + " ===");
         System.out.printf("%-20s %-15s %-15s %-15s%n", "Class", "Base Fare", "Taxes", "Total Fare");
         System.out.println("---------------------------------------------------------------");
-        
-        // Calculate distance based on route
-        double distance;
-        if ((source.toLowerCase().contains("chennai") && destination.toLowerCase().contains("coimbatore")) ||
-            (source.toLowerCase().contains("coimbatore") && destination.toLowerCase().contains("chennai"))) {
-            distance = 497; // Chennai to Coimbatore
-        } else if ((source.toLowerCase().contains("chennai") && destination.toLowerCase().contains("madurai")) ||
-                   (source.toLowerCase().contains("madurai") && destination.toLowerCase().contains("chennai"))) {
-            distance = 462; // Chennai to Madurai
-        } else {
-            distance = 350; // Default distance
+        for (Map.Entry<String, Fare> entry : fares.entrySet()) {
+            Fare fare = entry.getValue();
+            System.out.printf("%-20s Rs.%-12.2f Rs.%-12.2f Rs.%-12.2f%n",
+                             entry.getKey(), fare.getBaseFare(), fare.getTaxes(), fare.getTotalFare());
         }
         
-        double baseFarePerKm = 0.75;
-        double baseFare = distance * baseFarePerKm;
-        double taxes = baseFare * 0.15;
+        System.out.println("\nRoute: " + source + " → " + destination);
+        System.out.println("Distance: " + reservationService.getDistanceKm(source, destination) + " km");
+        System.out.println("Note: Fares are per passenger and include taxes");
+    }
+    
+    private static String distanceLabel(Train train) {
+        int km = reservationService.getDistanceKm(train.getSource(), train.getDestination());
+        return km >= 0 ? km + " KM" : "-- KM";
+    }
+    
+    private static void showMetrics() {
+        System.out.println("\n=== PERFORMANCE METRICS ===");
+        System.out.print(MetricsRegistry.report());
         
-        System.out.printf("%-20s Rs.%-12.2f Rs.%-12.2f Rs.%-12.2f%n", "General", baseFare, taxes, baseFare + taxes);
-        System.out.printf("%-20s Rs.%-12.2f Rs.%-12.2f Rs.%-12.2f%n", "Sleeper", baseFare * 1.5, taxes * 1.5, (baseFare + taxes) * 1.5);
-        System.out.printf("%-20s Rs.%-12.2f Rs.%-12.2f Rs.%-12.2f%n", "AC 3 Tier", baseFare * 2.5, taxes * 2.5, (baseFare + taxes) * 2.5);
-        System.out.printf("%-20s Rs.%-12.2f Rs.%-12.2f Rs.%-12.2f%n", "AC 2 Tier", baseFare * 3.5, taxes * 3.5, (baseFare + taxes) * 3.5);
+        PoolStats poolStats = DatabaseConfig.getPoolStats();
+        if (poolStats != null) {
+            System.out.println("\n" + poolStats);
+        }
+        System.out.println(reservationService.getPnrStatusCache());
         
-        System.out.println("\nRoute: " + source + " → " + destination);
-        System.out.println("Distance: " + distance + " km");
-        System.out.println("Note: Fares are approximate and subject to change");
+        Path file = Paths.get(System.getProperty("railway.metrics.file", "railway-metrics.prom"));
+        try {
+            MetricsRegistry.writePrometheus(file);
+            System.out.println("\n[FILE] Prometheus metrics written to: " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("[ERROR] Could not write metrics file: " + e.getMessage());
+        }
     }
     
     private static void showStationInfo() {
         System.out.println("\n=== STATION INFORMATION ===");
         System.out.print("Enter station code or name: ");
-        String station = scanner.nextLine().trim().toUpperCase();
+        String input = scanner.nextLine().trim();
         
-        System.out.println("\n=== STATION DETAILS ===");
+        Station station = reservationService.resolveStation(input);
+        if (station == null) {
+            System.out.println("Station not found!");
+            suggestStations(input);
+            return;
+        }
         
-        // Sample station information
-        if (station.contains("CHENNAI") || station.equals("MAS")) {
-            System.out.println("Station Name: Chennai Central (MAS)");
-            System.out.println("State: Tamil Nadu");
-            System.out.println("Zone: Southern Railway");
-            System.out.println("Division: Chennai");
-            System.out.println("Platforms: 12");
-            System.out.println("Facilities: Waiting Room, Food Court, WiFi, ATM, Parking");
-            System.out.println("Contact: 044-25354151");
-        } else if (station.contains("COIMBATORE") || station.equals("CBE")) {
-            System.out.println("Station Name: Coimbatore Junction (CBE)");
-            System.out.println("State: Tamil Nadu");
-            System.out.println("Zone: Southern Railway");
-            System.out.println("Division: Salem");
-            System.out.println("Platforms: 6");
-            System.out.println("Facilities: Waiting Room, Food Plaza, WiFi, ATM");
-            System.out.println("Contact: 0422-2395555");
-        } else {
-            System.out.println("Station Name: " + station);
-            System.out.println("State: Tamil Nadu");
-            System.out.println("Zone: Southern Railway");
-            System.out.println("Platforms: 4");
-            System.out.println("Facilities: Basic amenities available");
-            System.out.println("Contact: 139 (Railway Enquiry)");
+        System.out.println("\n=== STATION DETAILS ===");
+        System.out.println("Station Name: " + station);
+        if (!station.getAliases().isEmpty()) {
+            System.out.println("Also known as: " + String.join(", ", station.getAliases()));
         }
+        System.out.println("State: " + station.getState());
+        System.out.println("Zone: " + station.getZone());
+        System.out.println("Division: " + station.getDivision());
+        System.out.println("Platforms: " + station.getPlatforms());
+        System.out.println("Contact: 139 (Railway Enquiry)");
         
-        System.out.println("\n=== NEARBY TRAINS ===");
-        System.out.println("• Express trains: 15-20 daily");
-        System.out.println("• Passenger trains: 8-10 daily");
-        System.out.println("• Mail trains: 5-8 daily");
+        System.out.print("\nShow trains calling from (HH:mm, Enter for 00:00): ");
+        String fromInput = scanner.nextLine().trim();
+        System.out.print("Until (HH:mm, Enter for 23:59): ");
+        String toInput = scanner.nextLine().trim();
+        java.time.LocalTime from;
+        java.time.LocalTime to;
+        try {
+            from = fromInput.isEmpty() ? java.time.LocalTime.MIDNIGHT : java.time.LocalTime.parse(fromInput);
+            to = toInput.isEmpty() ? java.time.LocalTime.of(23, 59) : java.time.LocalTime.parse(toInput);
+        } catch (java.time.format.DateTimeParseException e) {
+            System.out.println("Invalid time! Please use HH:mm.");
+            return;
+        }
         
-        System.out.println("\n[INFO] For live train status, call 139");
-        System.out.println("[INFO] Station WiFi: RailWire (Free for 30 minutes)");
+        List<TrainStop> calls = reservationService.getTrainsCalling(station, from, to);
+        System.out.println("\n=== TRAINS CALLING " + from + " - " + to + " ===");
+        if (calls.isEmpty()) {
+            System.out.println("None");
+        }
+        for (TrainStop call : calls) {
+            Train train = reservationService.getTrain(call.getTrainId());
+            System.out.printf("%-5d %-22s %-8s %-8s %-16s -> %s%n", call.getTrainId(),
+                             train != null ? train.getTrainName() : "",
+                             call.getArrivalTime(), call.getDepartureTime(),
+                             train != null ? train.getSource() : "", train != null ? train.getDestination() : "");
+        }
+    }
+    
+    // "Did you mean" line for input that names no station
+    private static void suggestStations(String input) {
+        if (reservationService.resolveStation(input) != null) {
+            return;
+        }
+        List<Station> suggestions = reservationService.suggestStations(input, STATION_SUGGESTIONS);
+        if (!suggestions.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (Station suggestion : suggestions) {
+                names.add(suggestion.toString());
+            }
+            System.out.println("Did you mean (" + input + "): " + String.join(", ", names) + "?");
+        }
     }
     
     private static int getIntInput(String prompt) {
@@ -0,0 +1,732 @@
+package com.railway.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.config.PoolStats;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MetricsRegistry;
+import com.railway.model.BookingResult;
+import com.railway.model.Coach;
+import com.railway.model.Itinerary;
+import com.railway.model.PnrStatus;
+import com.railway.model.Station;
+import com.railway.model.Ticket;
+import com.railway.model.TicketPage;
+import com.railway.model.Train;
+import com.railway.model.TrainStop;
+import com.railway.service.ReservationService;
+import com.railway.service.TicketArchiver;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP/JSON front end for {@link ReservationService}, built on the
+ * JDK's HttpServer so it needs nothing beyond the JRE.
+ *
+ * <pre>
+ * GET    /health                         pool statistics
+ * GET    /metrics                        Prometheus text format
+ * GET    /trains?from=..&amp;to=..&amp;date=2025-01-31   direct trains with seats (date defaults to today)
+ * GET    /trains/{id}/schedule           every stop with arrival, departure, day and km
+ * GET    /journeys?from=..&amp;to=..&amp;date=2025-01-31&amp;after=HH:mm&amp;transfers=2&amp;class=GENERAL
+ * GET    /stations?q=..&amp;limit=10          station autocomplete, typo tolerant
+ * GET    /stations/{station}/trains?from=HH:mm&amp;to=HH:mm   trains calling there in the window
+ * POST   /bookings                       {"trainId":1,"name":"..","email":"..","phone":"..",
+ *                                          "age":30,"gender":"M","ticketClass":"SLEEPER","journeyDate":"2025-01-31",
+ *                                          "berthPreference":"LOWER"}
+ * GET    /tickets?email=..&amp;limit=20&amp;pageToken=..   a passenger's tickets, newest first
+ * GET    /tickets/{id}
+ * GET    /pnr/{pnr}                      status, seat and live RAC/WL position
+ * GET    /tickets/{id}/pdf               streamed, chunked
+ * DELETE /tickets/{id}
+ * </pre>
+ *
+ * Requests run on a fixed worker pool with a bounded queue. When both are full
+ * the request is answered 503 straight from the accept thread instead of
+ * queueing without bound, so overload shows up as fast rejections rather than
+ * runaway latency. HTTP/1.1 keep-alive is handled by HttpServer as long as each
+ * response is fully written and closed, which every handler here does.
+ *
+ * Settings (system properties): railway.api.port (8080), railway.api.threads
+ * (32), railway.api.queue (256), railway.api.maxBodyBytes (16384).
+ */
+public class ApiServer {
+    private static final int PORT = Integer.getInteger("railway.api.port", 8080);
+    private static final int THREADS = Integer.getInteger("railway.api.threads", 32);
+    private static final int QUEUE = Integer.getInteger("railway.api.queue", 256);
+    private static final int MAX_BODY_BYTES = Integer.getInteger("railway.api.maxBodyBytes", 16384);
+    private static final int MAX_STATION_SUGGESTIONS = 50;
+
+    private static final String JSON = "application/json; charset=utf-8";
+
+    // Set while a shed request runs on the accept thread
+    private static final ThreadLocal<Boolean> SHEDDING = new ThreadLocal<>();
+
+    private final ReservationService service;
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final AtomicInteger shed = new AtomicInteger();
+
+    public ApiServer(ReservationService service, int port, int threads, int queueCapacity) throws IOException {
+        this.service = service;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "railway-api-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(new SheddingExecutor());
+        server.createContext("/health", guarded(this::health));
+        server.createContext("/metrics", guarded(this::metrics));
+        server.createContext("/trains", guarded(this::trains));
+        server.createContext("/journeys", guarded(this::journeys));
+        server.createContext("/stations", guarded(this::stations));
+        server.createContext("/bookings", guarded(this::bookings));
+        server.createContext("/tickets", guarded(this::tickets));
+        server.createContext("/pnr", guarded(this::pnr));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        workers.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        ReservationService service = new ReservationService();
+        service.warmUp();
+        ApiServer api = new ApiServer(service, PORT, THREADS, QUEUE);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop(1);
+            DatabaseConfig.shutdown();
+        }));
+        api.start();
+        MetricsRegistry.startFileExporter();
+        TicketArchiver.startScheduled();
+        System.out.println("Railway API listening on port " + api.getPort());
+    }
+
+    // ===== HANDLERS =====
+
+    private void health(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange) || !requireMethod(exchange, "GET")) {
+            return;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "UP");
+        body.put("workersActive", workers.getActiveCount());
+        body.put("queued", workers.getQueue().size());
+        body.put("shed", shed.get());
+        PoolStats pool = DatabaseConfig.getPoolStats();
+        if (pool != null) {
+            body.put("pool", pool.toString());
+        }
+        sendJson(exchange, 200, body);
+    }
+
+    // Prometheus text exposition
+    private void metrics(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange) || !requireMethod(exchange, "GET")) {
+            return;
+        }
+        byte[] bytes = MetricsRegistry.prometheus().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // /trains?from=..&to=.. and /trains/{id}/schedule
+    private void trains(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange) || !requireMethod(exchange, "GET")) {
+            return;
+        }
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        if (parts.length > 2) {
+            schedule(exchange, parts);
+            return;
+        }
+        Map<String, String> query = query(exchange);
+        String from = query.get("from");
+        String to = query.get("to");
+        if (from == null || to == null) {
+            sendError(exchange, 400, "Query parameters 'from' and 'to' are required");
+            return;
+        }
+        LocalDate date;
+        try {
+            date = query.containsKey("date") ? LocalDate.parse(query.get("date")) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            sendError(exchange, 400, "Bad 'date' parameter");
+            return;
+        }
+        List<Object> trains = new ArrayList<>();
+        for (Train train : service.searchTrains(from, to, date)) {
+            trains.add(trainJson(train, date));
+        }
+        sendJson(exchange, 200, trains);
+    }
+
+    private void schedule(HttpExchange exchange, String[] parts) throws IOException {
+        int trainId;
+        try {
+            trainId = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        if (parts.length != 4 || !"schedule".equals(parts[3])) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        Train train = service.getTrain(trainId);
+        if (train == null) {
+            sendError(exchange, 404, "Train not found");
+            return;
+        }
+        List<Object> stops = new ArrayList<>();
+        for (TrainStop stop : service.getSchedule(trainId)) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("sequence", stop.getSequence());
+            json.put("station", stop.getStationName());
+            json.put("arrival", stop.isOrigin() ? null : stop.getArrivalTime());
+            json.put("departure", stop.isTerminus() ? null : stop.getDepartureTime());
+            json.put("day", stop.getDay());
+            json.put("distanceKm", stop.getDistanceKm() >= 0 ? stop.getDistanceKm() : null);
+            stops.add(json);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("trainId", train.getTrainId());
+        body.put("trainName", train.getTrainName());
+        body.put("stops", stops);
+        sendJson(exchange, 200, body);
+    }
+
+    private void journeys(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange) || !requireMethod(exchange, "GET")) {
+            return;
+        }
+        Map<String, String> query = query(exchange);
+        String from = query.get("from");
+        String to = query.get("to");
+        if (from == null || to == null) {
+            sendError(exchange, 400, "Query parameters 'from' and 'to' are required");
+            return;
+        }
+        String ticketClass = query.getOrDefault("class", "GENERAL");
+        LocalDate date;
+        LocalTime after;
+        int transfers;
+        try {
+            date = query.containsKey("date") ? LocalDate.parse(query.get("date")) : LocalDate.now();
+            after = LocalTime.parse(query.getOrDefault("after", "00:00"));
+            transfers = Math.max(0, Math.min(3, Integer.parseInt(query.getOrDefault("transfers", "2"))));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            sendError(exchange, 400, "Bad 'date', 'after' or 'transfers' parameter");
+            return;
+        }
+
+        List<Object> itineraries = new ArrayList<>();
+        for (Itinerary itinerary : service.planJourney(from, to, date, after, transfers, 5)) {
+            List<Object> legs = new ArrayList<>();
+            for (Itinerary.Leg leg : itinerary.getLegs()) {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("trainId", leg.getTrain().getTrainId());
+                json.put("trainName", leg.getTrain().getTrainName());
+                json.put("from", leg.getFromStation());
+                json.put("to", leg.getToStation());
+                json.put("departure", leg.getDepartureTime());
+                json.put("arrival", leg.getArrivalTime());
+                legs.add(json);
+            }
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("transfers", itinerary.getTransfers());
+            json.put("durationMinutes", itinerary.getDurationMinutes());
+            json.put("ticketClass", ticketClass);
+            json.put("totalFare", service.quoteJourney(itinerary, ticketClass));
+            json.put("legs", legs);
+            itineraries.add(json);
+        }
+        sendJson(exchange, 200, itineraries);
+    }
+
+    // /stations?q=.. and /stations/{station}/trains
+    private void stations(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange) || !requireMethod(exchange, "GET")) {
+            return;
+        }
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        if (parts.length > 2) {
+            stationTrains(exchange, parts);
+            return;
+        }
+        Map<String, String> query = query(exchange);
+        String q = query.get("q");
+        if (q == null) {
+            sendError(exchange, 400, "Query parameter 'q' is required");
+            return;
+        }
+        int limit;
+        try {
+            limit = Math.max(1, Math.min(MAX_STATION_SUGGESTIONS, Integer.parseInt(query.getOrDefault("limit", "10"))));
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Bad 'limit' parameter");
+            return;
+        }
+
+        List<Object> stations = new ArrayList<>();
+        for (Station station : service.suggestStations(q, limit)) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("code", station.getCode());
+            json.put("name", station.getName());
+            json.put("officialName", station.getOfficialName());
+            stations.add(json);
+        }
+        sendJson(exchange, 200, stations);
+    }
+
+    private void stationTrains(HttpExchange exchange, String[] parts) throws IOException {
+        if (parts.length != 4 || !"trains".equals(parts[3])) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        Station station = service.resolveStation(parts[2]);
+        if (station == null) {
+            sendError(exchange, 404, "Station not found");
+            return;
+        }
+        Map<String, String> query = query(exchange);
+        LocalTime from;
+        LocalTime to;
+        try {
+            from = LocalTime.parse(query.getOrDefault("from", "00:00"));
+            to = LocalTime.parse(query.getOrDefault("to", "23:59"));
+        } catch (DateTimeParseException e) {
+            sendError(exchange, 400, "Bad 'from' or 'to' parameter");
+            return;
+        }
+
+        List<Object> calls = new ArrayList<>();
+        for (TrainStop call : service.getTrainsCalling(station, from, to)) {
+            Train train = service.getTrain(call.getTrainId());
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("trainId", call.getTrainId());
+            json.put("trainName", train != null ? train.getTrainName() : null);
+            json.put("arrival", call.isOrigin() ? null : call.getArrivalTime());
+            json.put("departure", call.isTerminus() ? null : call.getDepartureTime());
+            json.put("from", train != null ? train.getSource() : null);
+            json.put("to", train != null ? train.getDestination() : null);
+            calls.add(json);
+        }
+        sendJson(exchange, 200, calls);
+    }
+
+    private void bookings(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange) || !requireMethod(exchange, "POST")) {
+            return;
+        }
+        String body = readBody(exchange);
+        if (body == null) {
+            return;
+        }
+
+        Map<String, Object> request;
+        int trainId;
+        int age;
+        LocalDate journeyDate;
+        try {
+            request = Json.parseObject(body);
+            trainId = intField(request, "trainId");
+            age = request.containsKey("age") ? intField(request, "age") : 25;
+            Object date = request.get("journeyDate");
+            journeyDate = date != null ? LocalDate.parse(date.toString()) : LocalDate.now();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        String name = stringField(request, "name");
+        String email = stringField(request, "email");
+        String phone = stringField(request, "phone");
+        if (name == null || email == null || phone == null) {
+            sendError(exchange, 400, "Fields 'name', 'email' and 'phone' are required");
+            return;
+        }
+        String gender = request.containsKey("gender") ? stringField(request, "gender") : "M";
+        String ticketClass = request.containsKey("ticketClass") ? stringField(request, "ticketClass") : "GENERAL";
+        String berthPreference = stringField(request, "berthPreference");
+        if (berthPreference != null && !Coach.isBerthType(berthPreference)) {
+            sendError(exchange, 400, "Unknown berthPreference '" + berthPreference + "'");
+            return;
+        }
+
+        BookingResult result = service.bookTicket(trainId, name, email, phone, age, gender, ticketClass, journeyDate,
+                                                  berthPreference);
+        if (result.isSuccess() || result.isWaitlisted()) {
+            // A waitlisted booking is still a ticket; its status field says RAC or WAITING
+            exchange.getResponseHeaders().set("Location", "/tickets/" + result.getTicketId());
+            sendJson(exchange, 201, ticketJson(result.getTicket()));
+            return;
+        }
+        switch (result.getStatus()) {
+            case TRAIN_NOT_FOUND:
+                sendError(exchange, 404, result.getMessage());
+                break;
+            case CLASS_NOT_AVAILABLE:
+            case INVALID_JOURNEY_DATE:
+                sendError(exchange, 400, result.getMessage());
+                break;
+            case SOLD_OUT:
+                sendError(exchange, 409, result.getMessage());
+                break;
+            default:
+                sendError(exchange, 500, result.getMessage());
+        }
+    }
+
+    // /tickets (passenger history), /tickets/{id} and /tickets/{id}/pdf
+    private void tickets(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange)) {
+            return;
+        }
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        if (parts.length == 2 && "tickets".equals(parts[1])) {
+            passengerTickets(exchange);
+            return;
+        }
+        int ticketId;
+        try {
+            ticketId = Integer.parseInt(parts[2]);
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        boolean pdf = parts.length == 4 && "pdf".equals(parts[3]);
+        if (parts.length > 4 || (parts.length == 4 && !pdf)) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+
+        String method = exchange.getRequestMethod();
+        if (!pdf && "DELETE".equals(method)) {
+            cancel(exchange, ticketId);
+            return;
+        }
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+
+        Ticket ticket = service.getTicket(ticketId);
+        if (ticket == null) {
+            sendError(exchange, 404, "Ticket not found");
+            return;
+        }
+        if (!pdf) {
+            sendJson(exchange, 200, ticketJson(ticket));
+            return;
+        }
+
+        Train train = service.getTrainCache().getTrainInfo(ticket.getTrainId());
+        if (train == null) {
+            sendError(exchange, 404, "Train information not found");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+        exchange.getResponseHeaders().set("Content-Disposition",
+                                          "inline; filename=\"Ticket_" + ticketId + ".pdf\"");
+        // Length 0 selects chunked encoding; pages stream out as PDFBox writes them
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            service.writeTicketPDF(ticket, train, out);
+        }
+    }
+
+    private void pnr(HttpExchange exchange) throws IOException {
+        if (rejectIfShedding(exchange) || !requireMethod(exchange, "GET")) {
+            return;
+        }
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        if (parts.length != 3) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        PnrStatus status = service.getPnrStatus(parts[2]);
+        if (status == null) {
+            sendError(exchange, 404, "PNR not found");
+            return;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("pnr", status.getPnrNumber());
+        json.put("trainId", status.getTrainId());
+        json.put("journeyDate", status.getJourneyDate().toString());
+        json.put("ticketClass", status.getTicketClass());
+        json.put("status", status.getStatus());
+        String waitlist = service.getWaitlistStatus(status);
+        if (waitlist != null) {
+            json.put("waitlist", waitlist);
+        }
+        json.put("seatNumber", status.getSeatNumber());
+        json.put("berthType", status.getBerthType());
+        sendJson(exchange, 200, json);
+    }
+
+    // /tickets?email=..&pageToken=..&limit=20, newest booking first
+    private void passengerTickets(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        Map<String, String> query = query(exchange);
+        String email = query.get("email");
+        if (email == null) {
+            sendError(exchange, 400, "Query parameter 'email' is required");
+            return;
+        }
+        TicketPage page;
+        try {
+            int limit = Integer.parseInt(query.getOrDefault("limit", "20"));
+            page = service.getPassengerTicketPage(email, query.get("pageToken"), limit);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "Bad 'limit' or 'pageToken' parameter");
+            return;
+        }
+
+        List<Object> tickets = new ArrayList<>();
+        for (Ticket ticket : page.getTickets()) {
+            Map<String, Object> json = ticketJson(ticket);
+            json.put("trainName", ticket.getTrainName());
+            tickets.add(json);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("tickets", tickets);
+        body.put("nextPageToken", page.getNextPageToken());
+        sendJson(exchange, 200, body);
+    }
+
+    private void cancel(HttpExchange exchange, int ticketId) throws IOException {
+        Ticket ticket = service.getTicket(ticketId);
+        if (ticket == null) {
+            sendError(exchange, 404, "Ticket not found");
+            return;
+        }
+        if (!service.cancelTicket(ticketId)) {
+            sendError(exchange, 409, "Ticket is not in a cancellable state");
+            return;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ticketId", ticketId);
+        body.put("status", "CANCELLED");
+        sendJson(exchange, 200, body);
+    }
+
+    // ===== JSON MAPPING =====
+
+    // seatsByClass is for the run on journeyDate
+    private Map<String, Object> trainJson(Train train, LocalDate journeyDate) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("trainId", train.getTrainId());
+        json.put("trainName", train.getTrainName());
+        json.put("source", train.getSource());
+        json.put("destination", train.getDestination());
+        json.put("departureTime", train.getDepartureTime());
+        json.put("arrivalTime", train.getArrivalTime());
+        json.put("availableSeats", train.getAvailableSeats());
+        json.put("totalSeats", train.getTotalSeats());
+        Map<String, Integer> seatsByClass = service.getClassAvailability(train.getTrainId(), journeyDate);
+        json.put("seatsByClass", seatsByClass);
+        // Total per passenger in each class the train carries, as a booking would be charged
+        Map<String, Object> fares = new LinkedHashMap<>();
+        for (String ticketClass : seatsByClass.keySet()) {
+            fares.put(ticketClass, service.quoteFare(train, ticketClass).getTotalFare());
+        }
+        json.put("fares", fares);
+        return json;
+    }
+
+    private Map<String, Object> ticketJson(Ticket ticket) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("ticketId", ticket.getTicketId());
+        json.put("pnr", ticket.getPnrNumber());
+        json.put("transactionId", ticket.getTransactionId());
+        json.put("trainId", ticket.getTrainId());
+        json.put("status", ticket.getStatus());
+        String waitlist = service.getWaitlistStatus(ticket);
+        if (waitlist != null) {
+            json.put("waitlist", waitlist);
+        }
+        json.put("passengerName", ticket.getPassengerName());
+        json.put("passengerEmail", ticket.getPassengerEmail());
+        json.put("passengerPhone", ticket.getPassengerPhone());
+        json.put("seatNumber", ticket.getSeatNumber());
+        json.put("coachNumber", ticket.getCoachNumber());
+        json.put("berthType", ticket.getBerthType());
+        json.put("ticketClass", ticket.getTicketClass());
+        json.put("totalFare", ticket.getTotalFare());
+        json.put("journeyDate", ticket.getJourneyDate() != null ? ticket.getJourneyDate().toString() : null);
+        json.put("bookingTime", ticket.getBookingTime() != null ? ticket.getBookingTime().toString() : null);
+        return json;
+    }
+
+    private static int intField(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (!(value instanceof Double) || ((Double) value) % 1 != 0) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an integer");
+        }
+        return ((Double) value).intValue();
+    }
+
+    private static String stringField(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        return value instanceof String && !((String) value).trim().isEmpty() ? ((String) value).trim() : null;
+    }
+
+    // ===== PLUMBING =====
+
+    // Turns an unexpected exception into a 500 instead of a dropped connection
+    private static HttpHandler guarded(HttpHandler handler) {
+        return exchange -> {
+            try {
+                handler.handle(exchange);
+            } catch (RuntimeException e) {
+                EventLog.error("ApiServer.request", "API request failed: " + e);
+                if (exchange.getResponseCode() == -1) {
+                    sendError(exchange, 500, "Internal error");
+                } else {
+                    exchange.close();
+                }
+            }
+        };
+    }
+
+    private boolean rejectIfShedding(HttpExchange exchange) throws IOException {
+        if (SHEDDING.get() == null) {
+            return false;
+        }
+        shed.incrementAndGet();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        sendError(exchange, 503, "Server busy, retry shortly");
+        return true;
+    }
+
+    private static boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (method.equals(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", method);
+        sendError(exchange, 405, "Method not allowed");
+        return false;
+    }
+
+    // Reads at most MAX_BODY_BYTES; answers 413 and returns null past that
+    private static String readBody(HttpExchange exchange) throws IOException {
+        String declared = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (declared != null) {
+            try {
+                if (Long.parseLong(declared) > MAX_BODY_BYTES) {
+                    sendError(exchange, 413, "Request body larger than " + MAX_BODY_BYTES + " bytes");
+                    return null;
+                }
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "Bad Content-Length");
+                return null;
+            }
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (body.size() + read > MAX_BODY_BYTES) {
+                    sendError(exchange, 413, "Request body larger than " + MAX_BODY_BYTES + " bytes");
+                    return null;
+                }
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                           URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        sendJson(exchange, status, body);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Hands exchanges to the worker pool. If the pool and its queue are full the
+     * exchange runs right here on the accept thread with SHEDDING set, which makes
+     * every handler answer 503 without touching the service.
+     */
+    private final class SheddingExecutor implements Executor {
+        @Override
+        public void execute(Runnable task) {
+            try {
+                workers.execute(task);
+            } catch (RejectedExecutionException e) {
+                SHEDDING.set(Boolean.TRUE);
+                try {
+                    task.run();
+                } finally {
+                    SHEDDING.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.railway.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.railway.dao.TicketDAO;
+import com.railway.model.PnrStatus;
+
+/**
+ * Read-through cache in front of {@link TicketDAO#getPnrStatus(String)}. Statuses
+ * are added as tickets are booked and as PNRs are checked, so the hottest lookups
+ * (fresh bookings, journeys about to depart) are answered from memory; the least
+ * recently used entry goes once maxEntries is reached. A second hash index from
+ * ticket id to PNR lets cancellations and waitlist promotions, which only know
+ * ticket ids, drop the right entry. Entries also expire after ttlMillis so a
+ * change made by another application instance shows up within that time.
+ * Unknown PNRs are not cached, and neither is a status read while an
+ * invalidation was made, since the read may predate the change.
+ */
+public class PnrStatusCache {
+    private final TicketDAO ticketDAO;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, CachedStatus> entries;
+    private final Map<Integer, String> pnrByTicketId = new HashMap<>();
+    // Bumped by every invalidation, under the entries lock
+    private long invalidations;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PnrStatusCache(TicketDAO ticketDAO, int maxEntries, long ttlMillis) {
+        this.ticketDAO = ticketDAO;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<String, CachedStatus>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatus> eldest) {
+                if (size() > PnrStatusCache.this.maxEntries) {
+                    pnrByTicketId.remove(eldest.getValue().status.getTicketId());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Null if no ticket has this PNR
+    public PnrStatus getStatus(String pnrNumber) {
+        PnrStatus cached = lookup(pnrNumber);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        long invalidationsBefore;
+        synchronized (entries) {
+            invalidationsBefore = invalidations;
+        }
+        PnrStatus loaded = ticketDAO.getPnrStatus(pnrNumber);
+        if (loaded != null) {
+            synchronized (entries) {
+                // An invalidation during the read may be for this ticket; leave the next lookup to read again
+                if (invalidations == invalidationsBefore) {
+                    store(loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public void put(PnrStatus status) {
+        synchronized (entries) {
+            store(status);
+        }
+    }
+
+    public void invalidate(int ticketId) {
+        synchronized (entries) {
+            invalidations++;
+            String pnrNumber = pnrByTicketId.remove(ticketId);
+            if (pnrNumber != null) {
+                entries.remove(pnrNumber);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations++;
+            entries.clear();
+            pnrByTicketId.clear();
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+
+    public long getMissCount() { return misses.get(); }
+
+    public long getEvictionCount() { return evictions.get(); }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PnrStatusCache[size=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+                             size(), hits.get(), misses.get(), evictions.get(), getHitRate() * 100);
+    }
+
+    // Caller holds the entries lock
+    private void store(PnrStatus status) {
+        CachedStatus previous = entries.put(status.getPnrNumber(),
+                                            new CachedStatus(status, System.currentTimeMillis() + ttlMillis));
+        if (previous != null && previous.status.getTicketId() != status.getTicketId()) {
+            pnrByTicketId.remove(previous.status.getTicketId());
+        }
+        pnrByTicketId.put(status.getTicketId(), status.getPnrNumber());
+    }
+
+    private PnrStatus lookup(String pnrNumber) {
+        synchronized (entries) {
+            CachedStatus entry = entries.get(pnrNumber);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(pnrNumber);
+                pnrByTicketId.remove(entry.status.getTicketId());
+                evictions.incrementAndGet();
+                return null;
+            }
+            return entry.status;
+        }
+    }
+
+    private static final class CachedStatus {
+        private final PnrStatus status;
+        private final long expiresAt;
+
+        CachedStatus(PnrStatus status, long expiresAt) {
+            this.status = status;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.railway.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+
+import com.railway.dao.TrainDAO;
+import com.railway.model.Train;
+
+/**
+ * Read-through cache in front of {@link TrainDAO#getTrainById(int)}. Only the static
+ * train attributes are cached; available seats are overlaid on every read from a
+ * live source so they are never served stale. Callers always get their own copy.
+ */
+public class TrainCache {
+    private final TrainDAO trainDAO;
+    private final IntUnaryOperator liveAvailableSeats;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<Integer, CachedTrain> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // liveAvailableSeats returns the current seat count for a train, or -1 if unknown
+    public TrainCache(TrainDAO trainDAO, IntUnaryOperator liveAvailableSeats, int maxEntries, long ttlMillis) {
+        this.trainDAO = trainDAO;
+        this.liveAvailableSeats = liveAvailableSeats;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<Integer, CachedTrain>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedTrain> eldest) {
+                if (size() > TrainCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Train getTrain(int trainId) {
+        Train cached = lookup(trainId);
+        boolean hit = cached != null;
+        if (hit) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            cached = trainDAO.getTrainById(trainId);
+            if (cached == null) {
+                return null;
+            }
+            put(cached);
+        }
+
+        Train train = new Train(cached);
+        int seats = liveAvailableSeats.applyAsInt(trainId);
+        if (seats >= 0) {
+            train.setAvailableSeats(seats);
+        } else if (hit) {
+            // No live source for this train; fall back to today's train_runs counter
+            Train fresh = trainDAO.getTrainById(trainId);
+            if (fresh != null) {
+                train.setAvailableSeats(fresh.getAvailableSeats());
+            }
+        }
+        return train;
+    }
+
+    // Static attributes only (name, route, timings, fare); skips the seat overlay
+    public Train getTrainInfo(int trainId) {
+        Train cached = lookup(trainId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return new Train(cached);
+        }
+        misses.incrementAndGet();
+        Train loaded = trainDAO.getTrainById(trainId);
+        if (loaded != null) {
+            put(loaded);
+        }
+        return loaded;
+    }
+
+    public void put(Train train) {
+        synchronized (entries) {
+            entries.put(train.getTrainId(), new CachedTrain(new Train(train), System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    public void invalidate(int trainId) {
+        synchronized (entries) {
+            entries.remove(trainId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+
+    public long getMissCount() { return misses.get(); }
+
+    public long getEvictionCount() { return evictions.get(); }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TrainCache[size=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+                             size(), hits.get(), misses.get(), evictions.get(), getHitRate() * 100);
+    }
+
+    private Train lookup(int trainId) {
+        synchronized (entries) {
+            CachedTrain entry = entries.get(trainId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(trainId);
+                evictions.incrementAndGet();
+                return null;
+            }
+            return entry.train;
+        }
+    }
+
+    private static final class CachedTrain {
+        private final Train train;
+        private final long expiresAt;
+
+        CachedTrain(Train train, long expiresAt) {
+            this.train = train;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,20 +1,80 @@
 package com.railway.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+
 public class DatabaseConfig {
-    private static final String URL = "jdbc:mysql://localhost:3306/railway_db";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "Thamarai@2006";
-    
+    // rewriteBatchedStatements turns JDBC batches into multi-row INSERTs
+    private static final String URL = System.getProperty("railway.db.url",
+        "jdbc:mysql://localhost:3306/railway_db?rewriteBatchedStatements=true");
+    private static final String USERNAME = System.getProperty("railway.db.user", "root");
+    private static final String PASSWORD = System.getProperty("railway.db.password", "Thamarai@2006");
+
+    // ===== POOL SETTINGS (override with -Drailway.db.pool.*) =====
+    private static final int POOL_MIN_SIZE = Integer.getInteger("railway.db.pool.min", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("railway.db.pool.max", 10);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("railway.db.pool.borrowTimeoutMs", 5000L);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("railway.db.pool.idleTimeoutMs", 300000L);
+    private static final long VALIDATION_BYPASS_MS = Long.getLong("railway.db.pool.validationBypassMs", 500L);
+    private static final int VALIDATION_TIMEOUT_SECONDS = Integer.getInteger("railway.db.pool.validationTimeoutSec", 2);
+
+    // Time spent waiting for a pooled connection; errors are borrow timeouts and connect failures
+    private static final MethodMetrics ACQUIRE = MetricsRegistry.timer("DatabaseConfig.getConnection");
+
+    private static volatile ConnectionPool pool;
+
     public static Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(URL, USERNAME, PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL Driver not found", e);
+            return getPool().borrow();
+        } catch (SQLException e) {
+            ACQUIRE.error();
+            throw e;
+        } finally {
+            ACQUIRE.record(start);
+        }
+    }
+
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConfig.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        Class.forName("com.mysql.cj.jdbc.Driver");
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("MySQL Driver not found", e);
+                    }
+                    current = new ConnectionPool(URL, USERNAME, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                                                 BORROW_TIMEOUT_MS, IDLE_TIMEOUT_MS,
+                                                 VALIDATION_BYPASS_MS, VALIDATION_TIMEOUT_SECONDS);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Upper bound on concurrent database work; callers size their own concurrency limits from it
+    public static int getPoolMaxSize() {
+        return POOL_MAX_SIZE;
+    }
+
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    public static void shutdown() {
+        synchronized (DatabaseConfig.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
         }
     }
-}
\ No newline at end of file
+}
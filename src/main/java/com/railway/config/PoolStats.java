@@ -0,0 +1,56 @@
+package com.railway.config;
+
+public class PoolStats {
+    private final int minSize;
+    private final int maxSize;
+    private final int totalConnections;
+    private final int idleConnections;
+    private final int activeConnections;
+    private final int waitingThreads;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long validationFailures;
+    private final long averageBorrowWaitNanos;
+
+    public PoolStats(int minSize, int maxSize, int totalConnections, int idleConnections,
+                     int activeConnections, int waitingThreads, long borrowCount, long timeoutCount,
+                     long createdCount, long destroyedCount, long validationFailures,
+                     long averageBorrowWaitNanos) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.totalConnections = totalConnections;
+        this.idleConnections = idleConnections;
+        this.activeConnections = activeConnections;
+        this.waitingThreads = waitingThreads;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.validationFailures = validationFailures;
+        this.averageBorrowWaitNanos = averageBorrowWaitNanos;
+    }
+
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+    public int getTotalConnections() { return totalConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public int getActiveConnections() { return activeConnections; }
+    public int getWaitingThreads() { return waitingThreads; }
+    public long getBorrowCount() { return borrowCount; }
+    public long getTimeoutCount() { return timeoutCount; }
+    public long getCreatedCount() { return createdCount; }
+    public long getDestroyedCount() { return destroyedCount; }
+    public long getValidationFailures() { return validationFailures; }
+    public long getAverageBorrowWaitNanos() { return averageBorrowWaitNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("Pool[total=%d, active=%d, idle=%d, waiting=%d, min=%d, max=%d, borrows=%d, "
+                             + "timeouts=%d, created=%d, destroyed=%d, validationFailures=%d, avgWait=%.1fus]",
+                             totalConnections, activeConnections, idleConnections, waitingThreads,
+                             minSize, maxSize, borrowCount, timeoutCount, createdCount, destroyedCount,
+                             validationFailures, averageBorrowWaitNanos / 1000.0);
+    }
+}
@@ -0,0 +1,326 @@
+package com.railway.dao;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.model.BookingResult;
+import com.railway.model.CancellationResult;
+import com.railway.model.Ticket;
+import com.railway.model.Train;
+
+/**
+ * Books a ticket as a single unit of work on one connection: the train run's
+ * train_runs row (created on first use) is locked with SELECT ... FOR UPDATE, a
+ * seat of the requested class is taken from the SeatAllocator (honouring a berth
+ * preference when one is free), the ticket is inserted and the run's
+ * available_seats is decremented, then everything commits together. Concurrent
+ * bookings for the same run queue on the row lock instead of racing for seats,
+ * while other dates of the same train book independently. Group bookings do the same for N passengers with one
+ * batched INSERT and one counter update, all or nothing.
+ *
+ * A single booking for a full class joins that run and class's RAC/waitlist
+ * queue instead of failing. Cancelling a booked ticket hands its seat to the head of
+ * the same class's queue in the same transaction, so a freed seat never reaches
+ * the pool while someone is waiting for it.
+ */
+public class BookingTransaction {
+
+    // Builds the ticket once the locked train row and allocated seat are known
+    public interface TicketFactory {
+        Ticket create(Train train, int seatNumber);
+    }
+
+    // Builds one ticket per seat (same order) for a group booking
+    public interface GroupTicketFactory {
+        List<Ticket> create(Train train, int[] seatNumbers);
+    }
+
+    private interface Work {
+        BookingResult run(Connection conn) throws SQLException;
+    }
+
+    // A stale seat map can hand out a seat the database already holds; retry a few times
+    private static final int MAX_SEAT_ATTEMPTS = 3;
+    // The tickets key that holds one live booking per seat of a run
+    private static final String SEAT_KEY = "unique_seat_per_run";
+
+    private final TrainDAO trainDAO;
+    private final TicketDAO ticketDAO;
+    private final SeatAllocator seatAllocator;
+    private final WaitlistIndex waitlist;
+
+    public BookingTransaction(TrainDAO trainDAO, TicketDAO ticketDAO, SeatAllocator seatAllocator,
+                              WaitlistIndex waitlist) {
+        this.trainDAO = trainDAO;
+        this.ticketDAO = ticketDAO;
+        this.seatAllocator = seatAllocator;
+        this.waitlist = waitlist;
+    }
+
+    // berthPreference is a Coach berth type (LOWER, SIDE_LOWER, ...) or null for the lowest free seat
+    public BookingResult book(int trainId, LocalDate journeyDate, String ticketClass, String berthPreference,
+                              TicketFactory ticketFactory) {
+        return inTransaction(trainId, journeyDate,
+            conn -> bookInTransaction(conn, trainId, journeyDate, ticketClass, berthPreference, ticketFactory));
+    }
+
+    public BookingResult bookGroup(int trainId, LocalDate journeyDate, String ticketClass, int passengers,
+                                   GroupTicketFactory ticketFactory) {
+        return inTransaction(trainId, journeyDate,
+            conn -> bookGroupInTransaction(conn, trainId, journeyDate, ticketClass, passengers, ticketFactory));
+    }
+
+    private BookingResult inTransaction(int trainId, LocalDate journeyDate, Work work) {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            BookingResult result = null;
+            try {
+                result = work.run(conn);
+                if (result.isSuccess() || result.isWaitlisted()) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                if (result != null && result.isSuccess()) {
+                    releaseSeats(trainId, journeyDate, result.getTickets());
+                } else if (result != null && result.isWaitlisted()) {
+                    waitlist.reload(trainId, journeyDate);
+                }
+                throw e;
+            }
+        } catch (SQLException | IllegalStateException e) {
+            EventLog.error("BookingTransaction.inTransaction", "Error in booking transaction: " + e.getMessage());
+            return BookingResult.failed(BookingResult.Status.FAILED, "Error booking ticket: " + e.getMessage());
+        }
+    }
+
+    private BookingResult bookInTransaction(Connection conn, int trainId, LocalDate journeyDate, String ticketClass,
+                                            String berthPreference, TicketFactory ticketFactory)
+            throws SQLException {
+        Train train = trainDAO.lockRun(conn, trainId, journeyDate);
+        if (train == null) {
+            return BookingResult.failed(BookingResult.Status.TRAIN_NOT_FOUND, "Train not found!");
+        }
+        if (!seatAllocator.hasClass(trainId, ticketClass)) {
+            return classNotAvailable(ticketClass);
+        }
+        if (train.getAvailableSeats() <= 0) {
+            return joinWaitlist(conn, train, journeyDate, ticketFactory);
+        }
+
+        for (int attempt = 0; attempt < MAX_SEAT_ATTEMPTS; attempt++) {
+            int seatNumber = seatAllocator.allocate(trainId, journeyDate, ticketClass, berthPreference);
+            if (seatNumber < 0) {
+                // available_seats counts the whole run, so only the seat map knows this class is full
+                return joinWaitlist(conn, train, journeyDate, ticketFactory);
+            }
+
+            Ticket ticket = ticketFactory.create(train, seatNumber);
+            try {
+                int ticketId = ticketDAO.insertTicket(conn, ticket);
+                if (ticketId <= 0) {
+                    seatAllocator.release(trainId, journeyDate, seatNumber);
+                    return BookingResult.failed(BookingResult.Status.FAILED, "Error booking ticket!");
+                }
+                if (!trainDAO.decrementAvailableSeats(conn, trainId, journeyDate, 1)) {
+                    seatAllocator.release(trainId, journeyDate, seatNumber);
+                    return BookingResult.failed(BookingResult.Status.FAILED, "Error updating seat availability!");
+                }
+                ticket.setTicketId(ticketId);
+                return BookingResult.confirmed(ticket);
+            } catch (SQLIntegrityConstraintViolationException e) {
+                if (!isSeatCollision(e)) {
+                    seatAllocator.release(trainId, journeyDate, seatNumber);
+                    throw e;
+                }
+                // unique_seat_per_run caught a seat the map thought was free; leave it marked taken
+            } catch (SQLException | RuntimeException e) {
+                seatAllocator.release(trainId, journeyDate, seatNumber);
+                throw e;
+            }
+        }
+
+        return BookingResult.failed(BookingResult.Status.FAILED, "Could not allocate a seat, please retry");
+    }
+
+    private static BookingResult classNotAvailable(String ticketClass) {
+        return BookingResult.failed(BookingResult.Status.CLASS_NOT_AVAILABLE,
+                                    "This train has no " + ticketClass + " coaches!");
+    }
+
+    private BookingResult joinWaitlist(Connection conn, Train train, LocalDate journeyDate, TicketFactory ticketFactory)
+            throws SQLException {
+        Ticket ticket = ticketFactory.create(train, 0);
+        int position = waitlist.size(train.getTrainId(), journeyDate, ticket.getTicketClass()) + 1;
+        if (position > waitlist.getMaxLength()) {
+            return BookingResult.failed(BookingResult.Status.SOLD_OUT, "No seats available and the waitlist is full!");
+        }
+
+        ticket.setSeatNumber(null);
+        ticket.setCoachNumber(null);
+        ticket.setBerthNumber(0);
+        ticket.setBerthType(null);
+        ticket.setStatus(position <= waitlist.getRacSlots() ? "RAC" : "WAITING");
+        int ticketId = ticketDAO.insertTicket(conn, ticket);
+        if (ticketId <= 0) {
+            return BookingResult.failed(BookingResult.Status.FAILED, "Error booking ticket!");
+        }
+        ticket.setTicketId(ticketId);
+        waitlist.add(train.getTrainId(), journeyDate, ticket.getTicketClass(), ticketId);
+        return BookingResult.waitlisted(ticket, position);
+    }
+
+    /**
+     * Cancels a BOOKED, RAC or WAITING ticket. A booked seat goes straight to the
+     * first ticket waiting for the same run and class (RAC first, since RAC is the front
+     * of each queue) and the next in line moves up into RAC; only when nobody is
+     * waiting does the seat return to available_seats.
+     */
+    public CancellationResult cancel(int ticketId) {
+        int trainId = -1;
+        LocalDate journeyDate = null;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Ticket ticket = ticketDAO.selectTicket(conn, ticketId, false);
+                if (ticket == null) {
+                    conn.rollback();
+                    return CancellationResult.failed(CancellationResult.Status.NOT_FOUND, null, "Ticket not found!");
+                }
+                trainId = ticket.getTrainId();
+                journeyDate = ticket.getJourneyDate();
+
+                // Run first, then ticket: the same lock order as booking
+                trainDAO.lockRun(conn, trainId, journeyDate);
+                ticket = ticketDAO.selectTicket(conn, ticketId, true);
+                if ("CANCELLED".equals(ticket.getStatus()) || !ticketDAO.cancelTicket(conn, ticketId)) {
+                    conn.rollback();
+                    return CancellationResult.failed(CancellationResult.Status.ALREADY_CANCELLED, ticket,
+                                                     "Ticket is already cancelled!");
+                }
+
+                int promoted = -1;
+                int movedToRac;
+                if ("BOOKED".equals(ticket.getStatus())) {
+                    promoted = waitlist.head(trainId, journeyDate, ticket.getTicketClass());
+                    if (promoted > 0) {
+                        if (!ticketDAO.confirmWaitlisted(conn, promoted, ticket)) {
+                            throw new SQLException("Waitlisted ticket " + promoted + " is no longer waiting");
+                        }
+                        movedToRac = waitlist.remove(trainId, journeyDate, promoted);
+                    } else {
+                        trainDAO.incrementAvailableSeats(conn, trainId, journeyDate, 1);
+                        movedToRac = -1;
+                    }
+                } else {
+                    movedToRac = waitlist.remove(trainId, journeyDate, ticketId);
+                }
+                if (movedToRac > 0) {
+                    ticketDAO.moveToRac(conn, movedToRac);
+                }
+
+                conn.commit();
+                if ("BOOKED".equals(ticket.getStatus()) && promoted < 0) {
+                    seatAllocator.release(trainId, journeyDate, ticket.getNumericSeatNumber());
+                }
+                return CancellationResult.cancelled(ticket, promoted, movedToRac);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                if (trainId >= 0) {
+                    waitlist.reload(trainId, journeyDate);
+                }
+                throw e;
+            }
+        } catch (SQLException | IllegalStateException e) {
+            EventLog.error("BookingTransaction.cancel", "Error cancelling ticket: " + e.getMessage());
+            return CancellationResult.failed(CancellationResult.Status.FAILED, null,
+                                             "Error cancelling ticket: " + e.getMessage());
+        }
+    }
+
+    private BookingResult bookGroupInTransaction(Connection conn, int trainId, LocalDate journeyDate, String ticketClass,
+                                                 int passengers, GroupTicketFactory ticketFactory) throws SQLException {
+        Train train = trainDAO.lockRun(conn, trainId, journeyDate);
+        if (train == null) {
+            return BookingResult.failed(BookingResult.Status.TRAIN_NOT_FOUND, "Train not found!");
+        }
+        if (!seatAllocator.hasClass(trainId, ticketClass)) {
+            return classNotAvailable(ticketClass);
+        }
+        if (train.getAvailableSeats() < passengers) {
+            return BookingResult.failed(BookingResult.Status.SOLD_OUT,
+                "Only " + train.getAvailableSeats() + " seats available for " + passengers + " passengers!");
+        }
+
+        int[] seatNumbers = seatAllocator.allocateBlock(trainId, journeyDate, ticketClass, passengers);
+        if (seatNumbers == null) {
+            seatAllocator.reload(trainId, journeyDate);
+            seatNumbers = seatAllocator.allocateBlock(trainId, journeyDate, ticketClass, passengers);
+            if (seatNumbers == null) {
+                return BookingResult.failed(BookingResult.Status.SOLD_OUT,
+                                            "Not enough " + ticketClass + " seats available!");
+            }
+        }
+
+        List<Ticket> tickets = ticketFactory.create(train, seatNumbers);
+        try {
+            if (!ticketDAO.insertTickets(conn, tickets)) {
+                releaseSeats(trainId, journeyDate, seatNumbers);
+                return BookingResult.failed(BookingResult.Status.FAILED, "Error booking tickets!");
+            }
+            if (!trainDAO.decrementAvailableSeats(conn, trainId, journeyDate, passengers)) {
+                releaseSeats(trainId, journeyDate, seatNumbers);
+                return BookingResult.failed(BookingResult.Status.FAILED, "Error updating seat availability!");
+            }
+            return BookingResult.confirmed(tickets);
+        } catch (SQLIntegrityConstraintViolationException | BatchUpdateException e) {
+            if (!isSeatCollision(e)) {
+                releaseSeats(trainId, journeyDate, seatNumbers);
+                throw e;
+            }
+            // Some seat in the block is already held in the database; resync and let the caller retry
+            seatAllocator.reload(trainId, journeyDate);
+            return BookingResult.failed(BookingResult.Status.FAILED, "Seats changed while booking, please retry");
+        } catch (SQLException | RuntimeException e) {
+            releaseSeats(trainId, journeyDate, seatNumbers);
+            throw e;
+        }
+    }
+
+    // Only a duplicate on the seat key means the seat map was stale; any other failure is a real error.
+    // Batch failures carry the driver's per-row exception as their cause.
+    private static boolean isSeatCollision(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                SQLException sqlException = (SQLException) t;
+                boolean constraint = sqlException instanceof SQLIntegrityConstraintViolationException
+                                     || "23000".equals(sqlException.getSQLState());
+                if (constraint && sqlException.getMessage() != null && sqlException.getMessage().contains(SEAT_KEY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void releaseSeats(int trainId, LocalDate journeyDate, int[] seatNumbers) {
+        for (int seatNumber : seatNumbers) {
+            seatAllocator.release(trainId, journeyDate, seatNumber);
+        }
+    }
+
+    private void releaseSeats(int trainId, LocalDate journeyDate, List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            seatAllocator.release(trainId, journeyDate, ticket.getNumericSeatNumber());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.railway.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+import com.railway.model.Coach;
+
+// Reads train coach layouts; a train with no rows in coaches is all GENERAL seating
+public class CoachDAO {
+    private static final MethodMetrics GET_ALL_COACHES = MetricsRegistry.timer("CoachDAO.getAllCoaches");
+    private static final MethodMetrics GET_COACHES = MetricsRegistry.timer("CoachDAO.getCoaches");
+
+    // Every train's coaches in seat order; null on error
+    public Map<Integer, List<Coach>> getAllCoaches() {
+        long start = System.nanoTime();
+        Map<Integer, List<Coach>> coaches = new HashMap<>();
+        String sql = "SELECT * FROM coaches ORDER BY train_id, first_seat";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Coach coach = mapCoach(rs);
+                coaches.computeIfAbsent(coach.getTrainId(), id -> new ArrayList<>()).add(coach);
+            }
+        } catch (SQLException e) {
+            GET_ALL_COACHES.error();
+            EventLog.error("CoachDAO.getAllCoaches", "Error loading coaches: " + e.getMessage());
+            return null;
+        } finally {
+            GET_ALL_COACHES.record(start);
+        }
+
+        return coaches;
+    }
+
+    // Empty if the train has no coach rows, null on error
+    public List<Coach> getCoaches(int trainId) {
+        long start = System.nanoTime();
+        List<Coach> coaches = new ArrayList<>();
+        String sql = "SELECT * FROM coaches WHERE train_id = ? ORDER BY first_seat";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, trainId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                coaches.add(mapCoach(rs));
+            }
+        } catch (SQLException e) {
+            GET_COACHES.error();
+            EventLog.error("CoachDAO.getCoaches", "Error loading coaches: " + e.getMessage());
+            return null;
+        } finally {
+            GET_COACHES.record(start);
+        }
+
+        return coaches;
+    }
+
+    private Coach mapCoach(ResultSet rs) throws SQLException {
+        return new Coach(rs.getInt("train_id"), rs.getString("coach_code"), rs.getString("ticket_class"),
+                         rs.getInt("first_seat"), rs.getInt("seat_count"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.railway.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+
+// Reads the fare tariff: track distances between adjacent stations and the fare of each class per distance slab
+public class FareDAO {
+    private static final MethodMetrics GET_STATION_DISTANCES = MetricsRegistry.timer("FareDAO.getStationDistances");
+    private static final MethodMetrics GET_FARE_SLABS = MetricsRegistry.timer("FareDAO.getFareSlabs");
+
+    // from station -> to station -> km for the pairs listed; distances apply in both directions. Null on error.
+    public Map<String, Map<String, Integer>> getStationDistances() {
+        long start = System.nanoTime();
+        Map<String, Map<String, Integer>> distances = new HashMap<>();
+        String sql = "SELECT from_station, to_station, distance_km FROM station_distances";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                distances.computeIfAbsent(rs.getString("from_station"), s -> new HashMap<>())
+                         .put(rs.getString("to_station"), rs.getInt("distance_km"));
+            }
+        } catch (SQLException e) {
+            GET_STATION_DISTANCES.error();
+            EventLog.error("FareDAO.getStationDistances", "Error loading station distances: " + e.getMessage());
+            return null;
+        } finally {
+            GET_STATION_DISTANCES.record(start);
+        }
+
+        return distances;
+    }
+
+    // Per class, the base fare of each slab keyed by the slab's upper bound in km. Null on error.
+    public Map<String, SortedMap<Integer, Double>> getFareSlabs() {
+        long start = System.nanoTime();
+        Map<String, SortedMap<Integer, Double>> slabs = new HashMap<>();
+        String sql = "SELECT ticket_class, slab_km, fare FROM fare_slabs";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                slabs.computeIfAbsent(rs.getString("ticket_class"), c -> new TreeMap<>())
+                     .put(rs.getInt("slab_km"), rs.getDouble("fare"));
+            }
+        } catch (SQLException e) {
+            GET_FARE_SLABS.error();
+            EventLog.error("FareDAO.getFareSlabs", "Error loading fare slabs: " + e.getMessage());
+            return null;
+        } finally {
+            GET_FARE_SLABS.record(start);
+        }
+
+        return slabs;
+    }
+}
@@ -0,0 +1,26 @@
+package com.railway.dao;
+
+import java.time.LocalDate;
+
+// Source of seat numbers for BookingTransaction; the tickets table remains authoritative.
+// Seat numbers are train-wide; each class owns the seats of its coaches. Every
+// journey date of a train is a separate run with its own seats. Methods that need a run's
+// seats throw IllegalStateException if they cannot be read from the database.
+public interface SeatAllocator {
+    // Whether the train has any coach of this class
+    boolean hasClass(int trainId, String ticketClass);
+
+    // Lowest free seat of the class, a free berthPreference seat first if one is asked for (null for none);
+    // -1 if the class is full
+    int allocate(int trainId, LocalDate journeyDate, String ticketClass, String berthPreference);
+
+    // count seats of the class, contiguous where possible, or null if that many are not free
+    int[] allocateBlock(int trainId, LocalDate journeyDate, String ticketClass, int count);
+
+    void markBooked(int trainId, LocalDate journeyDate, int seatNumber);
+
+    void release(int trainId, LocalDate journeyDate, int seatNumber);
+
+    // Drops the run's seat map; the next use rebuilds it from the database
+    void reload(int trainId, LocalDate journeyDate);
+}
@@ -0,0 +1,58 @@
+package com.railway.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+import com.railway.model.Station;
+
+// Reads station master data: stations and the aliases passengers search them by
+public class StationDAO {
+    private static final MethodMetrics GET_ALL_STATIONS = MetricsRegistry.timer("StationDAO.getAllStations");
+
+    // Every station with its aliases, in code order; null on error
+    public List<Station> getAllStations() {
+        long start = System.nanoTime();
+        List<Station> stations = new ArrayList<>();
+        String aliasSql = "SELECT station_code, alias FROM station_aliases";
+        String sql = "SELECT * FROM stations ORDER BY station_code";
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            Map<String, List<String>> aliases = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(aliasSql)) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    aliases.computeIfAbsent(rs.getString("station_code"), c -> new ArrayList<>())
+                           .add(rs.getString("alias"));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    String code = rs.getString("station_code");
+                    stations.add(new Station(code, rs.getString("station_name"), rs.getString("official_name"),
+                                             rs.getString("state"), rs.getString("zone"), rs.getString("division"),
+                                             rs.getInt("platforms"),
+                                             aliases.getOrDefault(code, new ArrayList<>())));
+                }
+            }
+        } catch (SQLException e) {
+            GET_ALL_STATIONS.error();
+            EventLog.error("StationDAO.getAllStations", "Error loading stations: " + e.getMessage());
+            return null;
+        } finally {
+            GET_ALL_STATIONS.record(start);
+        }
+
+        return stations;
+    }
+}
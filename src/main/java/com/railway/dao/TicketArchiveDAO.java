@@ -0,0 +1,104 @@
+package com.railway.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+
+// Moves tickets of past journeys from tickets to tickets_archive, one short transaction per batch
+public class TicketArchiveDAO {
+    private static final MethodMetrics ARCHIVE_BATCH = MetricsRegistry.timer("TicketArchiveDAO.archiveBatch");
+    private static final MethodMetrics PURGE_RUNS = MetricsRegistry.timer("TicketArchiveDAO.purgeRuns");
+
+    /**
+     * Moves up to batchSize tickets with a journey date before the cutoff into
+     * tickets_archive and returns how many moved, or -1 on error. The copy and
+     * delete commit together, so a ticket is always in exactly one table. Only
+     * rows of past journeys are locked, which no booking or cancellation touches.
+     */
+    public int archiveBatch(LocalDate before, int batchSize) {
+        long start = System.nanoTime();
+        String selectSql = "SELECT ticket_id FROM tickets WHERE journey_date < ? ORDER BY journey_date LIMIT ? FOR UPDATE";
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<Integer> ticketIds = new ArrayList<>(batchSize);
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    stmt.setDate(1, Date.valueOf(before));
+                    stmt.setInt(2, batchSize);
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        ticketIds.add(rs.getInt("ticket_id"));
+                    }
+                }
+                if (ticketIds.isEmpty()) {
+                    conn.commit();
+                    return 0;
+                }
+
+                String placeholders = String.join(",", Collections.nCopies(ticketIds.size(), "?"));
+                String copySql = "INSERT INTO tickets_archive (" + TicketDAO.COLUMNS + ") SELECT " + TicketDAO.COLUMNS
+                               + " FROM tickets WHERE ticket_id IN (" + placeholders + ")";
+                String deleteSql = "DELETE FROM tickets WHERE ticket_id IN (" + placeholders + ")";
+                int copied;
+                int deleted;
+                try (PreparedStatement copy = conn.prepareStatement(copySql);
+                     PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                    for (int i = 0; i < ticketIds.size(); i++) {
+                        copy.setInt(i + 1, ticketIds.get(i));
+                        delete.setInt(i + 1, ticketIds.get(i));
+                    }
+                    copied = copy.executeUpdate();
+                    deleted = delete.executeUpdate();
+                }
+                if (copied != ticketIds.size() || deleted != ticketIds.size()) {
+                    throw new SQLException("Archived " + copied + " and deleted " + deleted + " of "
+                                           + ticketIds.size() + " tickets");
+                }
+
+                conn.commit();
+                return deleted;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            ARCHIVE_BATCH.error();
+            EventLog.error("TicketArchiveDAO.archiveBatch", "Error archiving tickets: " + e.getMessage());
+            return -1;
+        } finally {
+            ARCHIVE_BATCH.record(start);
+        }
+    }
+
+    // Deletes up to batchSize train_runs counters of dates before the cutoff; -1 on error
+    public int purgeRuns(LocalDate before, int batchSize) {
+        long start = System.nanoTime();
+        String sql = "DELETE FROM train_runs WHERE journey_date < ? LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(before));
+            stmt.setInt(2, batchSize);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            PURGE_RUNS.error();
+            EventLog.error("TicketArchiveDAO.purgeRuns", "Error purging train runs: " + e.getMessage());
+            return -1;
+        } finally {
+            PURGE_RUNS.record(start);
+        }
+    }
+}
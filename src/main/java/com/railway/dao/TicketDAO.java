@@ -1,46 +1,91 @@
 package com.railway.dao;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+import com.railway.model.Fare;
+import com.railway.model.PnrStatus;
 import com.railway.model.Ticket;
+import com.railway.model.TicketPage;
 
 public class TicketDAO {
+    private static final int ID_BATCH_SIZE = 500;
+    private static final MethodMetrics BOOK_TICKET = MetricsRegistry.timer("TicketDAO.bookTicket");
+    private static final MethodMetrics GET_TICKET_BY_ID = MetricsRegistry.timer("TicketDAO.getTicketById");
+    private static final MethodMetrics GET_PNR_STATUS = MetricsRegistry.timer("TicketDAO.getPnrStatus");
+    private static final MethodMetrics GET_TICKETS_BY_IDS = MetricsRegistry.timer("TicketDAO.getTicketsByIds");
+    private static final MethodMetrics GET_TICKETS_BY_TRAIN = MetricsRegistry.timer("TicketDAO.getTicketsByTrain");
+    private static final MethodMetrics CANCEL_TICKET = MetricsRegistry.timer("TicketDAO.cancelTicket");
+    private static final MethodMetrics GET_PASSENGER_TICKET_PAGE = MetricsRegistry.timer("TicketDAO.getPassengerTicketPage");
+    private static final MethodMetrics UPDATE_PASSENGER_DETAILS = MetricsRegistry.timer("TicketDAO.updatePassengerDetails");
+    private static final MethodMetrics GET_BOOKED_SEATS_BY_RUN = MetricsRegistry.timer("TicketDAO.getBookedSeatsByRun");
+    private static final MethodMetrics GET_BOOKED_SEAT_NUMBERS = MetricsRegistry.timer("TicketDAO.getBookedSeatNumbers");
+    private static final MethodMetrics GET_NEXT_AVAILABLE_SEAT = MetricsRegistry.timer("TicketDAO.getNextAvailableSeat");
+    private static final MethodMetrics INSERT_TICKET = MetricsRegistry.timer("TicketDAO.insertTicket");
+    private static final MethodMetrics INSERT_TICKETS = MetricsRegistry.timer("TicketDAO.insertTickets");
+    private static final MethodMetrics FIND_NEXT_AVAILABLE_SEAT = MetricsRegistry.timer("TicketDAO.findNextAvailableSeat");
+    private static final MethodMetrics GET_WAITLISTED_TICKETS = MetricsRegistry.timer("TicketDAO.getWaitlistedTickets");
+    private static final MethodMetrics SELECT_TICKET = MetricsRegistry.timer("TicketDAO.selectTicket");
+    private static final MethodMetrics CANCEL_TICKET_IN_TRANSACTION = MetricsRegistry.timer("TicketDAO.cancelTicketInTransaction");
+    private static final MethodMetrics CONFIRM_WAITLISTED = MetricsRegistry.timer("TicketDAO.confirmWaitlisted");
+    private static final MethodMetrics MOVE_TO_RAC = MetricsRegistry.timer("TicketDAO.moveToRac");
+    
+    // Every stored column except the generated booked_seat; tickets_archive has the same ones
+    static final String COLUMNS = "ticket_id, train_id, passenger_name, passenger_email, passenger_phone, seat_number, fare, "
+                                + "booking_time, status, ticket_class, journey_date, coach_number, berth_number, berth_type, "
+                                + "pnr_number, transaction_id, created_at";
+    // All read from idx_tickets_pnr_status (ticket_id rides along as the primary key), so a status check never
+    // touches the row itself
+    private static final String PNR_STATUS_COLUMNS = "ticket_id, pnr_number, train_id, journey_date, ticket_class, "
+                                                   + "status, seat_number, coach_number, berth_number, berth_type";
+    // The same columns from tickets (or tickets_archive) aliased k, plus the train name
+    private static final String HISTORY_COLUMNS = "k." + COLUMNS.replace(", ", ", k.") + ", t.train_name";
+    
+    private static final String INSERT_SQL = "INSERT INTO tickets (train_id, passenger_name, passenger_email, passenger_phone, seat_number, fare, booking_time, status, ticket_class, coach_number, berth_number, berth_type, journey_date, pnr_number, transaction_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     
     public int bookTicket(Ticket ticket) {
-        String sql = "INSERT INTO tickets (train_id, passenger_name, passenger_email, passenger_phone, seat_number, fare, booking_time, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            return insertTicket(conn, ticket);
+        } catch (SQLException e) {
+            BOOK_TICKET.error();
+            EventLog.error("TicketDAO.bookTicket", "Error booking ticket: " + e.getMessage());
+        } finally {
+            BOOK_TICKET.record(start);
+        }
         
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setInt(1, ticket.getTrainId());
-            stmt.setString(2, ticket.getPassengerName());
-            stmt.setString(3, ticket.getPassengerEmail());
-            stmt.setString(4, ticket.getPassengerPhone());
-            
-            String seatNumber = ticket.getSeatNumber();
-            int numericSeat;
-            if (seatNumber.contains("-")) {
-                numericSeat = Integer.parseInt(seatNumber.split("-")[1]);
-            } else {
-                try {
-                    numericSeat = Integer.parseInt(seatNumber);
-                } catch (NumberFormatException e) {
-                    numericSeat = 1; // Default seat number
-                }
-            }
-            stmt.setInt(5, numericSeat);
-            
-            stmt.setDouble(6, ticket.getTotalFare()); // Use total fare
-            stmt.setTimestamp(7, Timestamp.valueOf(ticket.getBookingTime()));
-            stmt.setString(8, ticket.getStatus());
+        return -1;
+    }
+    
+    int insertTicket(Connection conn, Ticket ticket) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindTicket(stmt, ticket);
             
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
@@ -50,63 +95,196 @@ public class TicketDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error booking ticket: " + e.getMessage());
+            INSERT_TICKET.error();
+            throw e;
+        } finally {
+            INSERT_TICKET.record(start);
         }
         
         return -1;
     }
     
+    // Inserts all tickets as one JDBC batch and sets their generated ids; false if any row is missing
+    boolean insertTickets(Connection conn, List<Ticket> tickets) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Ticket ticket : tickets) {
+                bindTicket(stmt, ticket);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            ResultSet generatedKeys = stmt.getGeneratedKeys();
+            for (Ticket ticket : tickets) {
+                if (!generatedKeys.next()) {
+                    return false;
+                }
+                ticket.setTicketId(generatedKeys.getInt(1));
+            }
+        } catch (SQLException e) {
+            INSERT_TICKETS.error();
+            throw e;
+        } finally {
+            INSERT_TICKETS.record(start);
+        }
+        
+        return true;
+    }
+    
+    private static void bindTicket(PreparedStatement stmt, Ticket ticket) throws SQLException {
+        stmt.setInt(1, ticket.getTrainId());
+        stmt.setString(2, ticket.getPassengerName());
+        stmt.setString(3, ticket.getPassengerEmail());
+        stmt.setString(4, ticket.getPassengerPhone());
+        stmt.setDouble(6, ticket.getTotalFare()); // Use total fare
+        stmt.setTimestamp(7, Timestamp.valueOf(ticket.getBookingTime()));
+        stmt.setString(8, ticket.getStatus());
+        stmt.setString(9, ticket.getTicketClass() != null ? ticket.getTicketClass() : "GENERAL");
+        stmt.setDate(13, Date.valueOf(ticket.getJourneyDate()));
+        stmt.setString(14, ticket.getPnrNumber());
+        stmt.setString(15, ticket.getTransactionId());
+        // RAC and waitlisted tickets hold no seat until promoted
+        if (ticket.getSeatNumber() != null) {
+            stmt.setInt(5, ticket.getNumericSeatNumber());
+            stmt.setString(10, ticket.getCoachNumber());
+            stmt.setInt(11, ticket.getBerthNumber());
+            stmt.setString(12, ticket.getBerthType());
+        } else {
+            stmt.setNull(5, Types.INTEGER);
+            stmt.setNull(10, Types.VARCHAR);
+            stmt.setNull(11, Types.INTEGER);
+            stmt.setNull(12, Types.VARCHAR);
+        }
+    }
+    
+    // Falls back to tickets_archive for tickets of past journeys
     public Ticket getTicketById(int ticketId) {
-        String sql = "SELECT * FROM tickets WHERE ticket_id = ?";
+        long start = System.nanoTime();
+        String sql = "SELECT " + COLUMNS + " FROM tickets WHERE ticket_id = ?";
+        String archiveSql = "SELECT " + COLUMNS + " FROM tickets_archive WHERE ticket_id = ?";
+        
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            for (String query : new String[] {sql, archiveSql}) {
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setInt(1, ticketId);
+                    ResultSet rs = stmt.executeQuery();
+                    
+                    if (rs.next()) {
+                        return mapTicket(rs);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            GET_TICKET_BY_ID.error();
+            EventLog.error("TicketDAO.getTicketById", "Error getting ticket: " + e.getMessage());
+        } finally {
+            GET_TICKET_BY_ID.record(start);
+        }
+        
+        return null;
+    }
+    
+    // Status of the ticket with this PNR, falling back to tickets_archive; null if there is none
+    public PnrStatus getPnrStatus(String pnrNumber) {
+        long start = System.nanoTime();
+        String sql = "SELECT " + PNR_STATUS_COLUMNS + " FROM tickets WHERE pnr_number = ?";
+        String archiveSql = "SELECT " + PNR_STATUS_COLUMNS + " FROM tickets_archive WHERE pnr_number = ?";
+        
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            for (String query : new String[] {sql, archiveSql}) {
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setString(1, pnrNumber);
+                    ResultSet rs = stmt.executeQuery();
+                    
+                    if (rs.next()) {
+                        return mapPnrStatus(rs);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            GET_PNR_STATUS.error();
+            EventLog.error("TicketDAO.getPnrStatus", "Error getting PNR status: " + e.getMessage());
+        } finally {
+            GET_PNR_STATUS.record(start);
+        }
+        
+        return null;
+    }
+    
+    // Ids missing from tickets are looked up in tickets_archive; the result is in ticket id order
+    public List<Ticket> getTicketsByIds(List<Integer> ticketIds) {
+        long start = System.nanoTime();
+        List<Ticket> tickets = new ArrayList<>(ticketIds.size());
+        
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            selectByIds(conn, "tickets", ticketIds, tickets);
+            if (tickets.size() < ticketIds.size()) {
+                Set<Integer> missing = new HashSet<>(ticketIds);
+                for (Ticket ticket : tickets) {
+                    missing.remove(ticket.getTicketId());
+                }
+                if (!missing.isEmpty()) {
+                    selectByIds(conn, "tickets_archive", new ArrayList<>(missing), tickets);
+                    tickets.sort(Comparator.comparingInt(Ticket::getTicketId));
+                }
+            }
+        } catch (SQLException e) {
+            GET_TICKETS_BY_IDS.error();
+            EventLog.error("TicketDAO.getTicketsByIds", "Error getting tickets: " + e.getMessage());
+        } finally {
+            GET_TICKETS_BY_IDS.record(start);
+        }
+        
+        return tickets;
+    }
+    
+    // Appends the tickets of table with the given ids, ID_BATCH_SIZE ids per query, each batch in ticket id order
+    private void selectByIds(Connection conn, String table, List<Integer> ticketIds, List<Ticket> tickets)
+            throws SQLException {
+        for (int from = 0; from < ticketIds.size(); from += ID_BATCH_SIZE) {
+            List<Integer> chunk = ticketIds.subList(from, Math.min(ticketIds.size(), from + ID_BATCH_SIZE));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT " + COLUMNS + " FROM " + table + " WHERE ticket_id IN (" + placeholders + ") ORDER BY ticket_id";
+            
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    tickets.add(mapTicket(rs));
+                }
+            }
+        }
+    }
+    
+    // Booked tickets of one train run, in seat order
+    public List<Ticket> getTicketsByTrain(int trainId, LocalDate journeyDate) {
+        long start = System.nanoTime();
+        List<Ticket> tickets = new ArrayList<>();
+        String sql = "SELECT * FROM tickets WHERE train_id = ? AND journey_date = ? AND status = 'BOOKED' ORDER BY seat_number";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, ticketId);
+            stmt.setInt(1, trainId);
+            stmt.setDate(2, Date.valueOf(journeyDate));
             ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Ticket ticket = new Ticket();
-                ticket.setTicketId(rs.getInt("ticket_id"));
-                ticket.setTrainId(rs.getInt("train_id"));
-                ticket.setPassengerName(rs.getString("passenger_name"));
-                ticket.setPassengerEmail(rs.getString("passenger_email"));
-                ticket.setPassengerPhone(rs.getString("passenger_phone"));
-                
-                // Handle seat number conversion from int to String
-                int seatNum = rs.getInt("seat_number");
-                ticket.setSeatNumber("GS-" + seatNum); // Convert int to String format
-                ticket.setCoachNumber("GS"); // Default coach for legacy data
-                
-                ticket.setFare(rs.getDouble("fare"));
-                ticket.setTotalFare(rs.getDouble("fare")); // Set total fare same as fare for legacy data
-                ticket.setBaseFare(rs.getDouble("fare") * 0.85); // Calculate base fare
-                ticket.setTaxes(rs.getDouble("fare") * 0.15); // Calculate taxes
-                
-                ticket.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
-                ticket.setStatus(rs.getString("status"));
-                
-                // Set default values for new fields
-                ticket.setPassengerAge(25);
-                ticket.setPassengerGender("M");
-                ticket.setTicketClass("GENERAL");
-                ticket.setBerthType("LOWER");
-                ticket.setIdProofType("AADHAR");
-                ticket.setBookingSource("ONLINE");
-                ticket.setPaymentMode("CARD");
-                ticket.setPnrNumber(String.format("%010d", ticket.getTicketId()));
-                ticket.setJourneyDate(ticket.getBookingTime().toLocalDate());
-                
-                return ticket;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting ticket: " + e.getMessage());
+            while (rs.next()) {
+                tickets.add(mapTicket(rs));
+            }
+        } catch (SQLException e) {
+            GET_TICKETS_BY_TRAIN.error();
+            EventLog.error("TicketDAO.getTicketsByTrain", "Error getting train tickets: " + e.getMessage());
+        } finally {
+            GET_TICKETS_BY_TRAIN.record(start);
         }
         
-        return null;
+        return tickets;
     }
     
     public boolean cancelTicket(int ticketId) {
+        long start = System.nanoTime();
         String sql = "UPDATE tickets SET status = 'CANCELLED' WHERE ticket_id = ? AND status = 'BOOKED'";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -115,64 +293,118 @@ public class TicketDAO {
             stmt.setInt(1, ticketId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Error cancelling ticket: " + e.getMessage());
+            CANCEL_TICKET.error();
+            EventLog.error("TicketDAO.cancelTicket", "Error cancelling ticket: " + e.getMessage());
             return false;
+        } finally {
+            CANCEL_TICKET.record(start);
         }
     }
     
-    public List<Ticket> getTicketsByPassenger(String passengerEmail) {
-        List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT * FROM tickets WHERE passenger_email = ? ORDER BY booking_time DESC";
+    /**
+     * One page of a passenger's live and archived tickets, newest booking first,
+     * each with its train name. Pages are keyed on (booking_time, ticket_id)
+     * rather than an offset, so every page is an index range scan on
+     * (passenger_email, booking_time, ticket_id) however deep the history goes.
+     * pageToken is null for the first page, otherwise a previous page's
+     * next-page token; a malformed token throws IllegalArgumentException. A
+     * database error throws IllegalStateException rather than returning a short
+     * last page, so callers never mistake a failure for the end of the history.
+     */
+    public TicketPage getPassengerTicketPage(String passengerEmail, String pageToken, int pageSize) {
+        long start = System.nanoTime();
+        boolean after = pageToken != null;
+        Timestamp afterTime = null;
+        int afterTicketId = 0;
+        if (after) {
+            int dot = pageToken.indexOf('.');
+            try {
+                afterTime = new Timestamp(Long.parseLong(pageToken.substring(0, dot), 36));
+                afterTicketId = Integer.parseInt(pageToken.substring(dot + 1), 36);
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed page token");
+            }
+        }
+        
+        String keyset = after ? " AND (k.booking_time < ? OR (k.booking_time = ? AND k.ticket_id < ?))" : "";
+        String order = " ORDER BY booking_time DESC, ticket_id DESC LIMIT ?";
+        String sql = "(SELECT " + HISTORY_COLUMNS + " FROM tickets k JOIN trains t ON t.train_id = k.train_id "
+                   + "WHERE k.passenger_email = ?" + keyset + order + ") UNION ALL "
+                   + "(SELECT " + HISTORY_COLUMNS + " FROM tickets_archive k JOIN trains t ON t.train_id = k.train_id "
+                   + "WHERE k.passenger_email = ?" + keyset + order + ")" + order;
+        List<Ticket> tickets = new ArrayList<>(pageSize);
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, passengerEmail);
+            int param = 1;
+            for (int table = 0; table < 2; table++) {
+                stmt.setString(param++, passengerEmail);
+                if (after) {
+                    stmt.setTimestamp(param++, afterTime);
+                    stmt.setTimestamp(param++, afterTime);
+                    stmt.setInt(param++, afterTicketId);
+                }
+                // One row beyond the page tells whether another page exists
+                stmt.setInt(param++, pageSize + 1);
+            }
+            stmt.setInt(param, pageSize + 1);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                Ticket ticket = new Ticket();
-                ticket.setTicketId(rs.getInt("ticket_id"));
-                ticket.setTrainId(rs.getInt("train_id"));
-                ticket.setPassengerName(rs.getString("passenger_name"));
-                ticket.setPassengerEmail(rs.getString("passenger_email"));
-                ticket.setPassengerPhone(rs.getString("passenger_phone"));
-                
-                // Handle seat number conversion from int to String
-                int seatNum = rs.getInt("seat_number");
-                ticket.setSeatNumber("GS-" + seatNum); // Convert int to String format
-                ticket.setCoachNumber("GS"); // Default coach for legacy data
-                
-                ticket.setFare(rs.getDouble("fare"));
-                ticket.setTotalFare(rs.getDouble("fare")); // Set total fare same as fare for legacy data
-                ticket.setBaseFare(rs.getDouble("fare") * 0.85); // Calculate base fare
-                ticket.setTaxes(rs.getDouble("fare") * 0.15); // Calculate taxes
-                
-                ticket.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
-                ticket.setStatus(rs.getString("status"));
-                
-                // Set default values for new fields
-                ticket.setPassengerAge(25);
-                ticket.setPassengerGender("M");
-                ticket.setTicketClass("GENERAL");
-                ticket.setBerthType("LOWER");
-                ticket.setIdProofType("AADHAR");
-                ticket.setBookingSource("ONLINE");
-                ticket.setPaymentMode("CARD");
-                ticket.setPnrNumber(String.format("%010d", ticket.getTicketId()));
-                ticket.setJourneyDate(ticket.getBookingTime().toLocalDate());
-                
+                Ticket ticket = mapTicket(rs);
+                ticket.setTrainName(rs.getString("train_name"));
                 tickets.add(ticket);
             }
         } catch (SQLException e) {
-            System.err.println("Error getting passenger tickets: " + e.getMessage());
+            GET_PASSENGER_TICKET_PAGE.error();
+            EventLog.error("TicketDAO.getPassengerTicketPage", "Error getting passenger tickets: " + e.getMessage());
+            throw new IllegalStateException("Error getting passenger tickets: " + e.getMessage(), e);
+        } finally {
+            GET_PASSENGER_TICKET_PAGE.record(start);
         }
         
-        return tickets;
+        if (tickets.size() <= pageSize) {
+            return new TicketPage(tickets, null);
+        }
+        tickets.remove(pageSize);
+        Ticket last = tickets.get(pageSize - 1);
+        String nextPageToken = Long.toString(Timestamp.valueOf(last.getBookingTime()).getTime(), 36)
+                             + "." + Integer.toString(last.getTicketId(), 36);
+        return new TicketPage(tickets, nextPageToken);
+    }
+    
+    // Every ticket of a passenger, newest first, fetched lazily a page at a time; nothing is held open between pages
+    // A database error on any page surfaces as IllegalStateException from the stream, never as an early end
+    public Stream<Ticket> streamTicketsByPassenger(String passengerEmail, int pageSize) {
+        Iterator<Ticket> pages = new Iterator<Ticket>() {
+            private TicketPage page = getPassengerTicketPage(passengerEmail, null, pageSize);
+            private Iterator<Ticket> current = page.getTickets().iterator();
+            
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && page.hasNext()) {
+                    page = getPassengerTicketPage(passengerEmail, page.getNextPageToken(), pageSize);
+                    current = page.getTickets().iterator();
+                }
+                return current.hasNext();
+            }
+            
+            @Override
+            public Ticket next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
     
     public boolean updatePassengerDetails(int ticketId, String passengerName, String passengerEmail, String passengerPhone) {
-        String sql = "UPDATE tickets SET passenger_name = ?, passenger_email = ?, passenger_phone = ? WHERE ticket_id = ? AND status = 'BOOKED'";
+        long start = System.nanoTime();
+        String sql = "UPDATE tickets SET passenger_name = ?, passenger_email = ?, passenger_phone = ? WHERE ticket_id = ? AND status <> 'CANCELLED'";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -184,28 +416,279 @@ public class TicketDAO {
             
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Error updating passenger details: " + e.getMessage());
+            UPDATE_PASSENGER_DETAILS.error();
+            EventLog.error("TicketDAO.updatePassengerDetails", "Error updating passenger details: " + e.getMessage());
             return false;
+        } finally {
+            UPDATE_PASSENGER_DETAILS.record(start);
         }
     }
     
-    public int getNextAvailableSeat(int trainId) {
-        String sql = "SELECT COALESCE(MIN(seat_number + 1), 1) as next_seat FROM tickets WHERE train_id = ? AND status = 'BOOKED' AND seat_number + 1 NOT IN (SELECT seat_number FROM tickets WHERE train_id = ? AND status = 'BOOKED')";
+    // Booked seats of every run from a date on, as train_id -> journey_date -> seats; null on error
+    public Map<Integer, Map<LocalDate, List<Integer>>> getBookedSeatsByRun(LocalDate fromDate) {
+        long start = System.nanoTime();
+        Map<Integer, Map<LocalDate, List<Integer>>> seats = new HashMap<>();
+        String sql = "SELECT train_id, journey_date, seat_number FROM tickets WHERE journey_date >= ? AND status = 'BOOKED'";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
+            stmt.setDate(1, Date.valueOf(fromDate));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                seats.computeIfAbsent(rs.getInt("train_id"), id -> new HashMap<>())
+                     .computeIfAbsent(rs.getDate("journey_date").toLocalDate(), d -> new ArrayList<>())
+                     .add(rs.getInt("seat_number"));
+            }
+        } catch (SQLException e) {
+            GET_BOOKED_SEATS_BY_RUN.error();
+            EventLog.error("TicketDAO.getBookedSeatsByRun", "Error loading booked seats: " + e.getMessage());
+            return null;
+        } finally {
+            GET_BOOKED_SEATS_BY_RUN.record(start);
+        }
+        
+        return seats;
+    }
+    
+    // Null on error, so a failed read is never taken for an empty run
+    public List<Integer> getBookedSeatNumbers(int trainId, LocalDate journeyDate) {
+        long start = System.nanoTime();
+        List<Integer> seats = new ArrayList<>();
+        String sql = "SELECT seat_number FROM tickets WHERE train_id = ? AND journey_date = ? AND status = 'BOOKED'";
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, trainId);
+            stmt.setDate(2, Date.valueOf(journeyDate));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                seats.add(rs.getInt("seat_number"));
+            }
+        } catch (SQLException e) {
+            GET_BOOKED_SEAT_NUMBERS.error();
+            EventLog.error("TicketDAO.getBookedSeatNumbers", "Error loading booked seats: " + e.getMessage());
+            return null;
+        } finally {
+            GET_BOOKED_SEAT_NUMBERS.record(start);
+        }
+        
+        return seats;
+    }
+    
+    // Legacy SQL seat search; bookings now allocate from SeatInventory
+    public int getNextAvailableSeat(int trainId, LocalDate journeyDate) {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            return findNextAvailableSeat(conn, trainId, journeyDate);
+        } catch (SQLException e) {
+            GET_NEXT_AVAILABLE_SEAT.error();
+            EventLog.error("TicketDAO.getNextAvailableSeat", "Error getting next seat: " + e.getMessage());
+        } finally {
+            GET_NEXT_AVAILABLE_SEAT.record(start);
+        }
+        
+        return 1; // Default to seat 1 if no seats are booked
+    }
+    
+    int findNextAvailableSeat(Connection conn, int trainId, LocalDate journeyDate) throws SQLException {
+        long start = System.nanoTime();
+        String sql = "SELECT COALESCE(MIN(seat_number + 1), 1) as next_seat FROM tickets WHERE train_id = ? AND journey_date = ? AND status = 'BOOKED' AND seat_number + 1 NOT IN (SELECT seat_number FROM tickets WHERE train_id = ? AND journey_date = ? AND status = 'BOOKED')";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, trainId);
-            stmt.setInt(2, trainId);
+            stmt.setDate(2, Date.valueOf(journeyDate));
+            stmt.setInt(3, trainId);
+            stmt.setDate(4, Date.valueOf(journeyDate));
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
                 return rs.getInt("next_seat");
             }
         } catch (SQLException e) {
-            System.err.println("Error getting next seat: " + e.getMessage());
+            FIND_NEXT_AVAILABLE_SEAT.error();
+            throw e;
+        } finally {
+            FIND_NEXT_AVAILABLE_SEAT.record(start);
         }
         
-        return 1; // Default to seat 1 if no seats are booked
+        return 1;
+    }
+    
+    // Every RAC and WAITING ticket of runs from a date on, by run in booking order; null on error
+    public List<Ticket> getWaitlistedTickets(LocalDate fromDate) {
+        return getWaitlistedTickets("SELECT * FROM tickets WHERE journey_date >= ? AND status IN ('RAC', 'WAITING') "
+                                    + "ORDER BY train_id, journey_date, ticket_id", -1, fromDate);
+    }
+    
+    public List<Ticket> getWaitlistedTickets(int trainId, LocalDate journeyDate) {
+        return getWaitlistedTickets("SELECT * FROM tickets WHERE train_id = ? AND journey_date = ? AND status IN ('RAC', 'WAITING') "
+                                    + "ORDER BY ticket_id", trainId, journeyDate);
+    }
+    
+    // trainId -1 binds only the date; null on error
+    private List<Ticket> getWaitlistedTickets(String sql, int trainId, LocalDate date) {
+        long start = System.nanoTime();
+        List<Ticket> tickets = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int param = 1;
+            if (trainId >= 0) {
+                stmt.setInt(param++, trainId);
+            }
+            stmt.setDate(param, Date.valueOf(date));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                tickets.add(mapTicket(rs));
+            }
+        } catch (SQLException e) {
+            GET_WAITLISTED_TICKETS.error();
+            EventLog.error("TicketDAO.getWaitlistedTickets", "Error loading waitlist: " + e.getMessage());
+            return null;
+        } finally {
+            GET_WAITLISTED_TICKETS.record(start);
+        }
+        
+        return tickets;
+    }
+    
+    Ticket selectTicket(Connection conn, int ticketId, boolean forUpdate) throws SQLException {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM tickets WHERE ticket_id = ?" + (forUpdate ? " FOR UPDATE" : "");
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, ticketId);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? mapTicket(rs) : null;
+        } catch (SQLException e) {
+            SELECT_TICKET.error();
+            throw e;
+        } finally {
+            SELECT_TICKET.record(start);
+        }
+    }
+    
+    // Cancels a BOOKED, RAC or WAITING ticket
+    boolean cancelTicket(Connection conn, int ticketId) throws SQLException {
+        long start = System.nanoTime();
+        String sql = "UPDATE tickets SET status = 'CANCELLED' WHERE ticket_id = ? AND status <> 'CANCELLED'";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, ticketId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            CANCEL_TICKET_IN_TRANSACTION.error();
+            throw e;
+        } finally {
+            CANCEL_TICKET_IN_TRANSACTION.record(start);
+        }
+    }
+    
+    // Gives a RAC or waitlisted ticket the seat (and so the coach and berth) of a cancelled ticket
+    boolean confirmWaitlisted(Connection conn, int ticketId, Ticket freed) throws SQLException {
+        long start = System.nanoTime();
+        String sql = "UPDATE tickets SET status = 'BOOKED', seat_number = ?, coach_number = ?, berth_number = ?, berth_type = ? "
+                   + "WHERE ticket_id = ? AND status IN ('RAC', 'WAITING')";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, freed.getNumericSeatNumber());
+            stmt.setString(2, freed.getCoachNumber());
+            stmt.setInt(3, freed.getBerthNumber());
+            stmt.setString(4, freed.getBerthType());
+            stmt.setInt(5, ticketId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            CONFIRM_WAITLISTED.error();
+            throw e;
+        } finally {
+            CONFIRM_WAITLISTED.record(start);
+        }
+    }
+    
+    boolean moveToRac(Connection conn, int ticketId) throws SQLException {
+        long start = System.nanoTime();
+        String sql = "UPDATE tickets SET status = 'RAC' WHERE ticket_id = ? AND status = 'WAITING'";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, ticketId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            MOVE_TO_RAC.error();
+            throw e;
+        } finally {
+            MOVE_TO_RAC.record(start);
+        }
+    }
+    
+    private static PnrStatus mapPnrStatus(ResultSet rs) throws SQLException {
+        String coachNumber = rs.getString("coach_number");
+        int berthNumber = rs.getInt("berth_number");
+        String berthType = rs.getString("berth_type");
+        int seatNum = rs.getInt("seat_number");
+        if (rs.wasNull()) {
+            coachNumber = null;
+            berthNumber = 0;
+            berthType = null;
+        } else if (coachNumber == null) {
+            // Booked before coach layouts, as in mapTicket
+            coachNumber = "GS";
+            berthNumber = seatNum;
+            berthType = "SEAT";
+        }
+        return new PnrStatus(rs.getString("pnr_number"), rs.getInt("ticket_id"), rs.getInt("train_id"),
+                             rs.getDate("journey_date").toLocalDate(), rs.getString("ticket_class"),
+                             rs.getString("status"), coachNumber, berthNumber, berthType);
+    }
+    
+    private Ticket mapTicket(ResultSet rs) throws SQLException {
+        Ticket ticket = new Ticket();
+        ticket.setTicketId(rs.getInt("ticket_id"));
+        ticket.setTrainId(rs.getInt("train_id"));
+        ticket.setPassengerName(rs.getString("passenger_name"));
+        ticket.setPassengerEmail(rs.getString("passenger_email"));
+        ticket.setPassengerPhone(rs.getString("passenger_phone"));
+        
+        // seat_number is train-wide; the printed seat is coach plus berth number, e.g. S1-23
+        int seatNum = rs.getInt("seat_number");
+        if (!rs.wasNull()) {
+            ticket.setNumericSeatNumber(seatNum);
+            String coachNumber = rs.getString("coach_number");
+            if (coachNumber != null) {
+                ticket.setCoachNumber(coachNumber);
+                ticket.setBerthNumber(rs.getInt("berth_number"));
+                ticket.setBerthType(rs.getString("berth_type"));
+            } else {
+                // Booked before coach layouts: one general coach numbered like the train
+                ticket.setCoachNumber("GS");
+                ticket.setBerthNumber(seatNum);
+                ticket.setBerthType("SEAT");
+            }
+            ticket.setSeatNumber(ticket.getCoachNumber() + "-" + ticket.getBerthNumber());
+        }
+        
+        // Only the total is stored; base and taxes are split back out at the booking tax rate
+        Fare fare = Fare.ofTotal(rs.getDouble("fare"));
+        ticket.setTotalFare(fare.getTotalFare());
+        ticket.setBaseFare(fare.getBaseFare());
+        ticket.setTaxes(fare.getTaxes());
+        
+        ticket.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
+        ticket.setStatus(rs.getString("status"));
+        
+        // Set default values for new fields
+        ticket.setPassengerAge(25);
+        ticket.setPassengerGender("M");
+        ticket.setTicketClass(rs.getString("ticket_class"));
+        ticket.setIdProofType("AADHAR");
+        ticket.setBookingSource("ONLINE");
+        ticket.setPaymentMode("CARD");
+        ticket.setPnrNumber(rs.getString("pnr_number"));
+        ticket.setTransactionId(rs.getString("transaction_id"));
+        ticket.setJourneyDate(rs.getDate("journey_date").toLocalDate());
+        
+        return ticket;
     }
-}
\ No newline at end of file
+}
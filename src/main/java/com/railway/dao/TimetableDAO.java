@@ -0,0 +1,69 @@
+package com.railway.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+import com.railway.model.TrainStop;
+
+// Reads train calling patterns from train_stops
+public class TimetableDAO {
+    private static final MethodMetrics GET_ALL_STOPS = MetricsRegistry.timer("TimetableDAO.getAllStops");
+
+    // Every stop of every train, by train then stop sequence; null on error
+    public List<TrainStop> getAllStops() {
+        long start = System.nanoTime();
+        List<TrainStop> stops = new ArrayList<>();
+        String sql = "SELECT train_id, stop_sequence, station_name, arrival_time, departure_time, day_offset, "
+                   + "distance_km FROM train_stops ORDER BY train_id, stop_sequence";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                int dayStart = rs.getInt("day_offset") * 1440;
+                int arrival = minuteOfDay(rs.getTime("arrival_time"));
+                int departure = minuteOfDay(rs.getTime("departure_time"));
+                if (arrival >= 0) {
+                    arrival += dayStart;
+                }
+                if (departure >= 0) {
+                    departure += dayStart;
+                    // Arrives just before midnight and leaves just after
+                    if (arrival >= 0 && departure < arrival) {
+                        departure += 1440;
+                    }
+                }
+                stops.add(new TrainStop(rs.getInt("train_id"), rs.getInt("stop_sequence"),
+                                        rs.getString("station_name"), arrival, departure,
+                                        rs.getInt("distance_km")));
+            }
+        } catch (SQLException e) {
+            GET_ALL_STOPS.error();
+            EventLog.error("TimetableDAO.getAllStops", "Error loading train stops: " + e.getMessage());
+            return null;
+        } finally {
+            GET_ALL_STOPS.record(start);
+        }
+
+        return stops;
+    }
+
+    private static int minuteOfDay(Time time) {
+        if (time == null) {
+            return -1;
+        }
+        LocalTime local = time.toLocalTime();
+        return local.getHour() * 60 + local.getMinute();
+    }
+}
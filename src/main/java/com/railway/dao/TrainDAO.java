@@ -1,104 +1,211 @@
 package com.railway.dao;
 
 import com.railway.config.DatabaseConfig;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
 import com.railway.model.Train;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TrainDAO {
+    private static final MethodMetrics SEARCH_TRAINS = MetricsRegistry.timer("TrainDAO.searchTrains");
+    private static final MethodMetrics GET_ALL_TRAINS = MetricsRegistry.timer("TrainDAO.getAllTrains");
+    private static final MethodMetrics GET_TRAIN_BY_ID = MetricsRegistry.timer("TrainDAO.getTrainById");
+    private static final MethodMetrics GET_SEAT_COUNT_MISMATCHES = MetricsRegistry.timer("TrainDAO.getSeatCountMismatches");
+    private static final MethodMetrics LOCK_RUN = MetricsRegistry.timer("TrainDAO.lockRun");
+    private static final MethodMetrics DECREMENT_AVAILABLE_SEATS = MetricsRegistry.timer("TrainDAO.decrementAvailableSeats");
+    private static final MethodMetrics INCREMENT_AVAILABLE_SEATS = MetricsRegistry.timer("TrainDAO.incrementAvailableSeats");
+    
+    // Train columns with available_seats taken from the run on the bound date; a run nobody has booked yet
+    // has no train_runs row and every seat free
+    private static final String SELECT_TRAINS =
+        "SELECT t.train_id, t.train_name, t.source, t.destination, t.departure_time, t.arrival_time, t.total_seats, "
+      + "COALESCE(r.available_seats, t.total_seats) AS available_seats, t.fare FROM trains t "
+      + "LEFT JOIN train_runs r ON r.train_id = t.train_id AND r.journey_date = ? ";
     
     public List<Train> searchTrains(String source, String destination) {
+        long start = System.nanoTime();
         List<Train> trains = new ArrayList<>();
-        String sql = "SELECT * FROM trains WHERE source = ? AND destination = ? AND available_seats > 0";
+        String sql = SELECT_TRAINS
+                   + "WHERE t.source = ? AND t.destination = ? AND COALESCE(r.available_seats, t.total_seats) > 0";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, source);
-            stmt.setString(2, destination);
+            stmt.setDate(1, Date.valueOf(LocalDate.now()));
+            stmt.setString(2, source);
+            stmt.setString(3, destination);
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                Train train = new Train(
-                    rs.getInt("train_id"),
-                    rs.getString("train_name"),
-                    rs.getString("source"),
-                    rs.getString("destination"),
-                    rs.getString("departure_time"),
-                    rs.getString("arrival_time"),
-                    rs.getInt("total_seats"),
-                    rs.getInt("available_seats"),
-                    rs.getDouble("fare")
-                );
-                trains.add(train);
+                trains.add(mapTrain(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error searching trains: " + e.getMessage());
+            SEARCH_TRAINS.error();
+            EventLog.error("TrainDAO.searchTrains", "Error searching trains: " + e.getMessage());
+        } finally {
+            SEARCH_TRAINS.record(start);
+        }
+        
+        return trains;
+    }
+    
+    public List<Train> getAllTrains() {
+        long start = System.nanoTime();
+        List<Train> trains = new ArrayList<>();
+        String sql = SELECT_TRAINS + "ORDER BY t.train_id";
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, Date.valueOf(LocalDate.now()));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                trains.add(mapTrain(rs));
+            }
+        } catch (SQLException e) {
+            GET_ALL_TRAINS.error();
+            EventLog.error("TrainDAO.getAllTrains", "Error loading trains: " + e.getMessage());
+        } finally {
+            GET_ALL_TRAINS.record(start);
         }
         
         return trains;
     }
     
     public Train getTrainById(int trainId) {
-        String sql = "SELECT * FROM trains WHERE train_id = ?";
+        long start = System.nanoTime();
+        String sql = SELECT_TRAINS + "WHERE t.train_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, trainId);
+            stmt.setDate(1, Date.valueOf(LocalDate.now()));
+            stmt.setInt(2, trainId);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return new Train(
-                    rs.getInt("train_id"),
-                    rs.getString("train_name"),
-                    rs.getString("source"),
-                    rs.getString("destination"),
-                    rs.getString("departure_time"),
-                    rs.getString("arrival_time"),
-                    rs.getInt("total_seats"),
-                    rs.getInt("available_seats"),
-                    rs.getDouble("fare")
-                );
+                return mapTrain(rs);
             }
         } catch (SQLException e) {
-            System.err.println("Error getting train: " + e.getMessage());
+            GET_TRAIN_BY_ID.error();
+            EventLog.error("TrainDAO.getTrainById", "Error getting train: " + e.getMessage());
+        } finally {
+            GET_TRAIN_BY_ID.record(start);
         }
         
         return null;
     }
     
-    public boolean updateAvailableSeats(int trainId, int seatsToReduce) {
-        String sql = "UPDATE trains SET available_seats = available_seats - ? WHERE train_id = ? AND available_seats >= ?";
+    // Runs whose counter disagrees with their BOOKED tickets, as "train_id/journey_date" -> booked - (total - available)
+    public Map<String, Integer> getSeatCountMismatches() {
+        long start = System.nanoTime();
+        Map<String, Integer> mismatches = new LinkedHashMap<>();
+        String sql = "SELECT r.train_id, r.journey_date, COUNT(k.ticket_id) - (t.total_seats - r.available_seats) AS drift "
+                   + "FROM train_runs r JOIN trains t ON t.train_id = r.train_id "
+                   + "LEFT JOIN tickets k ON k.train_id = r.train_id AND k.journey_date = r.journey_date AND k.status = 'BOOKED' "
+                   + "GROUP BY r.train_id, r.journey_date, t.total_seats, r.available_seats HAVING drift <> 0 "
+                   + "ORDER BY r.train_id, r.journey_date";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, seatsToReduce);
-            stmt.setInt(2, trainId);
-            stmt.setInt(3, seatsToReduce);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                mismatches.put(rs.getInt("train_id") + "/" + rs.getDate("journey_date"), rs.getInt("drift"));
+            }
+        } catch (SQLException e) {
+            GET_SEAT_COUNT_MISMATCHES.error();
+            EventLog.error("TrainDAO.getSeatCountMismatches", "Error checking seat counts: " + e.getMessage());
+        } finally {
+            GET_SEAT_COUNT_MISMATCHES.record(start);
+        }
+        
+        return mismatches;
+    }
+    
+    // Locks one run's counter row until the surrounding transaction ends, creating the row
+    // with every seat free the first time the run is booked. The returned train carries the
+    // run's available seats; null if the train does not exist.
+    Train lockRun(Connection conn, int trainId, LocalDate journeyDate) throws SQLException {
+        long start = System.nanoTime();
+        String createSql = "INSERT IGNORE INTO train_runs (train_id, journey_date, available_seats) "
+                         + "SELECT train_id, ?, total_seats FROM trains WHERE train_id = ?";
+        String lockSql = "SELECT t.train_id, t.train_name, t.source, t.destination, t.departure_time, t.arrival_time, "
+                       + "t.total_seats, r.available_seats, t.fare FROM trains t "
+                       + "JOIN train_runs r ON r.train_id = t.train_id AND r.journey_date = ? "
+                       + "WHERE t.train_id = ? FOR UPDATE OF r";
+        
+        try (PreparedStatement create = conn.prepareStatement(createSql);
+             PreparedStatement lock = conn.prepareStatement(lockSql)) {
+            create.setDate(1, Date.valueOf(journeyDate));
+            create.setInt(2, trainId);
+            create.executeUpdate();
             
+            lock.setDate(1, Date.valueOf(journeyDate));
+            lock.setInt(2, trainId);
+            ResultSet rs = lock.executeQuery();
+            return rs.next() ? mapTrain(rs) : null;
+        } catch (SQLException e) {
+            LOCK_RUN.error();
+            throw e;
+        } finally {
+            LOCK_RUN.record(start);
+        }
+    }
+    
+    boolean decrementAvailableSeats(Connection conn, int trainId, LocalDate journeyDate, int seats) throws SQLException {
+        long start = System.nanoTime();
+        String sql = "UPDATE train_runs SET available_seats = available_seats - ? "
+                   + "WHERE train_id = ? AND journey_date = ? AND available_seats >= ?";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, seats);
+            stmt.setInt(2, trainId);
+            stmt.setDate(3, Date.valueOf(journeyDate));
+            stmt.setInt(4, seats);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Error updating seats: " + e.getMessage());
-            return false;
+            DECREMENT_AVAILABLE_SEATS.error();
+            throw e;
+        } finally {
+            DECREMENT_AVAILABLE_SEATS.record(start);
         }
     }
     
-    public boolean increaseAvailableSeats(int trainId, int seatsToAdd) {
-        String sql = "UPDATE trains SET available_seats = available_seats + ? WHERE train_id = ?";
+    boolean incrementAvailableSeats(Connection conn, int trainId, LocalDate journeyDate, int seats) throws SQLException {
+        long start = System.nanoTime();
+        String sql = "UPDATE train_runs SET available_seats = available_seats + ? WHERE train_id = ? AND journey_date = ?";
         
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, seatsToAdd);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, seats);
             stmt.setInt(2, trainId);
-            
+            stmt.setDate(3, Date.valueOf(journeyDate));
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Error increasing seats: " + e.getMessage());
-            return false;
+            INCREMENT_AVAILABLE_SEATS.error();
+            throw e;
+        } finally {
+            INCREMENT_AVAILABLE_SEATS.record(start);
         }
     }
-}
\ No newline at end of file
+    
+    private Train mapTrain(ResultSet rs) throws SQLException {
+        return new Train(
+            rs.getInt("train_id"),
+            rs.getString("train_name"),
+            rs.getString("source"),
+            rs.getString("destination"),
+            rs.getString("departure_time"),
+            rs.getString("arrival_time"),
+            rs.getInt("total_seats"),
+            rs.getInt("available_seats"),
+            rs.getDouble("fare")
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.railway.dao;
+
+import java.time.LocalDate;
+
+// Ordered RAC/waitlist queues for BookingTransaction, one per train run and class; the tickets table remains authoritative.
+// Methods that need a run's queues throw IllegalStateException if they cannot be read from the database.
+public interface WaitlistIndex {
+    // Tickets waiting for this run and class
+    int size(int trainId, LocalDate journeyDate, String ticketClass);
+
+    void add(int trainId, LocalDate journeyDate, String ticketClass, int ticketId);
+
+    // First ticket waiting for this run and class, or -1 if nobody is waiting
+    int head(int trainId, LocalDate journeyDate, String ticketClass);
+
+    // Removes a waiting ticket; returns the ticket that moves up into the last RAC slot, or -1
+    int remove(int trainId, LocalDate journeyDate, int ticketId);
+
+    // Queue positions up to this many hold RAC; the rest are WAITING
+    int getRacSlots();
+
+    // Longest a single run/class queue may grow
+    int getMaxLength();
+
+    // Drops the run's queues; the next use rebuilds them from the database
+    void reload(int trainId, LocalDate journeyDate);
+}
@@ -0,0 +1,145 @@
+package com.railway.fare;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.railway.dao.FareDAO;
+import com.railway.logging.EventLog;
+import com.railway.model.Fare;
+import com.railway.model.Train;
+
+/**
+ * Distance-based fares: the route's track distance from the station_distances
+ * matrix picks a slab, and the class's fare for that slab from fare_slabs is
+ * the base fare. Bookings, the fare calculator and printed tickets all price
+ * through this engine, so they always agree.
+ *
+ * The tariff is loaded into an immutable {@link FareTables}. Each indexed
+ * train's route distance is resolved against it once, into an array by train
+ * id, so quoting a train is array reads only: no station name hashing, no
+ * boxing. Tables and train distances are swapped together in one volatile
+ * write; quotes never lock, and a quote in flight during a reload finishes on
+ * the tariff it started with. A reload that fails to read the database keeps
+ * the current tariff.
+ */
+public class FareEngine {
+    // Train distance not resolved yet (the train was added after the last indexTrains)
+    private static final int NOT_INDEXED = -2;
+
+    private final FareDAO fareDAO;
+    private volatile Tariff tariff = new Tariff(FareTables.EMPTY, new ArrayList<>());
+    private ScheduledExecutorService scheduler;
+
+    public FareEngine(FareDAO fareDAO) {
+        this.fareDAO = fareDAO;
+    }
+
+    // False if the tariff could not be read; the previous tables stay in use
+    public boolean reload() {
+        long start = System.nanoTime();
+        Map<String, Map<String, Integer>> distances = fareDAO.getStationDistances();
+        Map<String, SortedMap<Integer, Double>> slabFares = fareDAO.getFareSlabs();
+        if (distances == null || slabFares == null) {
+            EventLog.warn("FareEngine.reload", "Fare tables not reloaded; keeping the current tariff");
+            return false;
+        }
+        FareTables tables = FareTables.build(distances, slabFares);
+        synchronized (this) {
+            tariff = new Tariff(tables, tariff.trains);
+        }
+        EventLog.info("fare_reload", -1, -1, System.nanoTime() - start, "LOADED");
+        return true;
+    }
+
+    // Resolves each train's route distance against the tariff, now and after every reload
+    public synchronized void indexTrains(List<Train> trains) {
+        tariff = new Tariff(tariff.tables, trains);
+    }
+
+    // Reloads every intervalMinutes on a daemon thread; no-op if intervalMinutes <= 0 or already started
+    public synchronized void startScheduledReload(long intervalMinutes) {
+        if (intervalMinutes <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "railway-fare-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::reload, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    // Track distance in km, or -1 if either station is not in the tariff or they are not connected
+    public int distanceKm(String from, String to) {
+        return tariff.tables.distanceKm(from, to);
+    }
+
+    // Base fare before taxes, or -1 if the route or class is not in the tariff
+    public double baseFare(String from, String to, String ticketClass) {
+        FareTables current = tariff.tables;
+        return current.baseFare(current.classId(ticketClass), current.distanceKm(from, to));
+    }
+
+    // Base fare over the train's whole route, or -1 if the route or class is not in the tariff
+    public double baseFare(Train train, String ticketClass) {
+        Tariff current = tariff;
+        int trainId = train.getTrainId();
+        int km = trainId >= 0 && trainId < current.trainKm.length ? current.trainKm[trainId] : NOT_INDEXED;
+        if (km == NOT_INDEXED) {
+            km = current.tables.distanceKm(train.getSource(), train.getDestination());
+        }
+        return current.tables.baseFare(current.tables.classId(ticketClass), km);
+    }
+
+    // Null if the route or class is not in the tariff
+    public Fare quote(String from, String to, String ticketClass) {
+        double baseFare = baseFare(from, to, ticketClass);
+        return baseFare >= 0 ? Fare.ofBase(baseFare) : null;
+    }
+
+    // Every class sold over the route, cheapest first; empty if the route is not in the tariff
+    public Map<String, Fare> quoteAllClasses(String from, String to) {
+        FareTables current = tariff.tables;
+        Map<String, Fare> quotes = new LinkedHashMap<>();
+        int km = current.distanceKm(from, to);
+        for (String ticketClass : current.classes()) {
+            double baseFare = current.baseFare(current.classId(ticketClass), km);
+            if (baseFare >= 0) {
+                quotes.put(ticketClass, Fare.ofBase(baseFare));
+            }
+        }
+        return quotes;
+    }
+
+    public int getStationCount() {
+        return tariff.tables.stationCount();
+    }
+
+    // Tables plus the route distance of every indexed train by train id, NOT_INDEXED for other ids
+    private static final class Tariff {
+        private final FareTables tables;
+        private final List<Train> trains;
+        private final int[] trainKm;
+
+        Tariff(FareTables tables, List<Train> trains) {
+            this.tables = tables;
+            this.trains = trains;
+            int maxId = -1;
+            for (Train train : trains) {
+                maxId = Math.max(maxId, train.getTrainId());
+            }
+            trainKm = new int[maxId + 1];
+            Arrays.fill(trainKm, NOT_INDEXED);
+            for (Train train : trains) {
+                trainKm[train.getTrainId()] = tables.distanceKm(train.getSource(), train.getDestination());
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.railway.fare;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeSet;
+
+/**
+ * One immutable load of the tariff. Station names map to dense indexes and the
+ * distance matrix holds the shortest track distance between every pair of
+ * stations, filled in from the listed adjacent pairs at build time. Every class
+ * and distance slab pair is priced up front into one flat array, fares[class *
+ * slabs + slab], and slabOfKm maps a whole-km distance straight to its slab, so
+ * once the distance and class id are known a quote is two array reads. Station
+ * names are resolved through a map, so callers that quote the same route again
+ * and again (trains) resolve it to a distance once; see {@link FareEngine}.
+ */
+final class FareTables {
+    static final FareTables EMPTY = build(new HashMap<>(), new HashMap<>());
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+    private final Map<String, Integer> stationIndex;
+    private final int stations;
+    private final int[] distanceKm;
+    private final String[] classes;
+    private final int slabs;
+    private final int[] slabOfKm;
+    private final double[] fares;
+
+    private FareTables(Map<String, Integer> stationIndex, int[] distanceKm, String[] classes, int[] slabOfKm,
+                       double[] fares) {
+        this.stationIndex = stationIndex;
+        this.stations = stationIndex.size();
+        this.distanceKm = distanceKm;
+        this.classes = classes;
+        this.slabs = classes.length == 0 ? 0 : fares.length / classes.length;
+        this.slabOfKm = slabOfKm;
+        this.fares = fares;
+    }
+
+    static FareTables build(Map<String, Map<String, Integer>> distances,
+                            Map<String, SortedMap<Integer, Double>> slabFares) {
+        Map<String, Integer> stationIndex = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> from : distances.entrySet()) {
+            stationIndex.putIfAbsent(key(from.getKey()), stationIndex.size());
+            for (String to : from.getValue().keySet()) {
+                stationIndex.putIfAbsent(key(to), stationIndex.size());
+            }
+        }
+
+        // Floyd-Warshall over the listed pairs; fine for the few hundred stations of a zone
+        int n = stationIndex.size();
+        int[] distanceKm = new int[n * n];
+        Arrays.fill(distanceKm, UNREACHABLE);
+        for (int i = 0; i < n; i++) {
+            distanceKm[i * n + i] = 0;
+        }
+        for (Map.Entry<String, Map<String, Integer>> from : distances.entrySet()) {
+            int a = stationIndex.get(key(from.getKey()));
+            for (Map.Entry<String, Integer> to : from.getValue().entrySet()) {
+                int b = stationIndex.get(key(to.getKey()));
+                int km = Math.min(distanceKm[a * n + b], to.getValue());
+                distanceKm[a * n + b] = km;
+                distanceKm[b * n + a] = km;
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                int viaK = distanceKm[i * n + k];
+                if (viaK == UNREACHABLE) {
+                    continue;
+                }
+                for (int j = 0; j < n; j++) {
+                    int km = viaK + distanceKm[k * n + j];
+                    if (km < distanceKm[i * n + j]) {
+                        distanceKm[i * n + j] = km;
+                    }
+                }
+            }
+        }
+
+        // Slab bounds are the union over all classes; each class prices a slab at its own next bound up, and a
+        // class is not sold beyond its last bound
+        TreeSet<Integer> bounds = new TreeSet<>();
+        for (SortedMap<Integer, Double> classSlabs : slabFares.values()) {
+            bounds.addAll(classSlabs.keySet());
+        }
+        int[] upperKm = bounds.stream().mapToInt(Integer::intValue).toArray();
+        int maxKm = upperKm.length == 0 ? 0 : upperKm[upperKm.length - 1];
+        int[] slabOfKm = new int[maxKm + 1];
+        for (int km = 1, slab = 0; km <= maxKm; km++) {
+            if (km > upperKm[slab]) {
+                slab++;
+            }
+            slabOfKm[km] = slab;
+        }
+
+        // Classes cheapest first, by their fare for the longest slab they are sold at
+        String[] classes = slabFares.keySet().toArray(new String[0]);
+        Arrays.sort(classes, Comparator.comparingDouble(c -> slabFares.get(c).get(slabFares.get(c).lastKey())));
+        double[] fares = new double[classes.length * upperKm.length];
+        for (int c = 0; c < classes.length; c++) {
+            SortedMap<Integer, Double> classSlabs = slabFares.get(classes[c]);
+            for (int s = 0; s < upperKm.length; s++) {
+                SortedMap<Integer, Double> covering = classSlabs.tailMap(upperKm[s]);
+                fares[c * upperKm.length + s] = covering.isEmpty() ? Double.NaN : covering.get(covering.firstKey());
+            }
+        }
+
+        return new FareTables(stationIndex, distanceKm, classes, slabOfKm, fares);
+    }
+
+    // Shortest track distance, or -1 if a station is unknown or the two are not connected
+    int distanceKm(String from, String to) {
+        Integer a = stationIndex.get(key(from));
+        Integer b = stationIndex.get(key(to));
+        if (a == null || b == null) {
+            return -1;
+        }
+        int km = distanceKm[a * stations + b];
+        return km == UNREACHABLE ? -1 : km;
+    }
+
+    // Index of a class in fares, or -1 if the tariff has no such class; a scan of the few
+    // classes is cheaper than hashing the name and unboxing
+    int classId(String ticketClass) {
+        for (int c = 0; c < classes.length; c++) {
+            if (classes[c].equals(ticketClass)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    // Base fare for a class over a distance, or -1 if that distance is out of the class's slabs
+    double baseFare(int classId, int km) {
+        if (classId < 0 || km <= 0 || km >= slabOfKm.length) {
+            return -1;
+        }
+        double fare = fares[classId * slabs + slabOfKm[km]];
+        return Double.isNaN(fare) ? -1 : fare;
+    }
+
+    String[] classes() {
+        return classes.clone();
+    }
+
+    int stationCount() {
+        return stations;
+    }
+
+    // Station names are matched case-insensitively, as in RouteIndex
+    private static String key(String station) {
+        return station == null ? "" : station.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,20 @@
+package com.railway.inventory;
+
+import java.time.LocalDate;
+
+// Packs a train run (train_id, journey_date) into one long for the per-run maps
+final class RunKey {
+    private RunKey() {}
+
+    static long of(int trainId, LocalDate journeyDate) {
+        return ((long) trainId << 32) | (journeyDate.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    static int trainId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static long epochDay(long key) {
+        return (int) key;
+    }
+}
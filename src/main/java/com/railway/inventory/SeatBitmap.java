@@ -0,0 +1,168 @@
+package com.railway.inventory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One bit per seat (bit set = taken). Seats are numbered from 1. Allocation scans
+ * the words for the first zero bit and claims it with a CAS, so concurrent
+ * bookings never receive the same seat and never block each other.
+ */
+public class SeatBitmap {
+    private final int capacity;
+    private final AtomicLongArray words;
+    private final AtomicInteger freeSeats;
+
+    public SeatBitmap(int capacity) {
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((capacity + 63) >>> 6);
+        this.freeSeats = new AtomicInteger(capacity);
+
+        // Bits past the last seat are permanently taken so full words read as -1
+        int tailBits = capacity & 63;
+        if (tailBits != 0) {
+            words.set(words.length() - 1, -1L << tailBits);
+        }
+    }
+
+    public int allocate() {
+        for (int i = 0; i < words.length(); i++) {
+            long word = words.get(i);
+            while (word != -1L) {
+                long bit = Long.lowestOneBit(~word);
+                if (words.compareAndSet(i, word, word | bit)) {
+                    freeSeats.decrementAndGet();
+                    return (i << 6) + Long.numberOfTrailingZeros(bit) + 1;
+                }
+                word = words.get(i);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Claims {@code count} seats, preferring a contiguous run inside one 64-seat word
+     * (a single CAS) and otherwise taking the lowest free seats one by one. Returns
+     * the seat numbers in ascending order, or null (claiming nothing) if too few are free.
+     */
+    public int[] allocateBlock(int count) {
+        if (count <= 0 || count > freeSeats.get()) {
+            return null;
+        }
+        if (count <= 64) {
+            int[] block = allocateRun(count);
+            if (block != null) {
+                return block;
+            }
+        }
+
+        int[] seats = new int[count];
+        for (int i = 0; i < count; i++) {
+            seats[i] = allocate();
+            if (seats[i] < 0) {
+                for (int j = 0; j < i; j++) {
+                    release(seats[j]);
+                }
+                return null;
+            }
+        }
+        Arrays.sort(seats);
+        return seats;
+    }
+
+    private int[] allocateRun(int count) {
+        long runMask = count == 64 ? -1L : (1L << count) - 1;
+        for (int i = 0; i < words.length(); i++) {
+            long word = words.get(i);
+            while (true) {
+                // Bit p of starts is set when seats p .. p+count-1 of this word are all free
+                long starts = ~word;
+                for (int shift = 1; shift < count && starts != 0; shift++) {
+                    starts &= ~word >>> shift;
+                }
+                if (count > 1) {
+                    starts &= -1L >>> (count - 1);
+                }
+                if (starts == 0) {
+                    break;
+                }
+                int start = Long.numberOfTrailingZeros(starts);
+                if (words.compareAndSet(i, word, word | (runMask << start))) {
+                    freeSeats.addAndGet(-count);
+                    int[] seats = new int[count];
+                    for (int k = 0; k < count; k++) {
+                        seats[k] = (i << 6) + start + k + 1;
+                    }
+                    return seats;
+                }
+                word = words.get(i);
+            }
+        }
+        return null;
+    }
+
+    // Marks a seat as taken; returns false if it was already taken or out of range
+    public boolean markTaken(int seatNumber) {
+        if (seatNumber < 1 || seatNumber > capacity) {
+            return false;
+        }
+        int index = (seatNumber - 1) >>> 6;
+        long bit = 1L << ((seatNumber - 1) & 63);
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word | bit)) {
+                freeSeats.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    public boolean release(int seatNumber) {
+        if (seatNumber < 1 || seatNumber > capacity) {
+            return false;
+        }
+        int index = (seatNumber - 1) >>> 6;
+        long bit = 1L << ((seatNumber - 1) & 63);
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) == 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word & ~bit)) {
+                freeSeats.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // Lowest free seat numbered fromSeat or higher, without claiming it; -1 if none
+    public int nextFree(int fromSeat) {
+        if (fromSeat < 1 || fromSeat > capacity) {
+            return -1;
+        }
+        int i = (fromSeat - 1) >>> 6;
+        long free = ~words.get(i) & (-1L << ((fromSeat - 1) & 63));
+        while (free == 0) {
+            if (++i == words.length()) {
+                return -1;
+            }
+            free = ~words.get(i);
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(free) + 1;
+    }
+
+    public boolean isTaken(int seatNumber) {
+        if (seatNumber < 1 || seatNumber > capacity) {
+            return false;
+        }
+        return (words.get((seatNumber - 1) >>> 6) & (1L << ((seatNumber - 1) & 63))) != 0;
+    }
+
+    public int getCapacity() { return capacity; }
+
+    public int getFreeSeats() { return freeSeats.get(); }
+}
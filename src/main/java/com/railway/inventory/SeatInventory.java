@@ -0,0 +1,232 @@
+package com.railway.inventory;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.railway.dao.CoachDAO;
+import com.railway.dao.SeatAllocator;
+import com.railway.dao.TicketDAO;
+import com.railway.dao.TrainDAO;
+import com.railway.model.Coach;
+import com.railway.model.Train;
+
+/**
+ * In-memory seat maps for every train run (train and journey date), warmed from
+ * the coaches and tickets tables. A train's coach layout is built once as a
+ * {@link SeatLayout} and shared by the {@link TrainSeatMap} of each of its
+ * dates; a run's map is created the first time the run is touched and dropped
+ * once its date has passed, so memory follows the open booking horizon rather
+ * than the train's history. Runs are keyed by a packed long ({@link RunKey}),
+ * keeping lookups a single hash probe however many dates are open.
+ *
+ * A train without coach rows is treated as one GENERAL coach "GS" covering all
+ * of its seats. The database stays the source of truth: the unique seat-per-run
+ * constraint rejects any seat a map hands out by mistake, and
+ * {@link #reload(int, LocalDate)} drops a run's map so the next use rebuilds it.
+ * A layout or map whose rows could not be read is never cached; the lookup
+ * throws IllegalStateException and the next one tries the database again.
+ */
+public class SeatInventory implements SeatAllocator {
+    private final TrainDAO trainDAO;
+    private final TicketDAO ticketDAO;
+    private final CoachDAO coachDAO;
+    private final Map<Integer, SeatLayout> layouts = new ConcurrentHashMap<>();
+    private final Map<Long, TrainSeatMap> seatMaps = new ConcurrentHashMap<>();
+    // Epoch day of the last sweep for past runs
+    private volatile long sweptDay = Long.MIN_VALUE;
+
+    public SeatInventory(TrainDAO trainDAO, TicketDAO ticketDAO, CoachDAO coachDAO) {
+        this.trainDAO = trainDAO;
+        this.ticketDAO = ticketDAO;
+        this.coachDAO = coachDAO;
+    }
+
+    // Loads every layout and the seat maps of runs from today on that already have bookings;
+    // whatever cannot be read is left to load on first use
+    public void warmUp() {
+        Map<Integer, List<Coach>> coaches = coachDAO.getAllCoaches();
+        if (coaches != null) {
+            for (Train train : trainDAO.getAllTrains()) {
+                layouts.put(train.getTrainId(), layoutOf(train, coaches.get(train.getTrainId())));
+            }
+        }
+
+        seatMaps.clear();
+        sweptDay = LocalDate.now().toEpochDay();
+        Map<Integer, Map<LocalDate, List<Integer>>> bookedSeats = ticketDAO.getBookedSeatsByRun(LocalDate.now());
+        if (bookedSeats == null) {
+            return;
+        }
+        for (Map.Entry<Integer, Map<LocalDate, List<Integer>>> train : bookedSeats.entrySet()) {
+            SeatLayout layout = layouts.get(train.getKey());
+            if (layout == null) {
+                continue;
+            }
+            for (Map.Entry<LocalDate, List<Integer>> run : train.getValue().entrySet()) {
+                seatMaps.put(RunKey.of(train.getKey(), run.getKey()), build(layout, run.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasClass(int trainId, String ticketClass) {
+        SeatLayout layout = layoutFor(trainId);
+        return layout != null && layout.classId(ticketClass) >= 0;
+    }
+
+    @Override
+    public int allocate(int trainId, LocalDate journeyDate, String ticketClass, String berthPreference) {
+        TrainSeatMap seatMap = seatMapFor(trainId, journeyDate);
+        return seatMap != null ? seatMap.allocate(ticketClass, berthPreference) : -1;
+    }
+
+    @Override
+    public int[] allocateBlock(int trainId, LocalDate journeyDate, String ticketClass, int count) {
+        TrainSeatMap seatMap = seatMapFor(trainId, journeyDate);
+        return seatMap != null ? seatMap.allocateBlock(ticketClass, count) : null;
+    }
+
+    // A run not in memory is left alone: its map is read from the database when it is next used
+    @Override
+    public void markBooked(int trainId, LocalDate journeyDate, int seatNumber) {
+        TrainSeatMap seatMap = seatMaps.get(RunKey.of(trainId, journeyDate));
+        if (seatMap != null) {
+            seatMap.markTaken(seatNumber);
+        }
+    }
+
+    @Override
+    public void release(int trainId, LocalDate journeyDate, int seatNumber) {
+        TrainSeatMap seatMap = seatMaps.get(RunKey.of(trainId, journeyDate));
+        if (seatMap != null) {
+            seatMap.release(seatNumber);
+        }
+    }
+
+    // Free seats across all classes on today's run, or -1 if the train is unknown or its seats cannot be read
+    public int availableSeats(int trainId) {
+        try {
+            return availableSeats(trainId, LocalDate.now());
+        } catch (IllegalStateException e) {
+            return -1;
+        }
+    }
+
+    // Free seats on the run if its map is already in memory, else -1; never touches the database,
+    // so searches can overlay it on every candidate train
+    public int loadedAvailableSeats(int trainId, LocalDate journeyDate) {
+        TrainSeatMap seatMap = seatMaps.get(RunKey.of(trainId, journeyDate));
+        return seatMap != null ? seatMap.freeSeats() : -1;
+    }
+
+    public int availableSeats(int trainId, LocalDate journeyDate) {
+        TrainSeatMap seatMap = seatMapFor(trainId, journeyDate);
+        return seatMap != null ? seatMap.freeSeats() : -1;
+    }
+
+    // Free seats in one class (0 if the train has none of it), or -1 if the train is unknown
+    public int availableSeats(int trainId, LocalDate journeyDate, String ticketClass) {
+        TrainSeatMap seatMap = seatMapFor(trainId, journeyDate);
+        return seatMap != null ? seatMap.freeSeats(ticketClass) : -1;
+    }
+
+    // Free seats per class the train carries on that date; empty if the train is unknown
+    public Map<String, Integer> availabilityByClass(int trainId, LocalDate journeyDate) {
+        TrainSeatMap seatMap = seatMapFor(trainId, journeyDate);
+        return seatMap != null ? seatMap.freeSeatsByClass() : Collections.emptyMap();
+    }
+
+    // The coach holding a train seat number, or null if the seat is not in any coach
+    public Coach coachOf(int trainId, int seatNumber) {
+        SeatLayout layout = layoutFor(trainId);
+        return layout != null ? layout.coachOf(seatNumber) : null;
+    }
+
+    // Runs currently held in memory
+    public int getOpenRuns() {
+        return seatMaps.size();
+    }
+
+    @Override
+    public void reload(int trainId, LocalDate journeyDate) {
+        seatMaps.remove(RunKey.of(trainId, journeyDate));
+    }
+
+    // Drops a train's layout and all of its runs, e.g. after its coaches or seat count change
+    public void reloadTrain(int trainId) {
+        layouts.remove(trainId);
+        seatMaps.keySet().removeIf(key -> RunKey.trainId(key) == trainId);
+    }
+
+    // Null if the train is unknown
+    private TrainSeatMap seatMapFor(int trainId, LocalDate journeyDate) {
+        long key = RunKey.of(trainId, journeyDate);
+        TrainSeatMap seatMap = seatMaps.get(key);
+        if (seatMap != null) {
+            return seatMap;
+        }
+        SeatLayout layout = layoutFor(trainId);
+        if (layout == null) {
+            return null;
+        }
+        evictPastRuns();
+        // Loaded outside the map so no bin lock is held across the query; a racing loader's map is discarded
+        List<Integer> bookedSeats = ticketDAO.getBookedSeatNumbers(trainId, journeyDate);
+        if (bookedSeats == null) {
+            throw new IllegalStateException("Booked seats of train " + trainId + " on " + journeyDate
+                                            + " could not be read");
+        }
+        TrainSeatMap loaded = build(layout, bookedSeats);
+        TrainSeatMap raced = seatMaps.putIfAbsent(key, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    // Null if the train is unknown
+    private SeatLayout layoutFor(int trainId) {
+        SeatLayout layout = layouts.get(trainId);
+        if (layout != null) {
+            return layout;
+        }
+        Train train = trainDAO.getTrainById(trainId);
+        if (train == null) {
+            return null;
+        }
+        List<Coach> coaches = coachDAO.getCoaches(trainId);
+        if (coaches == null) {
+            throw new IllegalStateException("Coaches of train " + trainId + " could not be read");
+        }
+        SeatLayout loaded = layoutOf(train, coaches);
+        SeatLayout raced = layouts.putIfAbsent(trainId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    // At most one sweep per calendar day, run on a map miss so the booking path never pays for it twice
+    private void evictPastRuns() {
+        long today = LocalDate.now().toEpochDay();
+        if (today <= sweptDay) {
+            return;
+        }
+        sweptDay = today;
+        seatMaps.keySet().removeIf(key -> RunKey.epochDay(key) < today);
+    }
+
+    // coaches is null or empty when the train has no coach rows
+    private static SeatLayout layoutOf(Train train, List<Coach> coaches) {
+        if (coaches == null || coaches.isEmpty()) {
+            coaches = Collections.singletonList(
+                new Coach(train.getTrainId(), "GS", "GENERAL", 1, train.getTotalSeats()));
+        }
+        return new SeatLayout(coaches);
+    }
+
+    private static TrainSeatMap build(SeatLayout layout, List<Integer> bookedSeats) {
+        TrainSeatMap seatMap = new TrainSeatMap(layout);
+        for (int seatNumber : bookedSeats) {
+            seatMap.markTaken(seatNumber);
+        }
+        return seatMap;
+    }
+}
@@ -0,0 +1,118 @@
+package com.railway.inventory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.railway.model.Coach;
+
+/**
+ * The fixed part of a train's seat map, derived once from its coaches and
+ * shared by the {@link TrainSeatMap} of every journey date: which class and
+ * berth type each train seat belongs to, and where it sits in that class's and
+ * berth's bitmaps. Classes and berths are small integer ids so the per-date
+ * maps are plain arrays of bitmaps.
+ */
+final class SeatLayout {
+    private static final int NONE = -1;
+
+    final String[] classes;              // class id -> ticket class, in coach order
+    final int[][] seatByClassIndex;      // [class][1-based index] -> train seat
+    final String[][] berths;             // [class][berth id] -> berth type
+    final int[][][] seatByBerthIndex;    // [class][berth][1-based index] -> train seat
+    // Indexed by train seat number; null / NONE for numbers no coach covers
+    final Coach[] coachBySeat;
+    final int[] classBySeat;
+    final int[] classIndexBySeat;
+    final int[] berthBySeat;
+    final int[] berthIndexBySeat;
+
+    // coaches in seat order, none overlapping
+    SeatLayout(List<Coach> coaches) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        int maxSeat = 0;
+        for (Coach coach : coaches) {
+            maxSeat = Math.max(maxSeat, coach.getFirstSeat() + coach.getSeatCount() - 1);
+            Map<String, Integer> berthCounts = counts.computeIfAbsent(coach.getTicketClass(), c -> new LinkedHashMap<>());
+            for (int seat = coach.getFirstSeat(); seat < coach.getFirstSeat() + coach.getSeatCount(); seat++) {
+                berthCounts.merge(coach.berthType(seat), 1, Integer::sum);
+            }
+        }
+
+        classes = counts.keySet().toArray(new String[0]);
+        seatByClassIndex = new int[classes.length][];
+        berths = new String[classes.length][];
+        seatByBerthIndex = new int[classes.length][][];
+        for (int c = 0; c < classes.length; c++) {
+            Map<String, Integer> berthCounts = counts.get(classes[c]);
+            berths[c] = berthCounts.keySet().toArray(new String[0]);
+            seatByBerthIndex[c] = new int[berths[c].length][];
+            int classSize = 0;
+            for (int b = 0; b < berths[c].length; b++) {
+                int berthSize = berthCounts.get(berths[c][b]);
+                seatByBerthIndex[c][b] = new int[berthSize + 1];
+                classSize += berthSize;
+            }
+            seatByClassIndex[c] = new int[classSize + 1];
+        }
+
+        coachBySeat = new Coach[maxSeat + 1];
+        classBySeat = new int[maxSeat + 1];
+        classIndexBySeat = new int[maxSeat + 1];
+        berthBySeat = new int[maxSeat + 1];
+        berthIndexBySeat = new int[maxSeat + 1];
+        Arrays.fill(classBySeat, NONE);
+
+        int[] classFilled = new int[classes.length];
+        int[][] berthFilled = new int[classes.length][];
+        for (int c = 0; c < classes.length; c++) {
+            berthFilled[c] = new int[berths[c].length];
+        }
+        for (Coach coach : coaches) {
+            int c = classId(coach.getTicketClass());
+            for (int seat = coach.getFirstSeat(); seat < coach.getFirstSeat() + coach.getSeatCount(); seat++) {
+                int b = berthId(c, coach.berthType(seat));
+                int classIndex = ++classFilled[c];
+                int berthIndex = ++berthFilled[c][b];
+                seatByClassIndex[c][classIndex] = seat;
+                seatByBerthIndex[c][b][berthIndex] = seat;
+
+                coachBySeat[seat] = coach;
+                classBySeat[seat] = c;
+                classIndexBySeat[seat] = classIndex;
+                berthBySeat[seat] = b;
+                berthIndexBySeat[seat] = berthIndex;
+            }
+        }
+    }
+
+    // A handful of classes per train, so a scan beats hashing
+    int classId(String ticketClass) {
+        for (int c = 0; c < classes.length; c++) {
+            if (classes[c].equals(ticketClass)) {
+                return c;
+            }
+        }
+        return NONE;
+    }
+
+    int berthId(int classId, String berthType) {
+        String[] classBerths = berths[classId];
+        for (int b = 0; b < classBerths.length; b++) {
+            if (classBerths[b].equals(berthType)) {
+                return b;
+            }
+        }
+        return NONE;
+    }
+
+    // Class id of a train seat, or -1 if no coach covers it
+    int classOf(int seatNumber) {
+        return seatNumber > 0 && seatNumber < classBySeat.length ? classBySeat[seatNumber] : NONE;
+    }
+
+    Coach coachOf(int seatNumber) {
+        return seatNumber > 0 && seatNumber < coachBySeat.length ? coachBySeat[seatNumber] : null;
+    }
+}
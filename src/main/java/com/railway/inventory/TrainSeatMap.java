@@ -0,0 +1,128 @@
+package com.railway.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Seat map of one train run (train and journey date), split by class and berth
+ * type. Each class has a {@link SeatBitmap} over its own seats (numbered 1..n in
+ * coach order) and one more per berth type, so the free count of a class is a
+ * counter read and "a free SIDE_LOWER in SLEEPER" is a scan of that berth's
+ * words only. Seat numbers going in and out are train-wide; the train's shared
+ * {@link SeatLayout} translates them.
+ *
+ * Nothing here locks. A seat is claimed only by a CAS on its class bitmap bit;
+ * the berth bitmaps just record claims, so a berth bit is set only while the
+ * class bit is set. The holder sets the berth bit after claiming the seat and
+ * clears it before releasing it. A berth-preference search therefore skips a
+ * seat whose berth bit is clear but whose class CAS fails, which is only ever a
+ * claim or release in flight.
+ */
+final class TrainSeatMap {
+    private final SeatLayout layout;
+    private final SeatBitmap[] classSeats;
+    private final SeatBitmap[][] berthSeats;
+
+    TrainSeatMap(SeatLayout layout) {
+        this.layout = layout;
+        classSeats = new SeatBitmap[layout.classes.length];
+        berthSeats = new SeatBitmap[layout.classes.length][];
+        for (int c = 0; c < classSeats.length; c++) {
+            classSeats[c] = new SeatBitmap(layout.seatByClassIndex[c].length - 1);
+            berthSeats[c] = new SeatBitmap[layout.berths[c].length];
+            for (int b = 0; b < berthSeats[c].length; b++) {
+                berthSeats[c][b] = new SeatBitmap(layout.seatByBerthIndex[c][b].length - 1);
+            }
+        }
+    }
+
+    // Train seat number, or -1 if the class is full or the train has none of it
+    int allocate(String ticketClass, String berthPreference) {
+        int c = layout.classId(ticketClass);
+        if (c < 0) {
+            return -1;
+        }
+        int b = berthPreference != null ? layout.berthId(c, berthPreference) : -1;
+        if (b >= 0) {
+            SeatBitmap berth = berthSeats[c][b];
+            for (int index = berth.nextFree(1); index > 0; index = berth.nextFree(index + 1)) {
+                int seat = layout.seatByBerthIndex[c][b][index];
+                if (classSeats[c].markTaken(layout.classIndexBySeat[seat])) {
+                    berth.markTaken(index);
+                    return seat;
+                }
+            }
+        }
+
+        int index = classSeats[c].allocate();
+        if (index < 0) {
+            return -1;
+        }
+        int seat = layout.seatByClassIndex[c][index];
+        berthSeats[c][layout.berthBySeat[seat]].markTaken(layout.berthIndexBySeat[seat]);
+        return seat;
+    }
+
+    // Adjacent seats of the class where possible (neighbours in the class order share a coach
+    // except at a coach boundary), or null if fewer than count are free
+    int[] allocateBlock(String ticketClass, int count) {
+        int c = layout.classId(ticketClass);
+        if (c < 0) {
+            return null;
+        }
+        int[] indexes = classSeats[c].allocateBlock(count);
+        if (indexes == null) {
+            return null;
+        }
+        int[] seats = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            int seat = layout.seatByClassIndex[c][indexes[i]];
+            berthSeats[c][layout.berthBySeat[seat]].markTaken(layout.berthIndexBySeat[seat]);
+            seats[i] = seat;
+        }
+        return seats;
+    }
+
+    void markTaken(int seatNumber) {
+        int c = layout.classOf(seatNumber);
+        if (c < 0) {
+            return;
+        }
+        if (classSeats[c].markTaken(layout.classIndexBySeat[seatNumber])) {
+            berthSeats[c][layout.berthBySeat[seatNumber]].markTaken(layout.berthIndexBySeat[seatNumber]);
+        }
+    }
+
+    void release(int seatNumber) {
+        int c = layout.classOf(seatNumber);
+        if (c < 0) {
+            return;
+        }
+        // Berth bit first, so it is never set on a seat that is free in the class bitmap
+        berthSeats[c][layout.berthBySeat[seatNumber]].release(layout.berthIndexBySeat[seatNumber]);
+        classSeats[c].release(layout.classIndexBySeat[seatNumber]);
+    }
+
+    // O(1): free seats of one class, 0 if the train has none of it
+    int freeSeats(String ticketClass) {
+        int c = layout.classId(ticketClass);
+        return c >= 0 ? classSeats[c].getFreeSeats() : 0;
+    }
+
+    int freeSeats() {
+        int free = 0;
+        for (SeatBitmap seats : classSeats) {
+            free += seats.getFreeSeats();
+        }
+        return free;
+    }
+
+    // Free seats per class, in coach order of each class's first coach
+    Map<String, Integer> freeSeatsByClass() {
+        Map<String, Integer> free = new LinkedHashMap<>();
+        for (int c = 0; c < classSeats.length; c++) {
+            free.put(layout.classes[c], classSeats[c].getFreeSeats());
+        }
+        return free;
+    }
+}
@@ -0,0 +1,167 @@
+package com.railway.inventory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.railway.dao.TicketDAO;
+import com.railway.dao.WaitlistIndex;
+import com.railway.model.Ticket;
+
+/**
+ * In-memory mirror of the RAC and WAITING tickets, one {@link WaitlistQueue} per
+ * train run and class in booking order (ticket id order, since bookings for a run
+ * are serialized on its row lock). The first racSlots positions of a queue hold
+ * RAC, the rest are on the waitlist. Changes are made while BookingTransaction
+ * holds the run's row lock; a failed transaction calls
+ * {@link #reload(int, LocalDate)}. Queues of runs whose date has passed are dropped.
+ * Queues whose tickets could not be read are never cached; the lookup throws
+ * IllegalStateException and the next one tries the database again.
+ */
+public class Waitlist implements WaitlistIndex {
+    private final TicketDAO ticketDAO;
+    private final int racSlots;
+    private final int maxLength;
+    private final Map<Long, RunQueues> runs = new ConcurrentHashMap<>();
+    // Epoch day of the last sweep for past runs
+    private volatile long sweptDay = Long.MIN_VALUE;
+
+    // Every queue of one run; all access synchronizes on the instance
+    private static final class RunQueues {
+        final Map<String, WaitlistQueue> byClass = new HashMap<>();
+        final Map<Integer, String> classByTicket = new HashMap<>();
+
+        void add(String ticketClass, int ticketId) {
+            byClass.computeIfAbsent(ticketClass, c -> new WaitlistQueue()).add(ticketId);
+            classByTicket.put(ticketId, ticketClass);
+        }
+    }
+
+    public Waitlist(TicketDAO ticketDAO, int racSlots, int maxLength) {
+        this.ticketDAO = ticketDAO;
+        this.racSlots = racSlots;
+        this.maxLength = maxLength;
+    }
+
+    // Loads the queues of runs from today on; if they cannot be read, each run loads on first use
+    public void warmUp() {
+        List<Ticket> waitlisted = ticketDAO.getWaitlistedTickets(LocalDate.now());
+        if (waitlisted == null) {
+            runs.clear();
+            return;
+        }
+        Map<Long, List<Ticket>> byRun = new HashMap<>();
+        for (Ticket ticket : waitlisted) {
+            byRun.computeIfAbsent(RunKey.of(ticket.getTrainId(), ticket.getJourneyDate()), k -> new ArrayList<>()).add(ticket);
+        }
+        runs.clear();
+        sweptDay = LocalDate.now().toEpochDay();
+        for (Map.Entry<Long, List<Ticket>> entry : byRun.entrySet()) {
+            runs.put(entry.getKey(), build(entry.getValue()));
+        }
+    }
+
+    @Override
+    public int size(int trainId, LocalDate journeyDate, String ticketClass) {
+        RunQueues queues = queuesFor(trainId, journeyDate);
+        synchronized (queues) {
+            WaitlistQueue queue = queues.byClass.get(ticketClass);
+            return queue != null ? queue.size() : 0;
+        }
+    }
+
+    @Override
+    public void add(int trainId, LocalDate journeyDate, String ticketClass, int ticketId) {
+        RunQueues queues = queuesFor(trainId, journeyDate);
+        synchronized (queues) {
+            queues.add(ticketClass, ticketId);
+        }
+    }
+
+    @Override
+    public int head(int trainId, LocalDate journeyDate, String ticketClass) {
+        RunQueues queues = queuesFor(trainId, journeyDate);
+        synchronized (queues) {
+            WaitlistQueue queue = queues.byClass.get(ticketClass);
+            return queue != null ? queue.head() : -1;
+        }
+    }
+
+    @Override
+    public int remove(int trainId, LocalDate journeyDate, int ticketId) {
+        RunQueues queues = queuesFor(trainId, journeyDate);
+        synchronized (queues) {
+            String ticketClass = queues.classByTicket.remove(ticketId);
+            if (ticketClass == null) {
+                return -1;
+            }
+            WaitlistQueue queue = queues.byClass.get(ticketClass);
+            int position = queue.position(ticketId);
+            int movesUp = position <= racSlots ? queue.get(racSlots + 1) : -1;
+            queue.remove(ticketId);
+            return movesUp;
+        }
+    }
+
+    // 1-based position of a waiting ticket within its run and class, or -1 if it is not waiting
+    public int position(int trainId, LocalDate journeyDate, int ticketId) {
+        RunQueues queues = queuesFor(trainId, journeyDate);
+        synchronized (queues) {
+            String ticketClass = queues.classByTicket.get(ticketId);
+            return ticketClass != null ? queues.byClass.get(ticketClass).position(ticketId) : -1;
+        }
+    }
+
+    @Override
+    public int getRacSlots() {
+        return racSlots;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public void reload(int trainId, LocalDate journeyDate) {
+        runs.remove(RunKey.of(trainId, journeyDate));
+    }
+
+    private RunQueues queuesFor(int trainId, LocalDate journeyDate) {
+        long key = RunKey.of(trainId, journeyDate);
+        RunQueues queues = runs.get(key);
+        if (queues != null) {
+            return queues;
+        }
+        evictPastRuns();
+        // Loaded outside the map so no bin lock is held across the query; a racing loader's queues are discarded
+        List<Ticket> tickets = ticketDAO.getWaitlistedTickets(trainId, journeyDate);
+        if (tickets == null) {
+            throw new IllegalStateException("Waitlist of train " + trainId + " on " + journeyDate + " could not be read");
+        }
+        RunQueues loaded = build(tickets);
+        RunQueues raced = runs.putIfAbsent(key, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void evictPastRuns() {
+        long today = LocalDate.now().toEpochDay();
+        if (today <= sweptDay) {
+            return;
+        }
+        sweptDay = today;
+        runs.keySet().removeIf(key -> RunKey.epochDay(key) < today);
+    }
+
+    // Tickets must be in ticket id order
+    private static RunQueues build(List<Ticket> tickets) {
+        RunQueues queues = new RunQueues();
+        for (Ticket ticket : tickets) {
+            queues.add(ticket.getTicketClass(), ticket.getTicketId());
+        }
+        return queues;
+    }
+}
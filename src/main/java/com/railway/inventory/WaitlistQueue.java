@@ -0,0 +1,115 @@
+package com.railway.inventory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FIFO of waitlisted ticket ids for one train and class. Each ticket gets the
+ * next slot in join order and a Fenwick tree counts the live slots, so the
+ * head, the ticket at any position and a ticket's own position are all
+ * O(log n), and a passenger leaving from the middle of the queue is a single
+ * tree update instead of a shift. Slots of departed tickets are reclaimed by
+ * compacting once the slot array fills up.
+ *
+ * Not thread-safe; {@link Waitlist} guards each train's queues.
+ */
+final class WaitlistQueue {
+    private static final int INITIAL_SLOTS = 16;
+
+    private int[] ticketIds = new int[INITIAL_SLOTS];
+    // 1-based Fenwick tree over slots: 1 where the slot holds a waiting ticket
+    private int[] tree = new int[INITIAL_SLOTS + 1];
+    private final Map<Integer, Integer> slotByTicket = new HashMap<>();
+    private int usedSlots;
+
+    void add(int ticketId) {
+        if (usedSlots == ticketIds.length) {
+            // Grow only if compaction would leave the array more than half full
+            compact(size() * 2 > ticketIds.length ? ticketIds.length * 2 : ticketIds.length);
+        }
+        int slot = usedSlots++;
+        ticketIds[slot] = ticketId;
+        slotByTicket.put(ticketId, slot);
+        update(slot + 1, 1);
+    }
+
+    boolean remove(int ticketId) {
+        Integer slot = slotByTicket.remove(ticketId);
+        if (slot == null) {
+            return false;
+        }
+        update(slot + 1, -1);
+        return true;
+    }
+
+    // 1-based position in the queue, or -1 if the ticket is not waiting here
+    int position(int ticketId) {
+        Integer slot = slotByTicket.get(ticketId);
+        return slot != null ? prefixSum(slot + 1) : -1;
+    }
+
+    // Ticket at a 1-based position, or -1 if the queue is shorter than that
+    int get(int position) {
+        if (position < 1 || position > size()) {
+            return -1;
+        }
+        // Fenwick descent for the smallest index whose prefix sum reaches position
+        int index = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(ticketIds.length); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= ticketIds.length && tree[next] < remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return ticketIds[index];
+    }
+
+    int head() {
+        return get(1);
+    }
+
+    int size() {
+        return slotByTicket.size();
+    }
+
+    private void update(int index, int delta) {
+        for (; index < tree.length; index += index & -index) {
+            tree[index] += delta;
+        }
+    }
+
+    private int prefixSum(int index) {
+        int sum = 0;
+        for (; index > 0; index -= index & -index) {
+            sum += tree[index];
+        }
+        return sum;
+    }
+
+    // Packs live tickets into the first slots, keeping their order, and rebuilds the tree in O(n)
+    private void compact(int capacity) {
+        int[] packed = new int[capacity];
+        int count = 0;
+        for (int slot = 0; slot < usedSlots; slot++) {
+            Integer live = slotByTicket.get(ticketIds[slot]);
+            if (live != null && live == slot) {
+                packed[count] = ticketIds[slot];
+                slotByTicket.put(packed[count], count);
+                count++;
+            }
+        }
+        ticketIds = packed;
+        usedSlots = count;
+        tree = new int[capacity + 1];
+        Arrays.fill(tree, 1, count + 1, 1);
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
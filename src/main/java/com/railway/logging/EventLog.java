@@ -0,0 +1,220 @@
+package com.railway.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured, asynchronous event log for the service and data layers. Callers
+ * record what happened (event name, ticket, train, latency, outcome) into an
+ * {@link EventRingBuffer}; a single daemon thread formats the events as JSON
+ * lines and writes them out, so no booking thread ever waits on a file or the
+ * console. The CLI owns everything meant for a person to read.
+ *
+ * Configuration (system properties):
+ *   railway.log.file        JSON lines destination (default railway-events.log)
+ *   railway.log.bufferSize  ring slots, rounded up to a power of two (default 8192)
+ *   railway.log.stderr      echo WARN/ERROR events to stderr from the writer thread (default true)
+ *
+ * If the ring is full the event is dropped and counted; the writer logs a WARN
+ * with the number lost once it catches up.
+ */
+public final class EventLog {
+    public enum Level { INFO, WARN, ERROR }
+
+    private static final String FILE = System.getProperty("railway.log.file", "railway-events.log");
+    private static final int BUFFER_SIZE = Integer.getInteger("railway.log.bufferSize", 8192);
+    private static final boolean ECHO_TO_STDERR =
+        Boolean.parseBoolean(System.getProperty("railway.log.stderr", "true"));
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SHUTDOWN_WAIT_MS = 2000;
+
+    private static final EventRingBuffer RING = new EventRingBuffer(BUFFER_SIZE);
+    private static final Writer OUT = openOutput();
+    // stderr as it was at startup; tools that swap System.err still get warnings
+    private static final PrintStream CONSOLE = System.err;
+    private static final StringBuilder LINE = new StringBuilder(256);
+    // Events arrive in bursts within the same millisecond; format each timestamp once
+    private static long lastMillis = -1;
+    private static String lastTimestamp;
+    private static final Thread WRITER = startWriter();
+
+    private static volatile boolean stopping;
+    private static long reportedDrops;
+
+    private EventLog() {}
+
+    // A completed operation: latency and outcome are what dashboards and grep care about
+    public static void info(String event, int ticketId, int trainId, long latencyNanos, String outcome) {
+        RING.publish(System.currentTimeMillis(), Level.INFO, event, ticketId, trainId, latencyNanos, outcome, null);
+    }
+
+    public static void warn(String event, String message) {
+        log(Level.WARN, event, -1, -1, -1, null, message);
+    }
+
+    public static void error(String event, String message) {
+        log(Level.ERROR, event, -1, -1, -1, null, message);
+    }
+
+    // ticketId / trainId / latencyNanos below zero and null outcome / message are left out of the record
+    public static void log(Level level, String event, int ticketId, int trainId, long latencyNanos,
+                           String outcome, String message) {
+        RING.publish(System.currentTimeMillis(), level, event, ticketId, trainId, latencyNanos, outcome, message);
+    }
+
+    public static long getDropped() {
+        return RING.getDropped();
+    }
+
+    // Blocks until everything logged so far is written, or the timeout passes
+    public static void flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!RING.isEmpty() && System.nanoTime() < deadline && WRITER.isAlive()) {
+            LockSupport.unpark(WRITER);
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private static Writer openOutput() {
+        try {
+            Path path = Paths.get(FILE);
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                                           StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Event log " + FILE + " not writable (" + e.getMessage() + "), using stderr");
+            return new BufferedWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Thread startWriter() {
+        Thread writer = new Thread(EventLog::runWriter, "railway-event-log");
+        writer.setDaemon(true);
+        writer.start();
+        // Daemon threads die with the JVM; drain what is left on the way out
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopping = true;
+            LockSupport.unpark(writer);
+            try {
+                writer.join(SHUTDOWN_WAIT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "railway-event-log-shutdown"));
+        return writer;
+    }
+
+    private static void runWriter() {
+        boolean dirty = false;
+        while (true) {
+            int written = RING.drain(EventLog::write);
+            if (written > 0) {
+                dirty = true;
+                reportDrops();
+                continue;
+            }
+            if (!RING.isEmpty()) {
+                // A producer has claimed the next slot but not filled it yet; let it run
+                Thread.yield();
+                continue;
+            }
+            if (dirty) {
+                try {
+                    OUT.flush();
+                } catch (IOException e) {
+                    CONSOLE.println("Event log flush failed: " + e.getMessage());
+                }
+                dirty = false;
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private static void reportDrops() {
+        long dropped = RING.getDropped();
+        if (dropped > reportedDrops) {
+            RING.publish(System.currentTimeMillis(), Level.WARN, "EventLog.dropped", -1, -1, -1, null,
+                         (dropped - reportedDrops) + " events dropped, ring of " + RING.capacity() + " was full");
+            reportedDrops = dropped;
+        }
+    }
+
+    // Runs on the writer thread only
+    private static void write(LogEvent event) {
+        StringBuilder line = LINE;
+        line.setLength(0);
+        if (event.timestampMillis != lastMillis) {
+            lastMillis = event.timestampMillis;
+            lastTimestamp = Instant.ofEpochMilli(lastMillis).toString();
+        }
+        line.append("{\"ts\":\"").append(lastTimestamp)
+            .append("\",\"level\":\"").append(event.level)
+            .append("\",\"event\":");
+        appendString(line, event.event);
+        if (event.ticketId >= 0) {
+            line.append(",\"ticketId\":").append(event.ticketId);
+        }
+        if (event.trainId >= 0) {
+            line.append(",\"trainId\":").append(event.trainId);
+        }
+        if (event.latencyNanos >= 0) {
+            line.append(",\"latencyMs\":").append(event.latencyNanos / 1_000_000.0);
+        }
+        if (event.outcome != null) {
+            line.append(",\"outcome\":");
+            appendString(line, event.outcome);
+        }
+        if (event.message != null) {
+            line.append(",\"message\":");
+            appendString(line, event.message);
+        }
+        line.append("}\n");
+
+        try {
+            OUT.append(line);
+        } catch (IOException e) {
+            CONSOLE.println("Event log write failed: " + e.getMessage());
+        }
+        if (ECHO_TO_STDERR && event.level != Level.INFO) {
+            CONSOLE.println("[" + event.level + "] " + event.event + ": " + event.message);
+        }
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
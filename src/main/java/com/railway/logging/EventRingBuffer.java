@@ -0,0 +1,75 @@
+package com.railway.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer / single-consumer ring of preallocated {@link LogEvent}
+ * slots. Producers claim a sequence with one CAS, fill the slot in place and
+ * publish it with a volatile write, so logging never takes a lock or allocates an
+ * event object. When the writer falls a full ring behind, new events are
+ * dropped and counted rather than blocking the booking thread.
+ */
+final class EventRingBuffer {
+    private final LogEvent[] slots;
+    private final int mask;
+    // Next sequence a producer will claim
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence the consumer will read; everything below it is free to reuse
+    private volatile long consumed;
+    private final AtomicLong dropped = new AtomicLong();
+
+    EventRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new LogEvent[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LogEvent();
+        }
+    }
+
+    boolean publish(long timestampMillis, EventLog.Level level, String event, int ticketId, int trainId,
+                    long latencyNanos, String outcome, String message) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        LogEvent slot = slots[(int) sequence & mask];
+        slot.set(timestampMillis, level, event, ticketId, trainId, latencyNanos, outcome, message);
+        slot.sequence = sequence;
+        return true;
+    }
+
+    // Hands every published event, in order, to the consumer; stops at the first unpublished slot
+    int drain(Consumer<LogEvent> consumer) {
+        long next = consumed;
+        int count = 0;
+        while (true) {
+            LogEvent slot = slots[(int) next & mask];
+            if (slot.sequence != next) {
+                return count;
+            }
+            consumer.accept(slot);
+            slot.message = null;
+            consumed = ++next;
+            count++;
+        }
+    }
+
+    boolean isEmpty() {
+        return claimed.get() == consumed;
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,31 @@
+package com.railway.logging;
+
+/**
+ * One reusable slot of the {@link EventRingBuffer}. Producers fill the fields and
+ * then publish by writing {@code sequence}; the writer only reads a slot whose
+ * sequence matches the one it expects next.
+ */
+final class LogEvent {
+    volatile long sequence = -1;
+
+    long timestampMillis;
+    EventLog.Level level;
+    String event;
+    int ticketId;
+    int trainId;
+    long latencyNanos;
+    String outcome;
+    String message;
+
+    void set(long timestampMillis, EventLog.Level level, String event, int ticketId, int trainId,
+             long latencyNanos, String outcome, String message) {
+        this.timestampMillis = timestampMillis;
+        this.level = level;
+        this.event = event;
+        this.ticketId = ticketId;
+        this.trainId = trainId;
+        this.latencyNanos = latencyNanos;
+        this.outcome = outcome;
+        this.message = message;
+    }
+}
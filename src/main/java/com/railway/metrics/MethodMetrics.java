@@ -0,0 +1,38 @@
+package com.railway.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram for one instrumented method.
+ * Instances are created once (usually into a static final field) and recorded
+ * into without allocating:
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * try { ... } catch (SQLException e) { SEARCH.error(); ... } finally { SEARCH.record(start); }
+ * </pre>
+ */
+public class MethodMetrics {
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    // Records one call that began at startNanos (a System.nanoTime() reading)
+    public void record(long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    public String getName() { return name; }
+
+    public long getErrors() { return errors.sum(); }
+
+    public LatencyHistogram.Snapshot snapshot() { return latency.snapshot(); }
+}
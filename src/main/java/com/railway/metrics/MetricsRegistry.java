@@ -0,0 +1,118 @@
+package com.railway.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.railway.logging.EventLog;
+
+/**
+ * Process-wide set of {@link MethodMetrics}, named "Class.method". Renders a
+ * console report for the CLI and Prometheus text exposition for the API and for
+ * a node_exporter textfile collector.
+ *
+ * Setting -Drailway.metrics.file=/path/railway.prom makes
+ * {@link #startFileExporter()} rewrite that file every railway.metrics.intervalSec
+ * seconds (default 15). The file is replaced atomically so scrapers never read a
+ * half-written file.
+ */
+public final class MetricsRegistry {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final Map<String, MethodMetrics> METRICS = new ConcurrentSkipListMap<>();
+    private static ScheduledExecutorService exporter;
+
+    private MetricsRegistry() {}
+
+    public static MethodMetrics timer(String name) {
+        return METRICS.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    public static List<MethodMetrics> getAll() {
+        return new ArrayList<>(METRICS.values());
+    }
+
+    // Human-readable table of every method that has been called
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-42s %9s %7s %10s %10s %10s %10s%n",
+                                 "Method", "Calls", "Errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (MethodMetrics metrics : METRICS.values()) {
+            LatencyHistogram.Snapshot snapshot = metrics.snapshot();
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format("%-42s %9d %7d %10.3f %10.3f %10.3f %10.3f%n",
+                                     metrics.getName(), snapshot.getCount(), metrics.getErrors(),
+                                     snapshot.getValueAtQuantile(0.5) / 1e6,
+                                     snapshot.getValueAtQuantile(0.99) / 1e6,
+                                     snapshot.getValueAtQuantile(0.999) / 1e6,
+                                     snapshot.getMax() / 1e6));
+        }
+        return out.toString();
+    }
+
+    public static String prometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP railway_method_duration_seconds Latency of instrumented methods.\n");
+        out.append("# TYPE railway_method_duration_seconds summary\n");
+        for (MethodMetrics metrics : METRICS.values()) {
+            LatencyHistogram.Snapshot snapshot = metrics.snapshot();
+            String label = "method=\"" + metrics.getName() + "\"";
+            for (double q : QUANTILES) {
+                out.append("railway_method_duration_seconds{").append(label).append(",quantile=\"").append(q)
+                   .append("\"} ").append(snapshot.getValueAtQuantile(q) / 1e9).append('\n');
+            }
+            out.append("railway_method_duration_seconds_sum{").append(label).append("} ")
+               .append(snapshot.getSum() / 1e9).append('\n');
+            out.append("railway_method_duration_seconds_count{").append(label).append("} ")
+               .append(snapshot.getCount()).append('\n');
+        }
+
+        out.append("# HELP railway_method_errors_total Calls that failed with an error.\n");
+        out.append("# TYPE railway_method_errors_total counter\n");
+        for (MethodMetrics metrics : METRICS.values()) {
+            out.append("railway_method_errors_total{method=\"").append(metrics.getName()).append("\"} ")
+               .append(metrics.getErrors()).append('\n');
+        }
+        return out.toString();
+    }
+
+    public static void writePrometheus(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, prometheus().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // No-op unless -Drailway.metrics.file is set; safe to call more than once
+    public static synchronized void startFileExporter() {
+        String target = System.getProperty("railway.metrics.file");
+        if (target == null || target.isEmpty() || exporter != null) {
+            return;
+        }
+        Path file = Paths.get(target);
+        long interval = Long.getLong("railway.metrics.intervalSec", 15L);
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "railway-metrics-exporter");
+            t.setDaemon(true);
+            return t;
+        });
+        exporter.scheduleAtFixedRate(() -> {
+            try {
+                writePrometheus(file);
+            } catch (IOException e) {
+                EventLog.warn("MetricsRegistry.startFileExporter", "Could not write metrics file: " + e.getMessage());
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,72 @@
+package com.railway.model;
+
+import java.util.Collections;
+import java.util.List;
+
+public class BookingResult {
+    public enum Status {
+        CONFIRMED,
+        // No seat yet: the ticket is RAC or WAITING and moves up as others cancel
+        WAITLISTED,
+        TRAIN_NOT_FOUND,
+        // The train carries no coach of the requested class
+        CLASS_NOT_AVAILABLE,
+        // Outside today .. today + booking horizon
+        INVALID_JOURNEY_DATE,
+        SOLD_OUT,
+        FAILED
+    }
+
+    private final Status status;
+    private final String message;
+    private final List<Ticket> tickets;
+    private final int waitlistPosition;
+
+    private BookingResult(Status status, String message, List<Ticket> tickets, int waitlistPosition) {
+        this.status = status;
+        this.message = message;
+        this.tickets = Collections.unmodifiableList(tickets);
+        this.waitlistPosition = waitlistPosition;
+    }
+
+    public static BookingResult confirmed(Ticket ticket) {
+        return new BookingResult(Status.CONFIRMED, "Ticket booked successfully!", Collections.singletonList(ticket), -1);
+    }
+
+    public static BookingResult confirmed(List<Ticket> tickets) {
+        return new BookingResult(Status.CONFIRMED, tickets.size() + " tickets booked successfully!", tickets, -1);
+    }
+
+    // position is 1-based within the train and class queue
+    public static BookingResult waitlisted(Ticket ticket, int position) {
+        return new BookingResult(Status.WAITLISTED, "No seats available, ticket is " + ticket.getStatus()
+                                 + " at position " + position, Collections.singletonList(ticket), position);
+    }
+
+    public static BookingResult failed(Status status, String message) {
+        return new BookingResult(status, message, Collections.emptyList(), -1);
+    }
+
+    public boolean isSuccess() { return status == Status.CONFIRMED; }
+
+    public boolean isWaitlisted() { return status == Status.WAITLISTED; }
+
+    public Status getStatus() { return status; }
+
+    public String getMessage() { return message; }
+
+    // First (or only) booked ticket, null on failure
+    public Ticket getTicket() { return tickets.isEmpty() ? null : tickets.get(0); }
+
+    public List<Ticket> getTickets() { return tickets; }
+
+    public int getTicketId() { return tickets.isEmpty() ? -1 : tickets.get(0).getTicketId(); }
+
+    // Queue position of a WAITLISTED booking, -1 otherwise
+    public int getWaitlistPosition() { return waitlistPosition; }
+
+    @Override
+    public String toString() {
+        return status + (tickets.isEmpty() ? "" : " [ticket " + getTicketId() + "]") + ": " + message;
+    }
+}
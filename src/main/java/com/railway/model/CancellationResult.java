@@ -0,0 +1,55 @@
+package com.railway.model;
+
+public class CancellationResult {
+    public enum Status {
+        CANCELLED,
+        NOT_FOUND,
+        ALREADY_CANCELLED,
+        FAILED
+    }
+
+    private final Status status;
+    private final String message;
+    private final Ticket ticket;
+    private final int promotedTicketId;
+    private final int movedToRacTicketId;
+
+    private CancellationResult(Status status, String message, Ticket ticket, int promotedTicketId,
+                               int movedToRacTicketId) {
+        this.status = status;
+        this.message = message;
+        this.ticket = ticket;
+        this.promotedTicketId = promotedTicketId;
+        this.movedToRacTicketId = movedToRacTicketId;
+    }
+
+    public static CancellationResult cancelled(Ticket ticket, int promotedTicketId, int movedToRacTicketId) {
+        return new CancellationResult(Status.CANCELLED, "Ticket cancelled successfully!", ticket, promotedTicketId,
+                                      movedToRacTicketId);
+    }
+
+    public static CancellationResult failed(Status status, Ticket ticket, String message) {
+        return new CancellationResult(status, message, ticket, -1, -1);
+    }
+
+    public boolean isSuccess() { return status == Status.CANCELLED; }
+
+    public Status getStatus() { return status; }
+
+    public String getMessage() { return message; }
+
+    // The ticket as it was before cancelling; null if it was not found
+    public Ticket getTicket() { return ticket; }
+
+    // Waitlisted ticket that took the freed seat, -1 if none
+    public int getPromotedTicketId() { return promotedTicketId; }
+
+    // Waiting ticket that moved up into RAC, -1 if none
+    public int getMovedToRacTicketId() { return movedToRacTicketId; }
+
+    @Override
+    public String toString() {
+        return status + (promotedTicketId > 0 ? " [promoted " + promotedTicketId + "]" : "")
+               + (movedToRacTicketId > 0 ? " [to RAC " + movedToRacTicketId + "]" : "") + ": " + message;
+    }
+}
@@ -0,0 +1,85 @@
+package com.railway.model;
+
+/**
+ * One coach of a train (a row of the coaches table): its class and a contiguous
+ * run of the train's seat numbers, firstSeat .. firstSeat + seatCount - 1. Seat
+ * numbers stay train-wide so tickets.seat_number and unique_seat_per_train keep
+ * working; the berth number printed on a ticket is the seat's place within the
+ * coach. Berth types repeat bay by bay in the pattern of the coach's class.
+ */
+public class Coach {
+    public static final String LOWER = "LOWER";
+    public static final String MIDDLE = "MIDDLE";
+    public static final String UPPER = "UPPER";
+    public static final String SIDE_LOWER = "SIDE_LOWER";
+    public static final String SIDE_UPPER = "SIDE_UPPER";
+    public static final String SEAT = "SEAT";
+
+    private static final String[] THREE_TIER_BAY = {LOWER, MIDDLE, UPPER, LOWER, MIDDLE, UPPER, SIDE_LOWER, SIDE_UPPER};
+    private static final String[] TWO_TIER_BAY = {LOWER, UPPER, LOWER, UPPER, SIDE_LOWER, SIDE_UPPER};
+    private static final String[] CABIN = {LOWER, UPPER};
+    private static final String[] SEATING = {SEAT};
+
+    private final int trainId;
+    private final String coachCode; // S1, B2, A1, H1, GS
+    private final String ticketClass; // GENERAL, SLEEPER, AC_3_TIER, AC_2_TIER, AC_1_TIER
+    private final int firstSeat;
+    private final int seatCount;
+
+    public Coach(int trainId, String coachCode, String ticketClass, int firstSeat, int seatCount) {
+        this.trainId = trainId;
+        this.coachCode = coachCode;
+        this.ticketClass = ticketClass;
+        this.firstSeat = firstSeat;
+        this.seatCount = seatCount;
+    }
+
+    // Berth types in bay order for a class, e.g. LOWER, MIDDLE, UPPER, ... for SLEEPER
+    public static String[] berthLayout(String ticketClass) {
+        return layoutFor(ticketClass).clone();
+    }
+
+    public static boolean isBerthType(String value) {
+        return LOWER.equals(value) || MIDDLE.equals(value) || UPPER.equals(value)
+            || SIDE_LOWER.equals(value) || SIDE_UPPER.equals(value) || SEAT.equals(value);
+    }
+
+    public boolean contains(int seatNumber) {
+        return seatNumber >= firstSeat && seatNumber < firstSeat + seatCount;
+    }
+
+    // 1-based place of a train seat within this coach, e.g. 23 for S1-23
+    public int berthNumber(int seatNumber) {
+        return seatNumber - firstSeat + 1;
+    }
+
+    public String berthType(int seatNumber) {
+        String[] layout = layoutFor(ticketClass);
+        return layout[(berthNumber(seatNumber) - 1) % layout.length];
+    }
+
+    // Printed seat, e.g. "S1-23"
+    public String seatLabel(int seatNumber) {
+        return coachCode + "-" + berthNumber(seatNumber);
+    }
+
+    private static String[] layoutFor(String ticketClass) {
+        switch (ticketClass) {
+            case "SLEEPER":
+            case "AC_3_TIER":
+                return THREE_TIER_BAY;
+            case "AC_2_TIER":
+                return TWO_TIER_BAY;
+            case "AC_1_TIER":
+                return CABIN;
+            default:
+                return SEATING;
+        }
+    }
+
+    public int getTrainId() { return trainId; }
+    public String getCoachCode() { return coachCode; }
+    public String getTicketClass() { return ticketClass; }
+    public int getFirstSeat() { return firstSeat; }
+    public int getSeatCount() { return seatCount; }
+}
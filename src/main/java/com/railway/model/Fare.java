@@ -0,0 +1,42 @@
+package com.railway.model;
+
+// A fare split into base fare and taxes. Amounts are rupees rounded to paise; base + taxes == total.
+public class Fare {
+    public static final double TAX_RATE = 0.15;
+
+    private final double baseFare;
+    private final double taxes;
+    private final double totalFare;
+
+    private Fare(double baseFare, double taxes) {
+        this.baseFare = baseFare;
+        this.taxes = taxes;
+        this.totalFare = round(baseFare + taxes);
+    }
+
+    public static Fare ofBase(double baseFare) {
+        double base = round(baseFare);
+        return new Fare(base, round(base * TAX_RATE));
+    }
+
+    // Splits a stored total, e.g. tickets.fare, back into base and taxes
+    public static Fare ofTotal(double totalFare) {
+        double base = round(totalFare / (1 + TAX_RATE));
+        return new Fare(base, round(totalFare - base));
+    }
+
+    public double getBaseFare() { return baseFare; }
+
+    public double getTaxes() { return taxes; }
+
+    public double getTotalFare() { return totalFare; }
+
+    private static double round(double rupees) {
+        return Math.round(rupees * 100) / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Rs.%.2f + Rs.%.2f tax = Rs.%.2f", baseFare, taxes, totalFare);
+    }
+}
@@ -0,0 +1,71 @@
+package com.railway.model;
+
+import java.util.Collections;
+import java.util.List;
+
+// A journey of one or more train legs; times are minutes from midnight of the travel day
+public class Itinerary {
+
+    public static class Leg {
+        private final Train train;
+        private final String fromStation;
+        private final String toStation;
+        private final int departureMinute;
+        private final int arrivalMinute;
+
+        public Leg(Train train, String fromStation, String toStation, int departureMinute, int arrivalMinute) {
+            this.train = train;
+            this.fromStation = fromStation;
+            this.toStation = toStation;
+            this.departureMinute = departureMinute;
+            this.arrivalMinute = arrivalMinute;
+        }
+
+        public Train getTrain() { return train; }
+        public String getFromStation() { return fromStation; }
+        public String getToStation() { return toStation; }
+        public int getDepartureMinute() { return departureMinute; }
+        public int getArrivalMinute() { return arrivalMinute; }
+
+        public String getDepartureTime() { return formatMinute(departureMinute); }
+        public String getArrivalTime() { return formatMinute(arrivalMinute); }
+    }
+
+    private final List<Leg> legs;
+
+    public Itinerary(List<Leg> legs) {
+        this.legs = Collections.unmodifiableList(legs);
+    }
+
+    public List<Leg> getLegs() { return legs; }
+
+    public int getTransfers() { return legs.size() - 1; }
+
+    public int getDepartureMinute() { return legs.get(0).getDepartureMinute(); }
+
+    public int getArrivalMinute() { return legs.get(legs.size() - 1).getArrivalMinute(); }
+
+    public int getDurationMinutes() { return getArrivalMinute() - getDepartureMinute(); }
+
+    // HH:mm, with a +N suffix for arrivals on a later day
+    public static String formatMinute(int minute) {
+        int day = minute / 1440;
+        int inDay = minute % 1440;
+        String time = String.format("%02d:%02d", inDay / 60, inDay % 60);
+        return day > 0 ? time + " (+" + day + ")" : time;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Leg leg : legs) {
+            if (sb.length() > 0) {
+                sb.append(" | ");
+            }
+            sb.append(leg.getTrain().getTrainName()).append(' ')
+              .append(leg.getFromStation()).append(' ').append(leg.getDepartureTime())
+              .append(" -> ").append(leg.getToStation()).append(' ').append(leg.getArrivalTime());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.railway.model;
+
+// One passenger in a group booking
+public class PassengerRequest {
+    private final String passengerName;
+    private final String passengerEmail;
+    private final String passengerPhone;
+    private final int passengerAge;
+    private final String passengerGender;
+
+    public PassengerRequest(String passengerName, String passengerEmail, String passengerPhone,
+                            int passengerAge, String passengerGender) {
+        this.passengerName = passengerName;
+        this.passengerEmail = passengerEmail;
+        this.passengerPhone = passengerPhone;
+        this.passengerAge = passengerAge;
+        this.passengerGender = passengerGender;
+    }
+
+    public String getPassengerName() { return passengerName; }
+    public String getPassengerEmail() { return passengerEmail; }
+    public String getPassengerPhone() { return passengerPhone; }
+    public int getPassengerAge() { return passengerAge; }
+    public String getPassengerGender() { return passengerGender; }
+}
@@ -0,0 +1,66 @@
+package com.railway.model;
+
+import java.time.LocalDate;
+
+// What a PNR status check shows: the booking's run, class, status and berth, without passenger details
+public class PnrStatus {
+    private final String pnrNumber;
+    private final int ticketId;
+    private final int trainId;
+    private final LocalDate journeyDate;
+    private final String ticketClass;
+    private final String status;
+    private final String coachNumber;
+    private final int berthNumber;
+    private final String berthType;
+
+    public PnrStatus(String pnrNumber, int ticketId, int trainId, LocalDate journeyDate, String ticketClass,
+                     String status, String coachNumber, int berthNumber, String berthType) {
+        this.pnrNumber = pnrNumber;
+        this.ticketId = ticketId;
+        this.trainId = trainId;
+        this.journeyDate = journeyDate;
+        this.ticketClass = ticketClass;
+        this.status = status;
+        this.coachNumber = coachNumber;
+        this.berthNumber = berthNumber;
+        this.berthType = berthType;
+    }
+
+    public static PnrStatus of(Ticket ticket) {
+        boolean berth = ticket.getCoachNumber() != null;
+        return new PnrStatus(ticket.getPnrNumber(), ticket.getTicketId(), ticket.getTrainId(),
+                             ticket.getJourneyDate(), ticket.getTicketClass(), ticket.getStatus(),
+                             ticket.getCoachNumber(), berth ? ticket.getBerthNumber() : 0,
+                             berth ? ticket.getBerthType() : null);
+    }
+
+    public String getPnrNumber() { return pnrNumber; }
+
+    public int getTicketId() { return ticketId; }
+
+    public int getTrainId() { return trainId; }
+
+    public LocalDate getJourneyDate() { return journeyDate; }
+
+    public String getTicketClass() { return ticketClass; }
+
+    public String getStatus() { return status; }
+
+    // Null while RAC or waitlisted, and for tickets booked before coach layouts
+    public String getCoachNumber() { return coachNumber; }
+
+    public int getBerthNumber() { return berthNumber; }
+
+    public String getBerthType() { return berthType; }
+
+    // Printed as coach-berth (S1-23); null when no berth is held
+    public String getSeatNumber() {
+        return coachNumber != null ? coachNumber + "-" + berthNumber : null;
+    }
+
+    @Override
+    public String toString() {
+        return pnrNumber + " " + status + (coachNumber != null ? " " + getSeatNumber() : "");
+    }
+}
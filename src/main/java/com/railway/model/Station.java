@@ -0,0 +1,54 @@
+package com.railway.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A row of the stations table. The name is the one trains, distances and
+ * timetables refer to (e.g. "Chennai"); officialName is the full station name
+ * printed for passengers (e.g. "Chennai Central"). Aliases are other names
+ * passengers type for it, such as old city names.
+ */
+public class Station {
+    private final String code;
+    private final String name;
+    private final String officialName;
+    private final String state;
+    private final String zone;
+    private final String division;
+    private final int platforms;
+    private final List<String> aliases;
+
+    public Station(String code, String name, String officialName, String state, String zone, String division,
+                   int platforms, List<String> aliases) {
+        this.code = code;
+        this.name = name;
+        this.officialName = officialName;
+        this.state = state;
+        this.zone = zone;
+        this.division = division;
+        this.platforms = platforms;
+        this.aliases = Collections.unmodifiableList(aliases);
+    }
+
+    public String getCode() { return code; }
+
+    public String getName() { return name; }
+
+    public String getOfficialName() { return officialName; }
+
+    public String getState() { return state; }
+
+    public String getZone() { return zone; }
+
+    public String getDivision() { return division; }
+
+    public int getPlatforms() { return platforms; }
+
+    public List<String> getAliases() { return aliases; }
+
+    @Override
+    public String toString() {
+        return officialName + " (" + code + ")";
+    }
+}
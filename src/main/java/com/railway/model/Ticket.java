@@ -3,9 +3,12 @@ package com.railway.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.railway.util.IdGenerator;
+
 public class Ticket {
     private int ticketId;
     private int trainId;
+    private String trainName; // Only set by queries that join trains (passenger history)
     private String passengerName;
     private String passengerEmail;
     private String passengerPhone;
@@ -14,7 +17,9 @@ public class Ticket {
     private String idProofType; // AADHAR, PAN, PASSPORT, DRIVING_LICENSE
     private String idProofNumber;
     private String seatNumber; // Changed to String for formats like "S1-23", "A1-45"
+    private int numericSeatNumber; // Train-wide seat (tickets.seat_number); "S1-23" counts within the coach
     private String coachNumber; // S1, A1, B2, etc.
+    private int berthNumber; // Place within the coach, the 23 of "S1-23"
     private String berthType; // LOWER, MIDDLE, UPPER, SIDE_LOWER, SIDE_UPPER
     private String ticketClass; // GENERAL, SLEEPER, AC_3_TIER, AC_2_TIER, AC_1_TIER
     private double baseFare;
@@ -23,7 +28,7 @@ public class Ticket {
     private LocalDateTime bookingTime;
     private LocalDate journeyDate;
     private String status; // BOOKED, CANCELLED, CONFIRMED, WAITING, RAC
-    private String pnrNumber; // 10-digit PNR
+    private String pnrNumber; // 15-digit PNR from IdGenerator; older tickets carry their zero-padded ticket id
     private String bookingSource; // ONLINE, COUNTER, MOBILE_APP
     private String paymentMode; // CARD, UPI, NET_BANKING, CASH
     private String transactionId;
@@ -46,26 +51,23 @@ public class Ticket {
         this.seatNumber = seatNumber;
         this.coachNumber = coachNumber;
         this.ticketClass = ticketClass;
-        this.baseFare = baseFare;
-        this.taxes = baseFare * 0.15; // 15% taxes
-        this.totalFare = baseFare + taxes;
+        Fare fare = Fare.ofBase(baseFare);
+        this.baseFare = fare.getBaseFare();
+        this.taxes = fare.getTaxes();
+        this.totalFare = fare.getTotalFare();
         this.bookingTime = LocalDateTime.now();
         this.journeyDate = journeyDate;
         this.status = "BOOKED";
-        this.pnrNumber = generatePNR();
+        this.pnrNumber = IdGenerator.nextPnr();
         this.bookingSource = "ONLINE";
         this.paymentMode = "CARD";
-        this.transactionId = "TXN" + System.currentTimeMillis() % 1000000;
+        this.transactionId = IdGenerator.nextTransactionId();
         this.isInsured = false;
         this.insuranceAmount = 0.0;
         this.idProofType = "AADHAR";
         this.berthType = "LOWER";
     }
     
-    private String generatePNR() {
-        return String.format("%010d", (long)(Math.random() * 10000000000L));
-    }
-    
     // Getters and Setters
     public int getTicketId() { return ticketId; }
     public void setTicketId(int ticketId) { this.ticketId = ticketId; }
@@ -73,6 +75,9 @@ public class Ticket {
     public int getTrainId() { return trainId; }
     public void setTrainId(int trainId) { this.trainId = trainId; }
     
+    public String getTrainName() { return trainName; }
+    public void setTrainName(String trainName) { this.trainName = trainName; }
+    
     public String getPassengerName() { return passengerName; }
     public void setPassengerName(String passengerName) { this.passengerName = passengerName; }
     
@@ -97,9 +102,30 @@ public class Ticket {
     public String getSeatNumber() { return seatNumber; }
     public void setSeatNumber(String seatNumber) { this.seatNumber = seatNumber; }
     
+    // Train-wide seat number; tickets that predate coach layouts fall back to the digits after the dash
+    public int getNumericSeatNumber() {
+        if (numericSeatNumber > 0) {
+            return numericSeatNumber;
+        }
+        if (seatNumber == null) {
+            return 1;
+        }
+        String digits = seatNumber.contains("-") ? seatNumber.substring(seatNumber.lastIndexOf('-') + 1) : seatNumber;
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return 1; // Default seat number
+        }
+    }
+    
+    public void setNumericSeatNumber(int numericSeatNumber) { this.numericSeatNumber = numericSeatNumber; }
+    
     public String getCoachNumber() { return coachNumber; }
     public void setCoachNumber(String coachNumber) { this.coachNumber = coachNumber; }
     
+    public int getBerthNumber() { return berthNumber; }
+    public void setBerthNumber(int berthNumber) { this.berthNumber = berthNumber; }
+    
     public String getBerthType() { return berthType; }
     public void setBerthType(String berthType) { this.berthType = berthType; }
     
@@ -0,0 +1,21 @@
+package com.railway.model;
+
+import java.util.List;
+
+// One page of a keyset-paginated ticket listing
+public class TicketPage {
+    private final List<Ticket> tickets;
+    private final String nextPageToken;
+
+    public TicketPage(List<Ticket> tickets, String nextPageToken) {
+        this.tickets = tickets;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<Ticket> getTickets() { return tickets; }
+
+    // Opaque token for the following page, null on the last page
+    public String getNextPageToken() { return nextPageToken; }
+
+    public boolean hasNext() { return nextPageToken != null; }
+}
@@ -27,6 +27,11 @@ public class Train {
         this.fare = fare;
     }
     
+    public Train(Train other) {
+        this(other.trainId, other.trainName, other.source, other.destination, other.departureTime,
+             other.arrivalTime, other.totalSeats, other.availableSeats, other.fare);
+    }
+    
     // Getters and Setters
     public int getTrainId() { return trainId; }
     public void setTrainId(int trainId) { this.trainId = trainId; }
@@ -0,0 +1,71 @@
+package com.railway.model;
+
+/**
+ * One call of a train at a station. Times are minutes from midnight of the day
+ * the train leaves its origin, so a call on the next day is 1440 or more; -1
+ * means there is none (no arrival at the origin, no departure at the terminus).
+ * distanceKm is measured from the origin, -1 if unknown.
+ */
+public class TrainStop {
+    private final int trainId;
+    private final int sequence;
+    private final String stationName;
+    private final int arrivalMinute;
+    private final int departureMinute;
+    private final int distanceKm;
+
+    public TrainStop(int trainId, int sequence, String stationName, int arrivalMinute, int departureMinute,
+                     int distanceKm) {
+        this.trainId = trainId;
+        this.sequence = sequence;
+        this.stationName = stationName;
+        this.arrivalMinute = arrivalMinute;
+        this.departureMinute = departureMinute;
+        this.distanceKm = distanceKm;
+    }
+
+    public int getTrainId() { return trainId; }
+
+    public int getSequence() { return sequence; }
+
+    public String getStationName() { return stationName; }
+
+    public int getArrivalMinute() { return arrivalMinute; }
+
+    public int getDepartureMinute() { return departureMinute; }
+
+    public int getDistanceKm() { return distanceKm; }
+
+    public boolean isOrigin() { return arrivalMinute < 0; }
+
+    public boolean isTerminus() { return departureMinute < 0; }
+
+    // When the train is at the station: its departure, or its arrival at the terminus
+    public int getCallMinute() {
+        return departureMinute >= 0 ? departureMinute : arrivalMinute;
+    }
+
+    // Day of the journey the train reaches the station, 1 for the day it leaves the origin
+    public int getDay() {
+        return (arrivalMinute >= 0 ? arrivalMinute : departureMinute) / 1440 + 1;
+    }
+
+    // HH:mm, or "--" at the origin
+    public String getArrivalTime() { return clock(arrivalMinute); }
+
+    // HH:mm, or "--" at the terminus
+    public String getDepartureTime() { return clock(departureMinute); }
+
+    private static String clock(int minute) {
+        if (minute < 0) {
+            return "--";
+        }
+        int inDay = minute % 1440;
+        return String.format("%02d:%02d", inDay / 60, inDay % 60);
+    }
+
+    @Override
+    public String toString() {
+        return stationName + " " + getArrivalTime() + "/" + getDepartureTime() + " day " + getDay();
+    }
+}
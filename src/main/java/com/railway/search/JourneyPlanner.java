@@ -0,0 +1,284 @@
+package com.railway.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.railway.model.Itinerary;
+import com.railway.model.Train;
+
+/**
+ * Multi-hop journey search using a round-based Connection Scan Algorithm. Every
+ * train contributes one connection per day; the daily timetable is unrolled over a
+ * few days so overnight and next-day connections are found. Round k finds the
+ * earliest arrival using exactly k trains, which gives one Pareto candidate per
+ * transfer count. Repeating the scan from just after each found departure yields
+ * later alternatives, which are then filtered for dominance and ranked.
+ */
+public class JourneyPlanner {
+    private static final int MINUTES_PER_DAY = 1440;
+    // Departures are searched over one day; the extra days let journeys finish
+    private static final int HORIZON_DAYS = 3;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final int minTransferMinutes;
+    private final long maxSearchNanos;
+    private final SeatAvailability liveAvailableSeats;
+
+    private final Map<String, Integer> stationIds = new HashMap<>();
+    private final List<String> stationNames = new ArrayList<>();
+    private final Train[] trips;
+
+    // Connections sorted by departure time, one entry per train per unrolled day
+    private final int[] departure;
+    private final int[] arrival;
+    private final int[] fromStation;
+    private final int[] toStation;
+    private final int[] tripRun;
+
+    // Runs liveAvailableSeats reports sold out are skipped
+    public JourneyPlanner(List<Train> trains, int minTransferMinutes, long maxSearchMillis,
+                          SeatAvailability liveAvailableSeats) {
+        this.minTransferMinutes = minTransferMinutes;
+        this.maxSearchNanos = maxSearchMillis * 1_000_000L;
+        this.liveAvailableSeats = liveAvailableSeats;
+        this.trips = trains.toArray(new Train[0]);
+
+        int count = trips.length * HORIZON_DAYS;
+        int[] dep = new int[count];
+        int[] arr = new int[count];
+        int[] from = new int[count];
+        int[] to = new int[count];
+        int[] run = new int[count];
+        long[] order = new long[count];
+
+        int c = 0;
+        for (int t = 0; t < trips.length; t++) {
+            Train train = trips[t];
+            int source = stationId(train.getSource());
+            int destination = stationId(train.getDestination());
+            int departs = parseMinute(train.getDepartureTime());
+            int arrives = parseMinute(train.getArrivalTime());
+            if (arrives <= departs) {
+                arrives += MINUTES_PER_DAY; // overnight train
+            }
+            for (int day = 0; day < HORIZON_DAYS; day++) {
+                dep[c] = departs + day * MINUTES_PER_DAY;
+                arr[c] = arrives + day * MINUTES_PER_DAY;
+                from[c] = source;
+                to[c] = destination;
+                run[c] = day * trips.length + t;
+                order[c] = ((long) dep[c] << 32) | c;
+                c++;
+            }
+        }
+
+        Arrays.sort(order);
+        departure = new int[count];
+        arrival = new int[count];
+        fromStation = new int[count];
+        toStation = new int[count];
+        tripRun = new int[count];
+        for (int i = 0; i < count; i++) {
+            int src = (int) order[i];
+            departure[i] = dep[src];
+            arrival[i] = arr[src];
+            fromStation[i] = from[src];
+            toStation[i] = to[src];
+            tripRun[i] = run[src];
+        }
+    }
+
+    // departAfterMinute is on journeyDate; later legs may run on the following days
+    public List<Itinerary> plan(String from, String to, LocalDate journeyDate, int departAfterMinute,
+                                int maxTransfers, int maxResults) {
+        Integer origin = stationIds.get(RouteIndex.normalise(from));
+        Integer target = stationIds.get(RouteIndex.normalise(to));
+        if (origin == null || target == null || origin.equals(target) || maxResults <= 0) {
+            return new ArrayList<>();
+        }
+
+        Search search = new Search(maxTransfers + 1, System.nanoTime() + maxSearchNanos, journeyDate);
+        List<Itinerary> candidates = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        int t = Math.max(0, departAfterMinute);
+        int windowEnd = t + MINUTES_PER_DAY;
+        while (t < windowEnd && candidates.size() < maxResults * 2) {
+            if (!search.run(origin, target, t)) {
+                break; // latency budget exhausted, keep what we have
+            }
+            int nextDeparture = INFINITY;
+            for (int k = 1; k <= search.rounds; k++) {
+                if (search.arrivals[k][target] == INFINITY) {
+                    continue;
+                }
+                Itinerary itinerary = search.extract(k, target);
+                nextDeparture = Math.min(nextDeparture, itinerary.getDepartureMinute());
+                if (itinerary.getDepartureMinute() < windowEnd && seen.add(itinerary.toString())) {
+                    candidates.add(itinerary);
+                }
+            }
+            if (nextDeparture == INFINITY) {
+                break;
+            }
+            t = nextDeparture + 1;
+        }
+
+        List<Itinerary> ranked = new ArrayList<>();
+        for (Itinerary candidate : candidates) {
+            if (!isDominated(candidate, candidates)) {
+                ranked.add(candidate);
+            }
+        }
+        ranked.sort(Comparator.comparingInt(Itinerary::getArrivalMinute)
+                              .thenComparingInt(Itinerary::getTransfers)
+                              .thenComparingInt(Itinerary::getDurationMinutes));
+        return ranked.size() > maxResults ? new ArrayList<>(ranked.subList(0, maxResults)) : ranked;
+    }
+
+    public int getStationCount() { return stationNames.size(); }
+
+    public int getConnectionCount() { return departure.length; }
+
+    // Another itinerary leaving no earlier, arriving no later, with no more transfers
+    private static boolean isDominated(Itinerary candidate, List<Itinerary> all) {
+        for (Itinerary other : all) {
+            if (other != candidate
+                && other.getDepartureMinute() >= candidate.getDepartureMinute()
+                && other.getArrivalMinute() <= candidate.getArrivalMinute()
+                && other.getTransfers() <= candidate.getTransfers()
+                && (other.getDepartureMinute() > candidate.getDepartureMinute()
+                    || other.getArrivalMinute() < candidate.getArrivalMinute()
+                    || other.getTransfers() < candidate.getTransfers())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int stationId(String name) {
+        return stationIds.computeIfAbsent(RouteIndex.normalise(name), key -> {
+            stationNames.add(name.trim());
+            return stationNames.size() - 1;
+        });
+    }
+
+    // "HH:mm" or "HH:mm:ss" to minutes after midnight
+    static int parseMinute(String time) {
+        return Integer.parseInt(time.substring(0, 2)) * 60 + Integer.parseInt(time.substring(3, 5));
+    }
+
+    private int firstConnectionAtOrAfter(int minute) {
+        int lo = 0;
+        int hi = departure.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (departure[mid] < minute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Scratch state for one plan() call, reused across its repeated scans
+    private final class Search {
+        private final int rounds;
+        private final long deadline;
+        private final int[][] arrivals;
+        private final int[][] exitConnection;
+        private final int[][] boardConnection;
+        private final int[] boardedAt;
+        // Date of each unrolled day, for per-run seat lookups
+        private final LocalDate[] runDates = new LocalDate[HORIZON_DAYS];
+
+        Search(int rounds, long deadline, LocalDate journeyDate) {
+            this.rounds = rounds;
+            this.deadline = deadline;
+            for (int day = 0; day < HORIZON_DAYS; day++) {
+                runDates[day] = journeyDate.plusDays(day);
+            }
+            int stations = stationNames.size();
+            this.arrivals = new int[rounds + 1][stations];
+            this.exitConnection = new int[rounds + 1][stations];
+            this.boardConnection = new int[rounds + 1][stations];
+            this.boardedAt = new int[trips.length * HORIZON_DAYS];
+        }
+
+        // Returns false if the deadline passed before the scan finished
+        boolean run(int origin, int target, int startMinute) {
+            for (int[] row : arrivals) {
+                Arrays.fill(row, INFINITY);
+            }
+            arrivals[0][origin] = startMinute;
+
+            int first = firstConnectionAtOrAfter(startMinute);
+            int bestAtTarget = INFINITY;
+            for (int k = 1; k <= rounds; k++) {
+                Arrays.fill(boardedAt, -1);
+                int[] previous = arrivals[k - 1];
+                int[] current = arrivals[k];
+                int transfer = k > 1 ? minTransferMinutes : 0;
+
+                for (int c = first; c < departure.length; c++) {
+                    if ((c & 1023) == 0 && System.nanoTime() > deadline) {
+                        return false;
+                    }
+                    int departs = departure[c];
+                    if (departs >= bestAtTarget || departs >= current[target]) {
+                        break;
+                    }
+                    int run = tripRun[c];
+                    int board = boardedAt[run];
+                    if (board < 0) {
+                        int ready = previous[fromStation[c]];
+                        if (ready == INFINITY || ready + transfer > departs
+                            || liveAvailableSeats.freeSeats(trips[run % trips.length].getTrainId(),
+                                                            runDates[run / trips.length]) == 0) {
+                            continue;
+                        }
+                        board = c;
+                        boardedAt[run] = c;
+                    }
+                    int stop = toStation[c];
+                    if (arrival[c] < current[stop]) {
+                        current[stop] = arrival[c];
+                        exitConnection[k][stop] = c;
+                        boardConnection[k][stop] = board;
+                    }
+                }
+
+                // Only keep round k at the target if it beats every journey with fewer trains
+                if (current[target] < bestAtTarget) {
+                    bestAtTarget = current[target];
+                } else {
+                    current[target] = INFINITY;
+                }
+            }
+            return true;
+        }
+
+        Itinerary extract(int legs, int target) {
+            Itinerary.Leg[] path = new Itinerary.Leg[legs];
+            int station = target;
+            for (int k = legs; k >= 1; k--) {
+                int exit = exitConnection[k][station];
+                int board = boardConnection[k][station];
+                Train train = trips[tripRun[exit] % trips.length];
+                path[k - 1] = new Itinerary.Leg(train, stationNames.get(fromStation[board]),
+                                                stationNames.get(toStation[exit]),
+                                                departure[board], arrival[exit]);
+                station = fromStation[board];
+            }
+            return new Itinerary(Arrays.asList(path));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.railway.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.railway.model.Train;
+
+/**
+ * In-process index of trains by (source, destination). Station names are matched
+ * case-insensitively, the same as the default MySQL collation the old query relied
+ * on. Each route holds an immutable array of train snapshots that is replaced
+ * copy-on-write when a train is added, changed or removed.
+ */
+public class RouteIndex {
+    private static final Train[] NO_TRAINS = new Train[0];
+    private static final Comparator<Train> BY_TRAIN_ID = Comparator.comparingInt(Train::getTrainId);
+
+    private final SeatAvailability liveAvailableSeats;
+    private final Map<String, Train[]> routes = new ConcurrentHashMap<>();
+    private final Map<Integer, String> routeByTrain = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    public RouteIndex(SeatAvailability liveAvailableSeats) {
+        this.liveAvailableSeats = liveAvailableSeats;
+    }
+
+    // Replaces the index contents without an empty window for concurrent searches
+    public synchronized void build(List<Train> trains) {
+        Set<Integer> stale = new HashSet<>(routeByTrain.keySet());
+        for (Train train : trains) {
+            upsert(train);
+            stale.remove(train.getTrainId());
+        }
+        for (int trainId : stale) {
+            remove(trainId);
+        }
+        built = true;
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    // Adds a train or moves it to its (possibly changed) route
+    public void upsert(Train train) {
+        Train snapshot = new Train(train);
+        String key = routeKey(train.getSource(), train.getDestination()).intern();
+        String previousKey = routeByTrain.put(train.getTrainId(), key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            removeFromRoute(previousKey, train.getTrainId());
+        }
+        routes.compute(key, (k, current) -> {
+            List<Train> updated = new ArrayList<>();
+            if (current != null) {
+                for (Train existing : current) {
+                    if (existing.getTrainId() != snapshot.getTrainId()) {
+                        updated.add(existing);
+                    }
+                }
+            }
+            updated.add(snapshot);
+            updated.sort(BY_TRAIN_ID);
+            return updated.toArray(NO_TRAINS);
+        });
+    }
+
+    public void remove(int trainId) {
+        String key = routeByTrain.remove(trainId);
+        if (key != null) {
+            removeFromRoute(key, trainId);
+        }
+    }
+
+    /**
+     * Trains on the route with at least one seat free on the date, each carrying
+     * that run's seat count. Counts come from the live source; a run it does not
+     * know falls back to the snapshot, whose count is for today's run, and on
+     * any other date to the train's full capacity.
+     */
+    public List<Train> search(String source, String destination, LocalDate journeyDate) {
+        Train[] candidates = routes.getOrDefault(routeKey(source, destination), NO_TRAINS);
+        boolean today = journeyDate.equals(LocalDate.now());
+        List<Train> result = new ArrayList<>(candidates.length);
+        for (Train candidate : candidates) {
+            int seats = liveAvailableSeats.freeSeats(candidate.getTrainId(), journeyDate);
+            if (seats < 0) {
+                seats = today ? candidate.getAvailableSeats() : candidate.getTotalSeats();
+            }
+            if (seats > 0) {
+                Train train = new Train(candidate);
+                train.setAvailableSeats(seats);
+                result.add(train);
+            }
+        }
+        return result;
+    }
+
+    public int routeCount() {
+        return routes.size();
+    }
+
+    private void removeFromRoute(String key, int trainId) {
+        routes.computeIfPresent(key, (k, current) -> {
+            Train[] updated = Arrays.stream(current)
+                                    .filter(t -> t.getTrainId() != trainId)
+                                    .toArray(Train[]::new);
+            return updated.length == 0 ? null : updated;
+        });
+    }
+
+    static String normalise(String station) {
+        return station == null ? "" : station.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String routeKey(String source, String destination) {
+        return normalise(source) + '\u0000' + normalise(destination);
+    }
+}
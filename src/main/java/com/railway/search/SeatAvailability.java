@@ -0,0 +1,10 @@
+package com.railway.search;
+
+import java.time.LocalDate;
+
+// Live seat counts for searches; implementations must not block on the database
+@FunctionalInterface
+public interface SeatAvailability {
+    // Free seats on the train's run on that date, or -1 if unknown
+    int freeSeats(int trainId, LocalDate journeyDate);
+}
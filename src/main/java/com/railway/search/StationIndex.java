@@ -0,0 +1,267 @@
+package com.railway.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.railway.model.Station;
+
+/**
+ * Resolves what a passenger types to a station. Every station is indexed under
+ * its code, name, official name and aliases, normalised (lower case, punctuation
+ * dropped, spaces collapsed), in one character trie. Exact and prefix lookups
+ * walk the trie directly; typo-tolerant lookups run a Levenshtein distance row
+ * down the trie and prune every branch whose row minimum exceeds the allowance
+ * (none up to 3 characters, 1 up to 7, 2 beyond), so only a few nodes are
+ * visited however many stations are loaded. The index is immutable; a reload
+ * builds a new one.
+ */
+public final class StationIndex {
+    public static final StationIndex EMPTY = new StationIndex(Collections.emptyList());
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_STATIONS = new int[0];
+
+    private final Station[] stations;
+    private final Node root = new Node();
+
+    public StationIndex(List<Station> stations) {
+        this.stations = stations.toArray(new Station[0]);
+        for (int id = 0; id < this.stations.length; id++) {
+            Station station = this.stations[id];
+            insert(station.getCode(), id);
+            insert(station.getName(), id);
+            insert(station.getOfficialName(), id);
+            for (String alias : station.getAliases()) {
+                insert(alias, id);
+            }
+        }
+    }
+
+    /**
+     * The station the input names, or null if it names none or is ambiguous.
+     * Tried in order: an exact code, name or alias; the one station whose name
+     * is closest within the typo allowance; the one station with a name that
+     * starts with the input.
+     */
+    public Station resolve(String input) {
+        String key = normalise(input);
+        if (key.isEmpty()) {
+            return null;
+        }
+        Node node = find(key);
+        if (node != null && node.stations.length > 0) {
+            return node.stations.length == 1 ? stations[node.stations[0]] : null;
+        }
+
+        int[] distance = fuzzy(key, false);
+        int best = Integer.MAX_VALUE;
+        int match = -1;
+        for (int id = 0; id < distance.length; id++) {
+            if (distance[id] < best) {
+                best = distance[id];
+                match = id;
+            } else if (distance[id] == best && best != Integer.MAX_VALUE) {
+                match = -1;
+            }
+        }
+        if (match >= 0) {
+            return stations[match];
+        }
+
+        List<Station> prefixed = new ArrayList<>(2);
+        if (node != null) {
+            collect(node, new boolean[stations.length], prefixed, 2);
+        }
+        return prefixed.size() == 1 ? prefixed.get(0) : null;
+    }
+
+    // Up to limit stations for a partly typed input: prefix matches first (shortest names first), then near misses
+    public List<Station> suggest(String input, int limit) {
+        String key = normalise(input);
+        List<Station> result = new ArrayList<>(limit);
+        if (key.isEmpty() || limit <= 0) {
+            return result;
+        }
+        boolean[] seen = new boolean[stations.length];
+        Node node = find(key);
+        if (node != null) {
+            collect(node, seen, result, limit);
+        }
+        if (result.size() < limit && allowance(key.length()) > 0) {
+            int[] distance = fuzzy(key, true);
+            List<Integer> near = new ArrayList<>();
+            for (int id = 0; id < distance.length; id++) {
+                if (distance[id] != Integer.MAX_VALUE && !seen[id]) {
+                    near.add(id);
+                }
+            }
+            near.sort(Comparator.<Integer>comparingInt(id -> distance[id])
+                                .thenComparing(id -> stations[id].getName()));
+            for (int i = 0; i < near.size() && result.size() < limit; i++) {
+                result.add(stations[near.get(i)]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return stations.length;
+    }
+
+    // Lower case letters and digits, single spaces between words
+    public static String normalise(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && key.length() > 0) {
+                    key.append(' ');
+                }
+                key.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return key.toString();
+    }
+
+    private void insert(String term, int stationId) {
+        String key = normalise(term);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrAdd(key.charAt(i));
+        }
+        node.addStation(stationId);
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    // Stations under node, breadth first so shorter terms come first
+    private void collect(Node node, boolean[] seen, List<Station> out, int limit) {
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(node);
+        while (!queue.isEmpty() && out.size() < limit) {
+            Node next = queue.poll();
+            for (int id : next.stations) {
+                if (!seen[id] && out.size() < limit) {
+                    seen[id] = true;
+                    out.add(stations[id]);
+                }
+            }
+            Collections.addAll(queue, next.children);
+        }
+    }
+
+    /**
+     * Edit distance from the key to each station's closest term, MAX_VALUE where
+     * it is over the allowance. With prefix set a term only has to start with
+     * something within the allowance of the key.
+     */
+    private int[] fuzzy(String key, boolean prefix) {
+        int[] distance = new int[stations.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        int maxEdits = allowance(key.length());
+        if (maxEdits == 0) {
+            return distance;
+        }
+        int[] row = new int[key.length() + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+        descend(root, key, row, Integer.MAX_VALUE, maxEdits, prefix, distance);
+        return distance;
+    }
+
+    private void descend(Node node, String key, int[] previous, int bestPrefix, int maxEdits, boolean prefix,
+                         int[] distance) {
+        int n = key.length();
+        for (int c = 0; c < node.keys.length; c++) {
+            char ch = node.keys[c];
+            int[] row = new int[n + 1];
+            row[0] = previous[0] + 1;
+            int rowMin = row[0];
+            for (int i = 1; i <= n; i++) {
+                int substitute = previous[i - 1] + (key.charAt(i - 1) == ch ? 0 : 1);
+                row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), substitute);
+                rowMin = Math.min(rowMin, row[i]);
+            }
+            int prefixDistance = Math.min(bestPrefix, row[n]);
+
+            Node child = node.children[c];
+            int termDistance = prefix ? prefixDistance : row[n];
+            if (termDistance <= maxEdits) {
+                for (int id : child.stations) {
+                    distance[id] = Math.min(distance[id], termDistance);
+                }
+            }
+            if (rowMin <= maxEdits || (prefix && prefixDistance <= maxEdits)) {
+                descend(child, key, row, prefixDistance, maxEdits, prefix, distance);
+            }
+        }
+    }
+
+    private static int allowance(int length) {
+        return length <= 3 ? 0 : length <= 7 ? 1 : 2;
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int[] stations = NO_STATIONS;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        // Build time only; keys stay sorted for the binary search
+        Node childOrAdd(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node added = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = added;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return added;
+        }
+
+        void addStation(int id) {
+            for (int existing : stations) {
+                if (existing == id) {
+                    return;
+                }
+            }
+            stations = Arrays.copyOf(stations, stations.length + 1);
+            stations[stations.length - 1] = id;
+        }
+    }
+}
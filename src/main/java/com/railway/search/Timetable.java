@@ -0,0 +1,206 @@
+package com.railway.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntBiFunction;
+
+import com.railway.model.Train;
+import com.railway.model.TrainStop;
+
+/**
+ * Every train's calling pattern in flat primitive arrays. Stops are stored train
+ * by train, trains in id order, and firstStop[t] .. firstStop[t + 1] are train
+ * t's stops; a schedule is a binary search on the train id and one slice. Each
+ * station also keeps its calls sorted by time of day in callMinute, so "trains
+ * at X between two times" is a binary search and a scan of only the calls in
+ * the window. Nothing is read from the database after the build.
+ *
+ * Trains with no train_stops rows are entered as running non-stop between
+ * their endpoints, so every train has a schedule. The timetable is immutable;
+ * a reload builds a new one.
+ */
+public final class Timetable {
+    public static final Timetable EMPTY = new Timetable(Collections.emptyList(), Collections.emptyList(),
+                                                        (from, to) -> -1);
+
+    private static final int MINUTES_PER_DAY = 1440;
+
+    private final Map<String, Integer> stationIds = new HashMap<>();
+    private final List<String> stationNames = new ArrayList<>();
+
+    // Per train, in id order
+    private final int[] trainIds;
+    private final int[] firstStop;
+
+    // Per stop
+    private final int[] stopTrain;
+    private final int[] stopStation;
+    private final int[] arrival;
+    private final int[] departure;
+    private final int[] distanceKm;
+
+    // Per station: its calls as stop indexes, ordered by time of day
+    private final int[] firstCall;
+    private final int[] callStop;
+    private final int[] callMinute;
+
+    // distanceKm gives the track distance for trains entered from their endpoints, -1 if unknown
+    public Timetable(List<TrainStop> stops, List<Train> trains, ToIntBiFunction<String, String> distanceKm) {
+        TreeMap<Integer, List<TrainStop>> byTrain = new TreeMap<>();
+        for (TrainStop stop : stops) {
+            byTrain.computeIfAbsent(stop.getTrainId(), id -> new ArrayList<>()).add(stop);
+        }
+        for (Train train : trains) {
+            byTrain.computeIfAbsent(train.getTrainId(), id -> endpoints(train, distanceKm));
+        }
+
+        int trainCount = byTrain.size();
+        int stopCount = 0;
+        for (List<TrainStop> trainStops : byTrain.values()) {
+            stopCount += trainStops.size();
+        }
+        this.trainIds = new int[trainCount];
+        this.firstStop = new int[trainCount + 1];
+        this.stopTrain = new int[stopCount];
+        this.stopStation = new int[stopCount];
+        this.arrival = new int[stopCount];
+        this.departure = new int[stopCount];
+        this.distanceKm = new int[stopCount];
+
+        int t = 0;
+        int s = 0;
+        for (Map.Entry<Integer, List<TrainStop>> entry : byTrain.entrySet()) {
+            trainIds[t] = entry.getKey();
+            firstStop[t] = s;
+            List<TrainStop> trainStops = entry.getValue();
+            trainStops.sort((a, b) -> Integer.compare(a.getSequence(), b.getSequence()));
+            for (TrainStop stop : trainStops) {
+                stopTrain[s] = t;
+                stopStation[s] = stationId(stop.getStationName());
+                arrival[s] = stop.getArrivalMinute();
+                departure[s] = stop.getDepartureMinute();
+                this.distanceKm[s] = stop.getDistanceKm();
+                s++;
+            }
+            t++;
+        }
+        firstStop[trainCount] = stopCount;
+
+        // Counting sort of the stops by station, then each station's calls by time of day
+        int stationCount = stationNames.size();
+        this.firstCall = new int[stationCount + 1];
+        for (int stop = 0; stop < stopCount; stop++) {
+            firstCall[stopStation[stop] + 1]++;
+        }
+        for (int station = 0; station < stationCount; station++) {
+            firstCall[station + 1] += firstCall[station];
+        }
+        int[] next = Arrays.copyOf(firstCall, stationCount);
+        long[] order = new long[stopCount];
+        for (int stop = 0; stop < stopCount; stop++) {
+            order[next[stopStation[stop]]++] = ((long) callMinuteOf(stop) << 32) | stop;
+        }
+        this.callStop = new int[stopCount];
+        this.callMinute = new int[stopCount];
+        for (int station = 0; station < stationCount; station++) {
+            Arrays.sort(order, firstCall[station], firstCall[station + 1]);
+        }
+        for (int i = 0; i < stopCount; i++) {
+            callStop[i] = (int) order[i];
+            callMinute[i] = (int) (order[i] >>> 32);
+        }
+    }
+
+    // The train's stops in order; empty if the train is unknown
+    public List<TrainStop> schedule(int trainId) {
+        int t = Arrays.binarySearch(trainIds, trainId);
+        if (t < 0) {
+            return Collections.emptyList();
+        }
+        List<TrainStop> stops = new ArrayList<>(firstStop[t + 1] - firstStop[t]);
+        for (int stop = firstStop[t]; stop < firstStop[t + 1]; stop++) {
+            stops.add(toStop(stop));
+        }
+        return stops;
+    }
+
+    /**
+     * Calls at the station whose time of day (departure, or arrival at a
+     * terminus) is from fromMinute to toMinute inclusive, minutes after
+     * midnight, in time order. A window with fromMinute after toMinute runs
+     * past midnight.
+     */
+    public List<TrainStop> callsAt(String station, int fromMinute, int toMinute) {
+        Integer id = stationIds.get(RouteIndex.normalise(station));
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        List<TrainStop> calls = new ArrayList<>();
+        if (fromMinute <= toMinute) {
+            addCalls(id, fromMinute, toMinute, calls);
+        } else {
+            addCalls(id, fromMinute, MINUTES_PER_DAY - 1, calls);
+            addCalls(id, 0, toMinute, calls);
+        }
+        return calls;
+    }
+
+    public int trainCount() {
+        return trainIds.length;
+    }
+
+    public int stopCount() {
+        return stopTrain.length;
+    }
+
+    private void addCalls(int station, int fromMinute, int toMinute, List<TrainStop> calls) {
+        int lo = firstCall[station];
+        int hi = firstCall[station + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (callMinute[mid] < fromMinute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int i = lo; i < firstCall[station + 1] && callMinute[i] <= toMinute; i++) {
+            calls.add(toStop(callStop[i]));
+        }
+    }
+
+    private TrainStop toStop(int stop) {
+        int t = stopTrain[stop];
+        return new TrainStop(trainIds[t], stop - firstStop[t] + 1, stationNames.get(stopStation[stop]),
+                             arrival[stop], departure[stop], distanceKm[stop]);
+    }
+
+    private int callMinuteOf(int stop) {
+        return (departure[stop] >= 0 ? departure[stop] : arrival[stop]) % MINUTES_PER_DAY;
+    }
+
+    private int stationId(String name) {
+        return stationIds.computeIfAbsent(RouteIndex.normalise(name), key -> {
+            stationNames.add(name.trim());
+            return stationNames.size() - 1;
+        });
+    }
+
+    private static List<TrainStop> endpoints(Train train, ToIntBiFunction<String, String> distanceKm) {
+        int departs = JourneyPlanner.parseMinute(train.getDepartureTime());
+        int arrives = JourneyPlanner.parseMinute(train.getArrivalTime());
+        if (arrives <= departs) {
+            arrives += MINUTES_PER_DAY; // overnight train
+        }
+        List<TrainStop> stops = new ArrayList<>(2);
+        stops.add(new TrainStop(train.getTrainId(), 1, train.getSource(), -1, departs, 0));
+        stops.add(new TrainStop(train.getTrainId(), 2, train.getDestination(), arrives, -1,
+                                distanceKm.applyAsInt(train.getSource(), train.getDestination())));
+        return stops;
+    }
+}
@@ -0,0 +1,149 @@
+package com.railway.service;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.model.BookingResult;
+import com.railway.model.PassengerRequest;
+import com.railway.model.Ticket;
+import com.railway.model.Train;
+
+/**
+ * Concurrent front door for {@link ReservationService}. Each call returns a
+ * CompletableFuture and runs on its own virtual thread when the JVM has them
+ * (Java 21+); on older JVMs it falls back to a fixed pool of platform threads.
+ * The build still targets Java 11, so virtual threads are looked up reflectively.
+ *
+ * Calls that reach MySQL hold one of a fixed number of permits, sized to the
+ * connection pool, so thousands of in-flight bookings wait here cheaply instead
+ * of piling onto the pool's borrow timeout. Route searches are answered from
+ * memory and skip the permit. Past maxInFlight outstanding calls, new ones fail
+ * fast with RejectedExecutionException.
+ */
+public class ReservationExecutor implements AutoCloseable {
+    private static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+
+    private final ReservationService service;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore databasePermits;
+    private final Semaphore admission;
+
+    public ReservationExecutor(ReservationService service) {
+        this(service, DatabaseConfig.getPoolMaxSize(), DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public ReservationExecutor(ReservationService service, int maxDatabaseCalls, int maxInFlight) {
+        this.service = service;
+        this.databasePermits = new Semaphore(maxDatabaseCalls, true);
+        this.admission = new Semaphore(maxInFlight);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        // Spare platform threads beyond the permits keep in-memory searches from queueing behind bookings
+        this.executor = virtual != null ? virtual
+            : Executors.newFixedThreadPool(maxDatabaseCalls + Runtime.getRuntime().availableProcessors(),
+                                           platformThreadFactory());
+    }
+
+    public CompletableFuture<List<Train>> searchTrains(String source, String destination) {
+        return submit(() -> service.searchTrains(source, destination), false);
+    }
+
+    public CompletableFuture<BookingResult> bookTicket(int trainId, String passengerName, String passengerEmail,
+                                                       String passengerPhone, int passengerAge,
+                                                       String passengerGender, String ticketClass,
+                                                       LocalDate journeyDate) {
+        return submit(() -> service.bookTicket(trainId, passengerName, passengerEmail, passengerPhone,
+                                               passengerAge, passengerGender, ticketClass, journeyDate), true);
+    }
+
+    public CompletableFuture<BookingResult> bookGroup(int trainId, List<PassengerRequest> passengers,
+                                                      String ticketClass, LocalDate journeyDate) {
+        return submit(() -> service.bookGroup(trainId, passengers, ticketClass, journeyDate), true);
+    }
+
+    public CompletableFuture<Boolean> cancelTicket(int ticketId) {
+        return submit(() -> service.cancelTicket(ticketId), true);
+    }
+
+    // Completes with null if the ticket does not exist
+    public CompletableFuture<Ticket> getTicket(int ticketId) {
+        return submit(() -> service.getTicket(ticketId), true);
+    }
+
+    public boolean isUsingVirtualThreads() { return virtualThreads; }
+
+    public int getAvailableDatabasePermits() { return databasePermits.availablePermits(); }
+
+    // Waits up to timeoutMillis for accepted calls to finish
+    public void close(long timeoutMillis) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call, boolean usesDatabase) {
+        if (!admission.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many reservation requests in flight"));
+        }
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> usesDatabase ? withDatabasePermit(call) : call.get(),
+                                                   executor);
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> admission.release());
+    }
+
+    private <T> T withDatabasePermit(Supplier<T> call) {
+        try {
+            databasePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            return call.get();
+        } finally {
+            databasePermits.release();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() on Java 21+, otherwise null
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "railway-request-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
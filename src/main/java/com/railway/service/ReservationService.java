@@ -1,86 +1,445 @@
 package com.railway.service;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import com.railway.cache.PnrStatusCache;
+import com.railway.cache.TrainCache;
+import com.railway.dao.BookingTransaction;
+import com.railway.dao.CoachDAO;
+import com.railway.dao.FareDAO;
+import com.railway.dao.StationDAO;
+import com.railway.dao.TimetableDAO;
 import com.railway.dao.TicketDAO;
 import com.railway.dao.TrainDAO;
+import com.railway.fare.FareEngine;
+import com.railway.inventory.SeatInventory;
+import com.railway.inventory.Waitlist;
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
+import com.railway.model.BookingResult;
+import com.railway.model.CancellationResult;
+import com.railway.model.Coach;
+import com.railway.model.Fare;
+import com.railway.model.Itinerary;
+import com.railway.model.PassengerRequest;
+import com.railway.model.PnrStatus;
+import com.railway.model.Station;
 import com.railway.model.Ticket;
+import com.railway.model.TicketPage;
 import com.railway.model.Train;
+import com.railway.model.TrainStop;
+import com.railway.search.JourneyPlanner;
+import com.railway.search.RouteIndex;
+import com.railway.search.StationIndex;
+import com.railway.search.Timetable;
+import com.railway.util.BatchRenderReport;
+import com.railway.util.BatchTicketRenderer;
+import com.railway.util.IdGenerator;
 import com.railway.util.PDFTicketGenerator;
+import com.railway.util.TicketPdfCache;
 
 public class ReservationService {
+    private static final int TRAIN_CACHE_MAX_ENTRIES = 1024;
+    private static final long TRAIN_CACHE_TTL_MS = 10 * 60 * 1000L;
+    // Recently booked and recently checked PNRs; the TTL bounds staleness from other instances' cancellations
+    private static final int PNR_CACHE_MAX_ENTRIES = Integer.getInteger("railway.pnrCache.maxEntries", 100_000);
+    private static final long PNR_CACHE_TTL_MS = Long.getLong("railway.pnrCache.ttlSec", 60L) * 1000;
+    private static final int MIN_TRANSFER_MINUTES = 30;
+    private static final long JOURNEY_SEARCH_BUDGET_MS = 200;
+    private static final int PDF_RENDER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    // Rendered PDFs are cached on disk only when -Drailway.pdf.cacheDir is set
+    private static final String PDF_CACHE_DIR = System.getProperty("railway.pdf.cacheDir");
+    private static final long PDF_CACHE_MAX_BYTES = Long.getLong("railway.pdf.cacheMaxMb", 256L) * 1024 * 1024;
+    // Bookings open this many days ahead of the journey date
+    private static final int BOOKING_HORIZON_DAYS = Integer.getInteger("railway.booking.horizonDays", 120);
+    // Per train run and class: the first RAC_SLOTS waiting tickets are RAC, the queue stops at WAITLIST_MAX
+    private static final int RAC_SLOTS = Integer.getInteger("railway.waitlist.racSlots", 10);
+    private static final int WAITLIST_MAX = Integer.getInteger("railway.waitlist.max", 200);
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    // Fare tables are re-read from the database this often when set; 0 loads them once at warm-up
+    private static final long FARE_RELOAD_MIN = Long.getLong("railway.fares.reloadMin", 0L);
+    // Passengers this old are offered a lower berth first unless they ask for something else
+    private static final int SENIOR_CITIZEN_AGE = 60;
+    
+    private static final MethodMetrics SEARCH_TRAINS = MetricsRegistry.timer("ReservationService.searchTrains");
+    private static final MethodMetrics PLAN_JOURNEY = MetricsRegistry.timer("ReservationService.planJourney");
+    private static final MethodMetrics BOOK_TICKET = MetricsRegistry.timer("ReservationService.bookTicket");
+    private static final MethodMetrics BOOK_GROUP = MetricsRegistry.timer("ReservationService.bookGroup");
+    private static final MethodMetrics CANCEL_TICKET = MetricsRegistry.timer("ReservationService.cancelTicket");
+    private static final MethodMetrics GET_TICKET = MetricsRegistry.timer("ReservationService.getTicket");
+    private static final MethodMetrics GET_PNR_STATUS = MetricsRegistry.timer("ReservationService.getPnrStatus");
+    private static final MethodMetrics WRITE_TICKET_PDF = MetricsRegistry.timer("ReservationService.writeTicketPDF");
+    private static final MethodMetrics REPRINT_TICKETS = MetricsRegistry.timer("ReservationService.reprintTickets");
+    private static final MethodMetrics PRINT_TRAIN_MANIFEST = MetricsRegistry.timer("ReservationService.printTrainManifest");
+    private static final MethodMetrics UPDATE_PASSENGER_DETAILS = MetricsRegistry.timer("ReservationService.updatePassengerDetails");
+    
     private final TrainDAO trainDAO;
     private final TicketDAO ticketDAO;
+    private final SeatInventory seatInventory;
+    private final Waitlist waitlist;
+    private final BookingTransaction bookingTransaction;
+    private final TrainCache trainCache;
+    private final PnrStatusCache pnrStatusCache;
+    private final RouteIndex routeIndex;
+    private volatile JourneyPlanner journeyPlanner;
+    private final TicketPdfCache ticketPdfCache;
+    private final FareEngine fareEngine;
+    private final StationDAO stationDAO;
+    private volatile StationIndex stationIndex = StationIndex.EMPTY;
+    private final TimetableDAO timetableDAO;
+    private volatile Timetable timetable = Timetable.EMPTY;
     
     public ReservationService() {
         this.trainDAO = new TrainDAO();
         this.ticketDAO = new TicketDAO();
+        this.seatInventory = new SeatInventory(trainDAO, ticketDAO, new CoachDAO());
+        this.waitlist = new Waitlist(ticketDAO, RAC_SLOTS, WAITLIST_MAX);
+        this.bookingTransaction = new BookingTransaction(trainDAO, ticketDAO, seatInventory, waitlist);
+        this.trainCache = new TrainCache(trainDAO, seatInventory::availableSeats,
+                                         TRAIN_CACHE_MAX_ENTRIES, TRAIN_CACHE_TTL_MS);
+        this.pnrStatusCache = new PnrStatusCache(ticketDAO, PNR_CACHE_MAX_ENTRIES, PNR_CACHE_TTL_MS);
+        this.routeIndex = new RouteIndex(seatInventory::loadedAvailableSeats);
+        this.ticketPdfCache = createPdfCache();
+        this.fareEngine = new FareEngine(new FareDAO());
+        this.stationDAO = new StationDAO();
+        this.timetableDAO = new TimetableDAO();
+    }
+    
+    private static TicketPdfCache createPdfCache() {
+        if (PDF_CACHE_DIR == null || PDF_CACHE_DIR.isEmpty()) {
+            return null;
+        }
+        try {
+            return new TicketPdfCache(PDF_CACHE_DIR, PDF_CACHE_MAX_BYTES);
+        } catch (IOException e) {
+            EventLog.warn("ReservationService.createPdfCache", "PDF cache disabled: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Loads in-memory state up front so the first bookings don't pay for it
+    public void warmUp() {
+        seatInventory.warmUp();
+        waitlist.warmUp();
+        reloadStations();
+        fareEngine.reload();
+        buildRouteIndex();
+        fareEngine.startScheduledReload(FARE_RELOAD_MIN);
+    }
+    
+    // Re-reads the stations table into the station index; false (index unchanged) if it could not be read
+    public boolean reloadStations() {
+        List<Station> stations = stationDAO.getAllStations();
+        if (stations == null) {
+            return false;
+        }
+        stationIndex = new StationIndex(stations);
+        return true;
+    }
+    
+    // The station a passenger's input names (code, name, alias, a unique prefix or a near miss); null if unclear
+    public Station resolveStation(String input) {
+        return stationIndex.resolve(input);
+    }
+    
+    // Autocomplete: stations starting with the input first, then near misses
+    public List<Station> suggestStations(String input, int limit) {
+        return stationIndex.suggest(input, limit);
+    }
+    
+    // The station name trains and fares are keyed by; input that names no station is passed through as typed
+    private String stationName(String input) {
+        Station station = stationIndex.resolve(input);
+        return station != null ? station.getName() : input;
+    }
+    
+    // Re-reads station distances and fare slabs; bookings and quotes switch to the new tariff at once
+    public boolean reloadFares() {
+        return fareEngine.reload();
+    }
+    
+    // Re-reads the trains table into the route index, train cache and timetable
+    public void buildRouteIndex() {
+        List<Train> trains = trainDAO.getAllTrains();
+        routeIndex.build(trains);
+        journeyPlanner = newJourneyPlanner(trains);
+        fareEngine.indexTrains(trains);
+        rebuildTimetable(trains);
+        for (Train train : trains) {
+            trainCache.put(train);
+        }
+    }
+    
+    // Incremental refresh after a train row is inserted or edited
+    public void refreshTrain(int trainId) {
+        seatInventory.reloadTrain(trainId);
+        trainCache.invalidate(trainId);
+        Train train = trainDAO.getTrainById(trainId);
+        if (train != null) {
+            routeIndex.upsert(train);
+            trainCache.put(train);
+        } else {
+            routeIndex.remove(trainId);
+        }
+        List<Train> trains = trainDAO.getAllTrains();
+        journeyPlanner = newJourneyPlanner(trains);
+        fareEngine.indexTrains(trains);
+        rebuildTimetable(trains);
+    }
+    
+    // Re-reads train_stops; the current timetable stays if it cannot be read
+    private void rebuildTimetable(List<Train> trains) {
+        List<TrainStop> stops = timetableDAO.getAllStops();
+        if (stops != null) {
+            timetable = new Timetable(stops, trains, fareEngine::distanceKm);
+        }
+    }
+    
+    private JourneyPlanner newJourneyPlanner(List<Train> trains) {
+        return new JourneyPlanner(trains, MIN_TRANSFER_MINUTES, JOURNEY_SEARCH_BUDGET_MS,
+                                  seatInventory::loadedAvailableSeats);
+    }
+    
+    public TrainCache getTrainCache() {
+        return trainCache;
+    }
+    
+    public PnrStatusCache getPnrStatusCache() {
+        return pnrStatusCache;
     }
     
+    // Trains with a seat free today
     public List<Train> searchTrains(String source, String destination) {
-        return trainDAO.searchTrains(source, destination);
+        return searchTrains(source, destination, LocalDate.now());
+    }
+    
+    // Trains with a seat free on the date, each carrying that run's available seats
+    public List<Train> searchTrains(String source, String destination, LocalDate journeyDate) {
+        long start = System.nanoTime();
+        try {
+            if (!routeIndex.isBuilt()) {
+                buildRouteIndex();
+            }
+            return routeIndex.search(stationName(source), stationName(destination), journeyDate);
+        } catch (RuntimeException e) {
+            SEARCH_TRAINS.error();
+            throw e;
+        } finally {
+            SEARCH_TRAINS.record(start);
+        }
+    }
+    
+    // Connecting journeys (including direct trains) leaving after departAfter today, ranked by arrival time
+    public List<Itinerary> planJourney(String source, String destination, LocalTime departAfter,
+                                       int maxTransfers, int maxResults) {
+        return planJourney(source, destination, LocalDate.now(), departAfter, maxTransfers, maxResults);
+    }
+    
+    // As above, leaving after departAfter on journeyDate; sold out runs are not boarded
+    public List<Itinerary> planJourney(String source, String destination, LocalDate journeyDate,
+                                       LocalTime departAfter, int maxTransfers, int maxResults) {
+        long start = System.nanoTime();
+        try {
+            if (journeyPlanner == null) {
+                buildRouteIndex();
+            }
+            int departAfterMinute = departAfter.getHour() * 60 + departAfter.getMinute();
+            return journeyPlanner.plan(stationName(source), stationName(destination), journeyDate,
+                                       departAfterMinute, maxTransfers, maxResults);
+        } catch (RuntimeException e) {
+            PLAN_JOURNEY.error();
+            throw e;
+        } finally {
+            PLAN_JOURNEY.record(start);
+        }
     }
     
     // Enhanced booking method with new parameters
-    public int bookTicket(int trainId, String passengerName, String passengerEmail, String passengerPhone, 
-                         int passengerAge, String passengerGender, String ticketClass, java.time.LocalDate journeyDate) {
-        Train train = trainDAO.getTrainById(trainId);
-        if (train == null) {
-            System.out.println("Train not found!");
-            return -1;
+    public BookingResult bookTicket(int trainId, String passengerName, String passengerEmail, String passengerPhone, 
+                                    int passengerAge, String passengerGender, String ticketClass, LocalDate journeyDate) {
+        return bookTicket(trainId, passengerName, passengerEmail, passengerPhone, passengerAge, passengerGender,
+                          ticketClass, journeyDate, null);
+    }
+    
+    // berthPreference is a Coach berth type (LOWER, SIDE_LOWER, ...); when it is null senior citizens get LOWER.
+    // A preference that cannot be met falls back to the lowest free seat of the class.
+    // A null journeyDate means today.
+    public BookingResult bookTicket(int trainId, String passengerName, String passengerEmail, String passengerPhone, 
+                                    int passengerAge, String passengerGender, String ticketClass, LocalDate journeyDate,
+                                    String berthPreference) {
+        long start = System.nanoTime();
+        try {
+            LocalDate date = journeyDate != null ? journeyDate : LocalDate.now();
+            BookingResult invalid = checkJourneyDate(date);
+            if (invalid != null) {
+                logBooking("booking", trainId, invalid, start);
+                return invalid;
+            }
+            String preference = berthPreference != null ? berthPreference
+                : passengerAge >= SENIOR_CITIZEN_AGE ? Coach.LOWER : null;
+            BookingResult result = bookingTransaction.book(trainId, date, ticketClass, preference, (train, seatNumber) ->
+                createTicket(train, seatNumber, ticketClass, date,
+                             passengerName, passengerEmail, passengerPhone, passengerAge, passengerGender));
+        
+            logBooking("booking", trainId, result, start);
+            cacheStatuses(result);
+            if (result.getStatus() == BookingResult.Status.FAILED) {
+                BOOK_TICKET.error();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            BOOK_TICKET.error();
+            throw e;
+        } finally {
+            BOOK_TICKET.record(start);
         }
+    }
+    
+    // Books a whole party in one class and one transaction: all passengers get seats (adjacent where possible) or none do
+    public BookingResult bookGroup(int trainId, List<PassengerRequest> passengers, String ticketClass,
+                                   LocalDate journeyDate) {
+        long start = System.nanoTime();
+        try {
+            if (passengers.isEmpty()) {
+                return BookingResult.failed(BookingResult.Status.FAILED, "No passengers to book!");
+            }
+            LocalDate date = journeyDate != null ? journeyDate : LocalDate.now();
+            BookingResult invalid = checkJourneyDate(date);
+            if (invalid != null) {
+                logBooking("group_booking", trainId, invalid, start);
+                return invalid;
+            }
         
-        if (train.getAvailableSeats() <= 0) {
-            System.out.println("No seats available!");
-            return -1;
+            BookingResult result = bookingTransaction.bookGroup(trainId, date, ticketClass, passengers.size(), (train, seatNumbers) -> {
+                List<Ticket> tickets = new ArrayList<>(seatNumbers.length);
+                for (int i = 0; i < seatNumbers.length; i++) {
+                    PassengerRequest passenger = passengers.get(i);
+                    Ticket ticket = createTicket(train, seatNumbers[i], ticketClass, date,
+                                                 passenger.getPassengerName(), passenger.getPassengerEmail(),
+                                                 passenger.getPassengerPhone(), passenger.getPassengerAge(),
+                                                 passenger.getPassengerGender());
+                    // One payment covers the whole group
+                    if (i > 0) {
+                        ticket.setTransactionId(tickets.get(0).getTransactionId());
+                    }
+                    tickets.add(ticket);
+                }
+                return tickets;
+            });
+        
+            logBooking("group_booking", trainId, result, start);
+            cacheStatuses(result);
+            if (result.getStatus() == BookingResult.Status.FAILED) {
+                BOOK_GROUP.error();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            BOOK_GROUP.error();
+            throw e;
+        } finally {
+            BOOK_GROUP.record(start);
         }
-        
-        // Get next available seat number
-        int seatNumber = ticketDAO.getNextAvailableSeat(trainId);
-        
-        // Calculate fare based on class
-        double baseFare = calculateClassFare(train.getFare(), ticketClass);
-        
-        // Generate coach and seat details
-        String coachNumber = generateCoachNumber(ticketClass);
-        String seatNumberStr = coachNumber + "-" + seatNumber;
+    }
+    
+    // Null if the date is within the booking horizon (today through today + BOOKING_HORIZON_DAYS)
+    private static BookingResult checkJourneyDate(LocalDate journeyDate) {
+        LocalDate today = LocalDate.now();
+        if (journeyDate.isBefore(today) || journeyDate.isAfter(today.plusDays(BOOKING_HORIZON_DAYS))) {
+            return BookingResult.failed(BookingResult.Status.INVALID_JOURNEY_DATE,
+                "Journey date must be between " + today + " and " + today.plusDays(BOOKING_HORIZON_DAYS) + "!");
+        }
+        return null;
+    }
+    
+    public int getBookingHorizonDays() {
+        return BOOKING_HORIZON_DAYS;
+    }
+    
+    // Sold-out and not-found are ordinary outcomes; only FAILED is worth a warning
+    private static void logBooking(String event, int trainId, BookingResult result, long start) {
+        EventLog.Level level = result.getStatus() == BookingResult.Status.FAILED
+            ? EventLog.Level.WARN : EventLog.Level.INFO;
+        EventLog.log(level, event, result.getTicketId(), trainId, System.nanoTime() - start,
+                     result.getStatus().name(), result.isSuccess() ? null : result.getMessage());
+    }
+    
+    // A new booking is the PNR most likely to be checked next
+    private void cacheStatuses(BookingResult result) {
+        if (result.isSuccess() || result.isWaitlisted()) {
+            for (Ticket ticket : result.getTickets()) {
+                pnrStatusCache.put(PnrStatus.of(ticket));
+            }
+        }
+    }
+    
+    // seatNumber is train-wide; coach, berth number and berth type come from the train's coach layout.
+    // Seat 0 (a waitlisted booking) has no coach.
+    private Ticket createTicket(Train train, int seatNumber, String ticketClass,
+                                LocalDate journeyDate, String passengerName, String passengerEmail,
+                                String passengerPhone, int passengerAge, String passengerGender) {
+        double baseFare = baseFare(train, ticketClass);
+        Coach coach = seatInventory.coachOf(train.getTrainId(), seatNumber);
         
         // Create enhanced ticket
-        Ticket ticket = new Ticket(trainId, passengerName, passengerEmail, passengerPhone, 
-                                 passengerAge, passengerGender, seatNumberStr, coachNumber, 
-                                 ticketClass, baseFare, journeyDate);
+        Ticket ticket = new Ticket(train.getTrainId(), passengerName, passengerEmail, passengerPhone, 
+                                 passengerAge, passengerGender, coach != null ? coach.seatLabel(seatNumber) : null,
+                                 coach != null ? coach.getCoachCode() : null, ticketClass, baseFare, journeyDate);
         
         // Set additional details
         ticket.setIdProofType("AADHAR");
-        ticket.setBerthType(generateBerthType(seatNumber));
-        
-        // Book ticket in database
-        int ticketId = ticketDAO.bookTicket(ticket);
-        
-        if (ticketId > 0) {
-            // Update available seats
-            if (trainDAO.updateAvailableSeats(trainId, 1)) {
-                System.out.println("Ticket booked successfully!");
-                System.out.println("Ticket ID: " + ticketId);
-                System.out.println("PNR: " + ticket.getPnrNumber());
-                System.out.println("Seat: " + seatNumberStr);
-                System.out.println("Class: " + ticketClass);
-                System.out.println("Total Fare: Rs." + ticket.getTotalFare());
-                return ticketId;
-            } else {
-                System.out.println("Error updating seat availability!");
-                return -1;
-            }
-        } else {
-            System.out.println("Error booking ticket!");
-            return -1;
+        if (coach != null) {
+            ticket.setNumericSeatNumber(seatNumber);
+            ticket.setBerthNumber(coach.berthNumber(seatNumber));
+            ticket.setBerthType(coach.berthType(seatNumber));
         }
+        return ticket;
     }
     
     // Keep the old method for backward compatibility
     public int bookTicket(int trainId, String passengerName, String passengerEmail, String passengerPhone) {
         return bookTicket(trainId, passengerName, passengerEmail, passengerPhone, 
-                         25, "M", "GENERAL", java.time.LocalDate.now());
+                         25, "M", "GENERAL", LocalDate.now()).getTicketId();
+    }
+    
+    // From the distance tariff; a route missing from it is priced off the train's flat fare as before
+    private double baseFare(Train train, String ticketClass) {
+        double baseFare = fareEngine.baseFare(train, ticketClass);
+        return baseFare >= 0 ? baseFare : calculateClassFare(train.getFare(), ticketClass);
+    }
+    
+    // The fare a booking on this train would be charged
+    public Fare quoteFare(Train train, String ticketClass) {
+        return Fare.ofBase(baseFare(train, ticketClass));
+    }
+    
+    // What booking every leg of the journey in one class would be charged in total
+    public double quoteJourney(Itinerary itinerary, String ticketClass) {
+        double total = 0;
+        for (Itinerary.Leg leg : itinerary.getLegs()) {
+            total += quoteFare(leg.getTrain(), ticketClass).getTotalFare();
+        }
+        return Math.round(total * 100) / 100.0;
+    }
+    
+    // Fares of every class sold between two stations, cheapest first; empty if the route is not in the tariff
+    public Map<String, Fare> quoteFares(String source, String destination) {
+        return fareEngine.quoteAllClasses(stationName(source), stationName(destination));
+    }
+    
+    // Track distance between two stations, -1 if unknown
+    public int getDistanceKm(String source, String destination) {
+        return fareEngine.distanceKm(stationName(source), stationName(destination));
     }
     
     private double calculateClassFare(double baseFare, String ticketClass) {
@@ -93,252 +452,296 @@ public class ReservationService {
         }
     }
     
-    private String generateCoachNumber(String ticketClass) {
-        switch (ticketClass) {
-            case "SLEEPER": return "S" + (int)(Math.random() * 3 + 1); // S1, S2, S3
-            case "AC_3_TIER": return "B" + (int)(Math.random() * 2 + 1); // B1, B2
-            case "AC_2_TIER": return "A" + (int)(Math.random() * 2 + 1); // A1, A2
-            case "AC_1_TIER": return "H" + (int)(Math.random() * 1 + 1); // H1
-            default: return "GS"; // General Seating
+    // Cancels a booked or waitlisted ticket; a freed seat goes to the first waiting passenger
+    public boolean cancelTicket(int ticketId) {
+        long start = System.nanoTime();
+        try {
+            CancellationResult result = bookingTransaction.cancel(ticketId);
+            pnrStatusCache.invalidate(ticketId);
+            if (result.getPromotedTicketId() > 0) {
+                pnrStatusCache.invalidate(result.getPromotedTicketId());
+            }
+            if (result.getMovedToRacTicketId() > 0) {
+                pnrStatusCache.invalidate(result.getMovedToRacTicketId());
+            }
+            Ticket ticket = result.getTicket();
+            int trainId = ticket != null ? ticket.getTrainId() : -1;
+            if (result.getStatus() == CancellationResult.Status.FAILED) {
+                CANCEL_TICKET.error();
+                EventLog.log(EventLog.Level.WARN, "cancellation", ticketId, trainId, System.nanoTime() - start,
+                             result.getStatus().name(), result.getMessage());
+            } else {
+                EventLog.info("cancellation", ticketId, trainId, System.nanoTime() - start, result.getStatus().name());
+            }
+            if (result.getPromotedTicketId() > 0) {
+                EventLog.info("waitlist_promotion", result.getPromotedTicketId(), trainId, -1, "BOOKED");
+            }
+            return result.isSuccess();
+        } catch (RuntimeException e) {
+            CANCEL_TICKET.error();
+            throw e;
+        } finally {
+            CANCEL_TICKET.record(start);
         }
     }
     
-    private String generateBerthType(int seatNumber) {
-        int berth = seatNumber % 8;
-        switch (berth) {
-            case 1: case 4: return "LOWER";
-            case 2: case 5: return "MIDDLE";
-            case 3: case 6: return "UPPER";
-            case 7: return "SIDE_LOWER";
-            case 0: return "SIDE_UPPER";
-            default: return "LOWER";
+    public Ticket getTicket(int ticketId) {
+        long start = System.nanoTime();
+        try {
+            return ticketDAO.getTicketById(ticketId);
+        } catch (RuntimeException e) {
+            GET_TICKET.error();
+            throw e;
+        } finally {
+            GET_TICKET.record(start);
         }
     }
     
-    public boolean cancelTicket(int ticketId) {
-        Ticket ticket = ticketDAO.getTicketById(ticketId);
-        if (ticket == null) {
-            System.out.println("Ticket not found!");
-            return false;
+    // Status of a ticket by PNR, served from the PNR cache. A mistyped PNR fails its check digit and is
+    // rejected here without a lookup; legacy 10-digit PNRs have none. Null if no ticket has the PNR.
+    public PnrStatus getPnrStatus(String pnrNumber) {
+        long start = System.nanoTime();
+        try {
+            String pnr = pnrNumber != null ? pnrNumber.trim() : "";
+            if (!IdGenerator.isValidPnr(pnr) && !pnr.matches("\\d{10}")) {
+                return null;
+            }
+            return pnrStatusCache.getStatus(pnr);
+        } catch (RuntimeException e) {
+            GET_PNR_STATUS.error();
+            throw e;
+        } finally {
+            GET_PNR_STATUS.record(start);
         }
-        
-        if (!"BOOKED".equals(ticket.getStatus())) {
-            System.out.println("Ticket is already cancelled!");
-            return false;
+    }
+    
+    // 1-based place of a RAC or WAITING ticket in its run and class queue, -1 for any other ticket
+    public int getWaitlistPosition(Ticket ticket) {
+        return waitlistPosition(ticket.getTrainId(), ticket.getJourneyDate(), ticket.getTicketId(), ticket.getStatus());
+    }
+    
+    // "RAC 3" or "WL 12" for a waiting ticket, null otherwise; WL numbers count from the end of RAC
+    public String getWaitlistStatus(Ticket ticket) {
+        return waitlistLabel(getWaitlistPosition(ticket));
+    }
+    
+    // Read live from the waitlist, never from the PNR cache
+    public String getWaitlistStatus(PnrStatus status) {
+        return waitlistLabel(waitlistPosition(status.getTrainId(), status.getJourneyDate(), status.getTicketId(),
+                                              status.getStatus()));
+    }
+    
+    private int waitlistPosition(int trainId, LocalDate journeyDate, int ticketId, String status) {
+        // Only queues of runs still to depart are kept; don't load one for a history listing
+        boolean waiting = "RAC".equals(status) || "WAITING".equals(status);
+        if (!waiting || journeyDate.isBefore(LocalDate.now())) {
+            return -1;
         }
-        
-        // Cancel ticket
-        if (ticketDAO.cancelTicket(ticketId)) {
-            // Increase available seats
-            if (trainDAO.increaseAvailableSeats(ticket.getTrainId(), 1)) {
-                System.out.println("Ticket cancelled successfully!");
-                return true;
-            } else {
-                System.out.println("Ticket cancelled but error updating seat availability!");
-                return true;
-            }
-        } else {
-            System.out.println("Error cancelling ticket!");
-            return false;
+        try {
+            return waitlist.position(trainId, journeyDate, ticketId);
+        } catch (IllegalStateException e) {
+            return -1; // queue could not be read; shown without a position rather than failing the page
         }
     }
     
-    public void viewTicket(int ticketId) {
-        Ticket ticket = ticketDAO.getTicketById(ticketId);
-        if (ticket == null) {
-            System.out.println("Ticket not found!");
-            return;
+    private String waitlistLabel(int position) {
+        if (position < 0) {
+            return null;
         }
-        
-        Train train = trainDAO.getTrainById(ticket.getTrainId());
-        
-        System.out.println("\n=== TICKET DETAILS ===");
-        System.out.println("Ticket ID: " + ticket.getTicketId());
-        System.out.println("Train: " + (train != null ? train.getTrainName() : "Unknown"));
-        System.out.println("Route: " + (train != null ? train.getSource() + " -> " + train.getDestination() : "Unknown"));
-        System.out.println("Passenger: " + ticket.getPassengerName());
-        System.out.println("Email: " + ticket.getPassengerEmail());
-        System.out.println("Phone: " + ticket.getPassengerPhone());
-        System.out.println("Seat Number: " + ticket.getSeatNumber());
-        System.out.println("Fare: $" + ticket.getFare());
-        System.out.println("Booking Time: " + ticket.getBookingTime());
-        System.out.println("Status: " + ticket.getStatus());
-        if (train != null) {
-            System.out.println("Departure: " + train.getDepartureTime());
-            System.out.println("Arrival: " + train.getArrivalTime());
+        return position <= RAC_SLOTS ? "RAC " + position : "WL " + (position - RAC_SLOTS);
+    }
+    
+    // The train's stops in order, from the in-memory timetable; empty if the train is unknown
+    public List<TrainStop> getSchedule(int trainId) {
+        if (!routeIndex.isBuilt()) {
+            buildRouteIndex();
         }
-        System.out.println("=====================");
+        return timetable.schedule(trainId);
     }
     
-    public void printTicketToPDF(int ticketId) {
+    // Trains calling at the station between two times of day, in time order; the window may run past midnight
+    public List<TrainStop> getTrainsCalling(Station station, LocalTime from, LocalTime to) {
+        if (!routeIndex.isBuilt()) {
+            buildRouteIndex();
+        }
+        return timetable.callsAt(station.getName(), from.getHour() * 60 + from.getMinute(),
+                                 to.getHour() * 60 + to.getMinute());
+    }
+    
+    // Served from the train cache; null if the train does not exist
+    public Train getTrain(int trainId) {
+        return trainCache.getTrainInfo(trainId);
+    }
+    
+    // Free seats per class the train carries on that date, from the in-memory seat map; empty if the train does not
+    // exist or its seats cannot be read
+    public Map<String, Integer> getClassAvailability(int trainId, LocalDate journeyDate) {
+        try {
+            return seatInventory.availabilityByClass(trainId, journeyDate);
+        } catch (IllegalStateException e) {
+            return Collections.emptyMap();
+        }
+    }
+    
+    // Newest first; pageToken is null for the first page. pageSize is clamped to 1..MAX_HISTORY_PAGE_SIZE.
+    public TicketPage getPassengerTicketPage(String passengerEmail, String pageToken, int pageSize) {
+        return ticketDAO.getPassengerTicketPage(passengerEmail, pageToken,
+                                                Math.max(1, Math.min(MAX_HISTORY_PAGE_SIZE, pageSize)));
+    }
+    
+    // A passenger's whole history, newest first, read page by page as the stream is consumed
+    public Stream<Ticket> streamTicketsByPassenger(String passengerEmail) {
+        return ticketDAO.streamTicketsByPassenger(passengerEmail, MAX_HISTORY_PAGE_SIZE);
+    }
+    
+    // Writes tickets/Ticket_<id>_<name>.pdf and returns its path, or null if the ticket or its train is missing
+    public String saveTicketPDF(int ticketId) throws IOException {
         Ticket ticket = ticketDAO.getTicketById(ticketId);
         if (ticket == null) {
-            System.out.println("Ticket not found!");
-            return;
+            return null;
         }
         
-        Train train = trainDAO.getTrainById(ticket.getTrainId());
+        Train train = trainCache.getTrainInfo(ticket.getTrainId());
         if (train == null) {
-            System.out.println("Train information not found!");
-            return;
+            return null;
         }
         
         // Generate PDF filename
-        String fileName = "Ticket_" + ticket.getTicketId() + "_" + 
+        String fileName = "Ticket_" + ticket.getTicketId() + "_" +
                          ticket.getPassengerName().replaceAll("\\s+", "_") + ".pdf";
         String outputPath = "tickets/" + fileName;
         
         // Generate PDF ticket
-        if (PDFTicketGenerator.generateTicketPDF(ticket, train, outputPath)) {
-            System.out.println("\n[SUCCESS] PDF ticket generated successfully!");
-            System.out.println("[FILE] File saved as: " + outputPath);
-            System.out.println("[PATH] Full path: " + System.getProperty("user.dir") + "/" + outputPath);
-            System.out.println("[INFO] PDF ticket ready for printing");
-        } else {
-            System.out.println("[ERROR] Error generating PDF ticket!");
+        new File("tickets").mkdirs();
+        try (OutputStream out = new FileOutputStream(outputPath)) {
+            writeTicketPDF(ticket, train, out);
         }
+        return outputPath;
     }
     
-    public void printTicket(int ticketId) {
-        Ticket ticket = ticketDAO.getTicketById(ticketId);
-        if (ticket == null) {
-            System.out.println("Ticket not found!");
-            return;
+    /**
+     * Streams a ticket's PDF into the caller's stream (HTTP response, mail
+     * attachment) without writing under tickets/. Returns false if the ticket or
+     * its train does not exist; the stream is left open.
+     */
+    public boolean writeTicketPDF(int ticketId, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        try {
+            Ticket ticket = ticketDAO.getTicketById(ticketId);
+            if (ticket == null) {
+                return false;
+            }
+            Train train = trainCache.getTrainInfo(ticket.getTrainId());
+            if (train == null) {
+                return false;
+            }
+            writeTicketPDF(ticket, train, out);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            WRITE_TICKET_PDF.error();
+            throw e;
+        } finally {
+            WRITE_TICKET_PDF.record(start);
         }
-        
-        Train train = trainDAO.getTrainById(ticket.getTrainId());
-        if (train == null) {
-            System.out.println("Train information not found!");
-            return;
+    }
+    
+    // For callers that must check the ticket and train exist before committing to a response
+    public void writeTicketPDF(Ticket ticket, Train train, OutputStream out) throws IOException {
+        if (ticketPdfCache != null) {
+            ticketPdfCache.write(ticket, train, out);
+        } else {
+            PDFTicketGenerator.writeTicketPDF(ticket, train, out);
         }
-        
-        // Print formatted ticket
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("                    TAMIL NADU RAILWAY RESERVATION SYSTEM");
-        System.out.println("                         Electronic Reservation Slip (ERS)");
-        System.out.println("=".repeat(80));
-        
-        // Header section
-        System.out.printf("%-25s %-30s %-20s%n", "Booked From", "Boarding At", "To");
-        System.out.printf("%-25s %-30s %-20s%n", 
-                         train.getSource().toUpperCase(), 
-                         train.getSource().toUpperCase(), 
-                         train.getDestination().toUpperCase());
-        
-        System.out.println("-".repeat(80));
-        
-        // Journey details
-        System.out.printf("%-20s %-25s %-15s %-15s%n", 
-                         "Start Date", "Departure", "Arrival", "Class");
-        System.out.printf("%-20s %-25s %-15s %-15s%n", 
-                         ticket.getBookingTime().toLocalDate().toString(),
-                         train.getDepartureTime(),
-                         train.getArrivalTime(),
-                         "GENERAL");
-        
-        System.out.println("-".repeat(80));
-        
-        // Train and booking details
-        System.out.printf("%-15s %-25s %-20s %-15s%n", 
-                         "PNR", "Train No./Name", "Distance", "Booking Date");
-        System.out.printf("%-15s %-25s %-20s %-15s%n", 
-                         "TN" + String.format("%010d", ticketId),
-                         train.getTrainId() + " / " + train.getTrainName(),
-                         "-- KM",
-                         ticket.getBookingTime().toLocalDate().toString());
-        
-        System.out.println("-".repeat(80));
-        
-        // Passenger details header
-        System.out.println("Passenger Details");
-        System.out.printf("%-5s %-25s %-10s %-15s %-20s%n", 
-                         "#", "Name", "Age", "Gender", "Booking Status");
-        System.out.printf("%-5s %-25s %-10s %-15s %-20s%n", 
-                         "1.", ticket.getPassengerName(), "N/A", "N/A", "CONFIRMED");
-        
-        System.out.println("-".repeat(80));
-        
-        // Seat and fare details
-        System.out.printf("%-20s: %-10s%n", "Seat Number", ticket.getSeatNumber());
-        System.out.printf("%-20s: %-10s%n", "Contact", ticket.getPassengerPhone());
-        System.out.printf("%-20s: %-10s%n", "Email", ticket.getPassengerEmail());
-        
-        System.out.println("-".repeat(80));
-        
-        // Payment details
-        System.out.println("Payment Details");
-        System.out.printf("%-30s: Rs. %.2f%n", "Ticket Fare", ticket.getFare());
-        System.out.printf("%-30s: Rs. %.2f%n", "Convenience Fee", 0.0);
-        System.out.printf("%-30s: Rs. %.2f%n", "Total Fare (all inclusive)", ticket.getFare());
-        
-        System.out.println("-".repeat(80));
-        
-        // Transaction details
-        System.out.printf("Transaction ID: TN%s%010d%n", 
-                         ticket.getBookingTime().toLocalDate().toString().replace("-", ""), 
-                         ticketId);
-        
-        System.out.println("-".repeat(80));
-        
-        // Important notes
-        System.out.println("IMPORTANT INSTRUCTIONS:");
-        System.out.println("• Please carry a valid photo ID proof during journey");
-        System.out.println("• Ticket is valid only for the specified train and date");
-        System.out.println("• Report to station at least 30 minutes before departure");
-        System.out.println("• This is a computer generated ticket and does not require signature");
-        
-        System.out.println("-".repeat(80));
-        
-        // Footer
-        System.out.println("                    TAMIL NADU RAILWAY - SAFE & COMFORTABLE JOURNEY");
-        System.out.println("                          Status: " + ticket.getStatus());
-        System.out.println("=".repeat(80));
-        
-        System.out.println("\n*** HAPPY JOURNEY ***");
     }
     
-    public boolean updatePassengerDetails(int ticketId, String passengerName, String passengerEmail, String passengerPhone) {
-        Ticket ticket = ticketDAO.getTicketById(ticketId);
-        if (ticket == null) {
-            System.out.println("Ticket not found!");
-            return false;
+    // Reprints many tickets at once, either one file each in outputDir or a single PDF at outputDir/tickets.pdf.
+    // Returns null if none of the tickets exist or rendering failed.
+    public BatchRenderReport reprintTickets(List<Integer> ticketIds, String outputDir, boolean singleDocument) {
+        long start = System.nanoTime();
+        try {
+            List<Ticket> tickets = ticketDAO.getTicketsByIds(ticketIds);
+            if (tickets.isEmpty()) {
+                return null;
+            }
+            return renderBatch("reprint", -1, tickets, outputDir,
+                               singleDocument ? outputDir + "/tickets.pdf" : null, start);
+        } catch (RuntimeException e) {
+            REPRINT_TICKETS.error();
+            throw e;
+        } finally {
+            REPRINT_TICKETS.record(start);
         }
-        
-        if (!"BOOKED".equals(ticket.getStatus())) {
-            System.out.println("Cannot update details for cancelled ticket!");
-            return false;
+    }
+    
+    // Every booked ticket on one train run as one PDF, in seat order; null if nothing is booked
+    public BatchRenderReport printTrainManifest(int trainId, LocalDate journeyDate, String outputFile) {
+        long start = System.nanoTime();
+        try {
+            List<Ticket> tickets = ticketDAO.getTicketsByTrain(trainId, journeyDate);
+            if (tickets.isEmpty()) {
+                return null;
+            }
+            return renderBatch("train_manifest", trainId, tickets, null, outputFile, start);
+        } catch (RuntimeException e) {
+            PRINT_TRAIN_MANIFEST.error();
+            throw e;
+        } finally {
+            PRINT_TRAIN_MANIFEST.record(start);
         }
-        
-        // Update passenger details
-        if (ticketDAO.updatePassengerDetails(ticketId, passengerName, passengerEmail, passengerPhone)) {
-            System.out.println("Passenger details updated successfully!");
-            System.out.println("Updated Details:");
-            System.out.println("Name: " + passengerName);
-            System.out.println("Email: " + passengerEmail);
-            System.out.println("Phone: " + passengerPhone);
-            return true;
-        } else {
-            System.out.println("Error updating passenger details!");
-            return false;
+    }
+    
+    private BatchRenderReport renderBatch(String event, int trainId, List<Ticket> tickets, String outputDir,
+                                          String outputFile, long start) {
+        try (BatchTicketRenderer renderer = new BatchTicketRenderer(PDF_RENDER_THREADS)) {
+            BatchRenderReport report;
+            if (outputFile != null) {
+                File parent = new File(outputFile).getAbsoluteFile().getParentFile();
+                parent.mkdirs();
+                report = renderer.renderToDocument(tickets, trainCache::getTrainInfo, outputFile);
+            } else {
+                report = renderer.renderToFiles(tickets, trainCache::getTrainInfo, outputDir);
+            }
+            EventLog.log(EventLog.Level.INFO, event, -1, trainId, System.nanoTime() - start, "RENDERED",
+                         (outputFile != null ? outputFile : outputDir) + " " + report);
+            return report;
+        } catch (IOException e) {
+            EventLog.log(EventLog.Level.ERROR, event, -1, trainId, System.nanoTime() - start, "FAILED",
+                         "Error generating PDF tickets: " + e.getMessage());
+            return null;
         }
     }
     
-    public void viewPassengerTickets(String passengerEmail) {
-        List<Ticket> tickets = ticketDAO.getTicketsByPassenger(passengerEmail);
+    public boolean updatePassengerDetails(int ticketId, String passengerName, String passengerEmail, String passengerPhone) {
+        long start = System.nanoTime();
+        try {
+            Ticket ticket = ticketDAO.getTicketById(ticketId);
+            if (ticket == null) {
+                EventLog.info("passenger_update", ticketId, -1, System.nanoTime() - start, "NOT_FOUND");
+                return false;
+            }
         
-        if (tickets.isEmpty()) {
-            System.out.println("No tickets found for this email!");
-            return;
-        }
+            if ("CANCELLED".equals(ticket.getStatus())) {
+                EventLog.info("passenger_update", ticketId, ticket.getTrainId(), System.nanoTime() - start,
+                              "CANCELLED");
+                return false;
+            }
         
-        System.out.println("\n=== YOUR TICKETS ===");
-        for (Ticket ticket : tickets) {
-            Train train = trainDAO.getTrainById(ticket.getTrainId());
-            System.out.println("Ticket ID: " + ticket.getTicketId() + 
-                             " | Train: " + (train != null ? train.getTrainName() : "Unknown") +
-                             " | Seat: " + ticket.getSeatNumber() + 
-                             " | Status: " + ticket.getStatus());
+            // Update passenger details
+            if (ticketDAO.updatePassengerDetails(ticketId, passengerName, passengerEmail, passengerPhone)) {
+                pnrStatusCache.invalidate(ticketId);
+                EventLog.info("passenger_update", ticketId, ticket.getTrainId(), System.nanoTime() - start,
+                              "UPDATED");
+                return true;
+            } else {
+                EventLog.log(EventLog.Level.WARN, "passenger_update", ticketId, ticket.getTrainId(),
+                             System.nanoTime() - start, "FAILED", "Error updating passenger details");
+                return false;
+            }
+        } catch (RuntimeException e) {
+            UPDATE_PASSENGER_DETAILS.error();
+            throw e;
+        } finally {
+            UPDATE_PASSENGER_DETAILS.record(start);
         }
-        System.out.println("===================");
     }
-}
\ No newline at end of file
+}
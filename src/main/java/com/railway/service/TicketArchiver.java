@@ -0,0 +1,104 @@
+package com.railway.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.railway.dao.TicketArchiveDAO;
+import com.railway.logging.EventLog;
+
+/**
+ * Keeps the tickets table to live journeys: tickets whose journey date is more
+ * than retentionDays in the past move to tickets_archive, then the train_runs
+ * counters of those dates are dropped. Work is done in batches of batchSize
+ * rows, each its own short transaction, with a pause between batches so a large
+ * backlog drains without holding locks or hogging the connection pool. Ticket
+ * lookups by id fall back to the archive (see TicketDAO), so archived tickets
+ * can still be viewed and printed; they can no longer be cancelled or edited.
+ */
+public class TicketArchiver {
+    private static final int RETENTION_DAYS = Integer.getInteger("railway.archive.retentionDays", 30);
+    private static final int BATCH_SIZE = Integer.getInteger("railway.archive.batchSize", 500);
+    private static final long PAUSE_MS = Long.getLong("railway.archive.pauseMs", 200L);
+
+    private static ScheduledExecutorService scheduler;
+
+    private final TicketArchiveDAO archiveDAO;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    public TicketArchiver() {
+        this(new TicketArchiveDAO(), RETENTION_DAYS, BATCH_SIZE, PAUSE_MS);
+    }
+
+    public TicketArchiver(TicketArchiveDAO archiveDAO, int retentionDays, int batchSize, long pauseMillis) {
+        this.archiveDAO = archiveDAO;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    // One full pass; returns the number of tickets archived. Stops early on a database error or interrupt.
+    public int runOnce() {
+        long start = System.nanoTime();
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        int archived = 0;
+        boolean complete = true;
+
+        int moved;
+        while ((moved = archiveDAO.archiveBatch(cutoff, batchSize)) > 0) {
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+            if (!pause()) {
+                complete = false;
+                break;
+            }
+        }
+        if (moved < 0) {
+            complete = false;
+        }
+
+        // A run's counter goes only once none of its tickets are left in tickets
+        if (complete) {
+            int purged;
+            while ((purged = archiveDAO.purgeRuns(cutoff, batchSize)) == batchSize && pause()) {
+                // keep draining
+            }
+            complete = purged >= 0;
+        }
+
+        EventLog.log(complete ? EventLog.Level.INFO : EventLog.Level.WARN, "ticket_archive", -1, -1,
+                     System.nanoTime() - start, complete ? "DONE" : "INCOMPLETE",
+                     archived + " tickets with journeys before " + cutoff + " archived");
+        return archived;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // No-op unless -Drailway.archive.intervalMin is set; safe to call more than once
+    public static synchronized void startScheduled() {
+        long interval = Long.getLong("railway.archive.intervalMin", 0L);
+        if (interval <= 0 || scheduler != null) {
+            return;
+        }
+        TicketArchiver archiver = new TicketArchiver();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "railway-ticket-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(archiver::runOnce, interval, interval, TimeUnit.MINUTES);
+    }
+}
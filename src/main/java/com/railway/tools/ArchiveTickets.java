@@ -0,0 +1,19 @@
+package com.railway.tools;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.service.TicketArchiver;
+
+/**
+ * Runs one archival pass against the configured database (see railway.db.url)
+ * and exits, for cron or a first backfill of a large tickets table. Uses the
+ * same railway.archive.* properties as the scheduled job.
+ */
+public class ArchiveTickets {
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        int archived = new TicketArchiver().runOnce();
+        System.out.printf("Archived %d tickets in %d ms%n", archived, (System.nanoTime() - start) / 1_000_000);
+        DatabaseConfig.shutdown();
+    }
+}
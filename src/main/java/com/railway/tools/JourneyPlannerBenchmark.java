@@ -0,0 +1,103 @@
+package com.railway.tools;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.railway.model.Itinerary;
+import com.railway.model.Train;
+import com.railway.search.JourneyPlanner;
+
+/**
+ * Times {@link JourneyPlanner} on a synthetic network. No database is needed.
+ *
+ * Usage: JourneyPlannerBenchmark [trains] [stations] [queries] [maxTransfers]
+ * (defaults: 10000 trains, 800 stations, 2000 queries, 2 transfers)
+ */
+public class JourneyPlannerBenchmark {
+
+    public static void main(String[] args) {
+        int trainCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int stationCount = args.length > 1 ? Integer.parseInt(args[1]) : 800;
+        int queryCount = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int maxTransfers = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        Random random = new Random(42);
+        List<Train> trains = syntheticNetwork(trainCount, stationCount, random);
+
+        long buildStart = System.nanoTime();
+        JourneyPlanner planner = new JourneyPlanner(trains, 15, 250, (trainId, journeyDate) -> -1);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        System.out.println("=== JOURNEY PLANNER BENCHMARK ===");
+        System.out.printf("Network: %d trains, %d stations, %d connections%n",
+                          trainCount, planner.getStationCount(), planner.getConnectionCount());
+        System.out.printf("Build time: %.1f ms%n", buildNanos / 1e6);
+
+        // Warm up the JIT before measuring
+        for (int i = 0; i < Math.min(500, queryCount); i++) {
+            runQuery(planner, random, stationCount, maxTransfers);
+        }
+
+        long[] latencies = new long[queryCount];
+        long totalItineraries = 0;
+        int answered = 0;
+        for (int i = 0; i < queryCount; i++) {
+            long start = System.nanoTime();
+            List<Itinerary> result = runQuery(planner, random, stationCount, maxTransfers);
+            latencies[i] = System.nanoTime() - start;
+            totalItineraries += result.size();
+            if (!result.isEmpty()) {
+                answered++;
+            }
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("Queries: %d (%d with results, %.2f itineraries avg)%n",
+                          queryCount, answered, (double) totalItineraries / queryCount);
+        System.out.printf("Latency p50: %.3f ms | p90: %.3f ms | p99: %.3f ms | max: %.3f ms%n",
+                          percentile(latencies, 0.50), percentile(latencies, 0.90),
+                          percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    // Random trains between numbered stations; duration grows with the "distance" between ids
+    public static List<Train> syntheticNetwork(int trainCount, int stationCount, Random random) {
+        List<Train> trains = new ArrayList<>(trainCount);
+        for (int i = 1; i <= trainCount; i++) {
+            int source = random.nextInt(stationCount);
+            int destination = (source + 1 + random.nextInt(Math.min(40, stationCount - 1))) % stationCount;
+            if (random.nextBoolean()) {
+                int swap = source;
+                source = destination;
+                destination = swap;
+            }
+            int departure = random.nextInt(1440);
+            int duration = 30 + Math.abs(destination - source) % 40 * 20 + random.nextInt(60);
+            int arrival = (departure + duration) % 1440;
+            trains.add(new Train(i, "Synthetic " + i, "Station" + source, "Station" + destination,
+                                 formatTime(departure), formatTime(arrival), 100, 100, 50 + duration / 4.0));
+        }
+        return trains;
+    }
+
+    private static List<Itinerary> runQuery(JourneyPlanner planner, Random random, int stationCount,
+                                            int maxTransfers) {
+        // Pairs a few hops apart, like real multi-leg trips
+        int source = random.nextInt(stationCount);
+        String from = "Station" + source;
+        String to = "Station" + (source + 1 + random.nextInt(Math.min(100, stationCount - 1))) % stationCount;
+        return planner.plan(from, to, LocalDate.now(), random.nextInt(1440), maxTransfers, 5);
+    }
+
+    private static String formatTime(int minute) {
+        return String.format("%02d:%02d:00", minute / 60, minute % 60);
+    }
+
+    // Value at quantile p of sorted nanosecond samples, in milliseconds
+    static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,208 @@
+package com.railway.tools;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.railway.config.DatabaseConfig;
+import com.railway.dao.TrainDAO;
+import com.railway.model.BookingResult;
+import com.railway.model.Train;
+import com.railway.service.ReservationService;
+
+/**
+ * Headless booking storm against the configured database (see railway.db.url):
+ * a mix of bookTicket / cancelTicket / searchTrains calls issued at a fixed
+ * arrival rate, with a share of traffic aimed at a few hot trains the way
+ * Tatkal opening looks. Requests are scheduled open-loop and latency is measured
+ * from each request's scheduled start, so queueing behind a slow database is
+ * counted instead of hidden. Afterwards every train is checked for
+ * BOOKED tickets == total_seats - available_seats.
+ *
+ * This books and cancels real tickets; point it at a scratch database.
+ *
+ * Usage: LoadGenerator [key=value ...]
+ *   requests=20000   total operations
+ *   rate=1000        arrivals per second (0 = as fast as the workers go)
+ *   threads=64       concurrent workers
+ *   book=60 cancel=20  percentage mix, the rest are searches
+ *   hotTrains=2 hotShare=0.8  share of traffic aimed at the first hotTrains trains
+ */
+public class LoadGenerator {
+
+    private enum Operation { BOOK, CANCEL, SEARCH }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        int requests = Integer.parseInt(options.getOrDefault("requests", "20000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "1000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "64"));
+        int bookPercent = Integer.parseInt(options.getOrDefault("book", "60"));
+        int cancelPercent = Integer.parseInt(options.getOrDefault("cancel", "20"));
+        int hotTrains = Integer.parseInt(options.getOrDefault("hotTrains", "2"));
+        double hotShare = Double.parseDouble(options.getOrDefault("hotShare", "0.8"));
+
+        ReservationService service = new ReservationService();
+        service.warmUp();
+        TrainDAO trainDAO = new TrainDAO();
+        Train[] trains = trainDAO.getAllTrains().toArray(new Train[0]);
+        if (trains.length == 0) {
+            System.out.println("No trains in the database, nothing to load.");
+            return;
+        }
+        hotTrains = Math.max(1, Math.min(hotTrains, trains.length));
+
+        System.out.println("=== LOAD GENERATOR ===");
+        System.out.printf("%d requests at %s/s on %d threads | mix book %d%% cancel %d%% search %d%% | "
+                          + "%d hot trains take %.0f%% of traffic%n",
+                          requests, rate > 0 ? String.valueOf(rate) : "unthrottled", threads, bookPercent,
+                          cancelPercent, 100 - bookPercent - cancelPercent, hotTrains, hotShare * 100);
+
+        Operation[] operations = new Operation[requests];
+        long[] latencies = new long[requests];
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger waitlisted = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger cancelFailed = new AtomicInteger();
+        AtomicInteger cancelSkipped = new AtomicInteger();
+        ConcurrentLinkedQueue<Integer> bookedTickets = new ConcurrentLinkedQueue<>();
+        LocalDate journeyDate = LocalDate.now().plusDays(1);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(requests);
+        Random random = new Random(42);
+        long meanGapNanos = rate > 0 ? (long) (1e9 / rate) : 0;
+        long start = System.nanoTime();
+        long nextArrival = start;
+
+        for (int i = 0; i < requests; i++) {
+            int roll = random.nextInt(100);
+            Operation operation = roll < bookPercent ? Operation.BOOK
+                : roll < bookPercent + cancelPercent ? Operation.CANCEL : Operation.SEARCH;
+            Train train = random.nextDouble() < hotShare
+                ? trains[random.nextInt(hotTrains)] : trains[random.nextInt(trains.length)];
+
+            long scheduled;
+            if (meanGapNanos > 0) {
+                // Poisson arrivals: exponential gaps around the mean
+                nextArrival += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+                long wait = nextArrival - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                scheduled = nextArrival;
+            } else {
+                scheduled = System.nanoTime();
+            }
+
+            int slot = i;
+            operations[slot] = operation;
+            workers.execute(() -> {
+                try {
+                    switch (operation) {
+                        case BOOK:
+                            BookingResult result = service.bookTicket(train.getTrainId(), "Load Passenger",
+                                "load@example.com", "9000000000", 30, "M", "GENERAL", journeyDate);
+                            if (result.isSuccess()) {
+                                confirmed.incrementAndGet();
+                                bookedTickets.add(result.getTicketId());
+                            } else if (result.isWaitlisted()) {
+                                waitlisted.incrementAndGet();
+                                bookedTickets.add(result.getTicketId());
+                            } else if (result.getStatus() == BookingResult.Status.SOLD_OUT) {
+                                soldOut.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                            break;
+                        case CANCEL:
+                            Integer ticketId = bookedTickets.poll();
+                            if (ticketId == null) {
+                                cancelSkipped.incrementAndGet();
+                            } else if (service.cancelTicket(ticketId)) {
+                                cancelled.incrementAndGet();
+                            } else {
+                                cancelFailed.incrementAndGet();
+                            }
+                            break;
+                        default:
+                            Train other = trains[ThreadLocalRandom.current().nextInt(trains.length)];
+                            service.searchTrains(train.getSource(), ThreadLocalRandom.current().nextBoolean()
+                                ? train.getDestination() : other.getDestination());
+                    }
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    System.err.println("Load request failed: " + e);
+                } finally {
+                    latencies[slot] = System.nanoTime() - scheduled;
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        long elapsedNanos = System.nanoTime() - start;
+        workers.shutdown();
+
+        System.out.printf("Elapsed: %.2f s | throughput: %.1f ops/s%n",
+                          elapsedNanos / 1e9, requests / (elapsedNanos / 1e9));
+        for (Operation operation : Operation.values()) {
+            printLatency(operation, operations, latencies);
+        }
+        System.out.printf("Bookings: %d confirmed, %d waitlisted, %d sold out, %d failed%n",
+                          confirmed.get(), waitlisted.get(), soldOut.get(), failed.get());
+        System.out.printf("Cancels: %d done, %d failed, %d skipped (nothing to cancel)%n",
+                          cancelled.get(), cancelFailed.get(), cancelSkipped.get());
+
+        Map<String, Integer> mismatches = trainDAO.getSeatCountMismatches();
+        if (mismatches.isEmpty()) {
+            System.out.println("Invariant OK: BOOKED tickets == total_seats - available_seats on every train run");
+        } else {
+            System.out.println("INVARIANT VIOLATED on " + mismatches.size() + " runs (train_id/journey_date=drift, "
+                               + "positive means oversold): " + mismatches);
+        }
+        DatabaseConfig.shutdown();
+    }
+
+    private static void printLatency(Operation operation, Operation[] operations, long[] latencies) {
+        long[] samples = new long[latencies.length];
+        int count = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            if (operations[i] == operation) {
+                samples[count++] = latencies[i];
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        System.out.printf("%-6s n=%-7d p50: %.3f ms | p99: %.3f ms | p999: %.3f ms | max: %.3f ms%n",
+                          operation, count, JourneyPlannerBenchmark.percentile(sorted, 0.50),
+                          JourneyPlannerBenchmark.percentile(sorted, 0.99),
+                          JourneyPlannerBenchmark.percentile(sorted, 0.999), sorted[count - 1] / 1e6);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
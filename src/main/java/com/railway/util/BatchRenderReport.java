@@ -0,0 +1,31 @@
+package com.railway.util;
+
+public class BatchRenderReport {
+    private final int pagesRendered;
+    private final int failures;
+    private final long elapsedNanos;
+    private final long peakHeapBytes;
+
+    public BatchRenderReport(int pagesRendered, int failures, long elapsedNanos, long peakHeapBytes) {
+        this.pagesRendered = pagesRendered;
+        this.failures = failures;
+        this.elapsedNanos = elapsedNanos;
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    public int getPagesRendered() { return pagesRendered; }
+    public int getFailures() { return failures; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public long getPeakHeapBytes() { return peakHeapBytes; }
+
+    public double getPagesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : pagesRendered / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d pages, %d failed, %.2f s, %.1f pages/sec, peak heap %.1f MB",
+                             pagesRendered, failures, elapsedNanos / 1e9, getPagesPerSecond(),
+                             peakHeapBytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,173 @@
+package com.railway.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import com.railway.logging.EventLog;
+import com.railway.model.Ticket;
+import com.railway.model.Train;
+
+/**
+ * Renders large ticket runs (end-of-day reprints, train manifests) on a bounded
+ * pool of workers. The logo is read once for the whole run and embedded once per
+ * part, so a merged document carries one copy per 250 pages rather than one per
+ * page. Work is handed to the pool through a small bounded queue (the caller
+ * renders when it is full), and multi-page output is built from per-worker parts
+ * buffered in temp files, so heap use stays flat regardless of batch size.
+ */
+public class BatchTicketRenderer implements AutoCloseable {
+    // Tickets per part file when building a single multi-page document
+    private static final int PAGES_PER_PART = 250;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong peakHeap = new AtomicLong();
+
+    public BatchTicketRenderer(int threads) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 2), r -> {
+                Thread t = new Thread(r, "railway-pdf-renderer");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // One PDF per ticket in outputDir, named like the single-ticket printout
+    public BatchRenderReport renderToFiles(List<Ticket> tickets, IntFunction<Train> trainLookup, String outputDir) {
+        new File(outputDir).mkdirs();
+        long start = System.nanoTime();
+        peakHeap.set(0);
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> pending = new ArrayList<>();
+
+        for (Ticket ticket : tickets) {
+            pending.add(executor.submit(() -> {
+                Train train = trainLookup.apply(ticket.getTrainId());
+                String file = outputDir + File.separator + fileName(ticket);
+                if (train == null || !renderSingle(ticket, train, file)) {
+                    failures.incrementAndGet();
+                }
+                sampleHeap();
+            }));
+        }
+        int failed = awaitAll(pending) + failures.get();
+
+        return new BatchRenderReport(tickets.size() - failed, failed, System.nanoTime() - start, peakHeap.get());
+    }
+
+    // All tickets as pages of one PDF, in the order given
+    public BatchRenderReport renderToDocument(List<Ticket> tickets, IntFunction<Train> trainLookup,
+                                              String outputFile) throws IOException {
+        long start = System.nanoTime();
+        peakHeap.set(0);
+        AtomicInteger failures = new AtomicInteger();
+        List<File> parts = new ArrayList<>();
+        List<Future<?>> pending = new ArrayList<>();
+
+        try {
+            for (int from = 0; from < tickets.size(); from += PAGES_PER_PART) {
+                List<Ticket> chunk = tickets.subList(from, Math.min(tickets.size(), from + PAGES_PER_PART));
+                File part = File.createTempFile("tickets-part-", ".pdf");
+                parts.add(part);
+                pending.add(executor.submit(() -> {
+                    failures.addAndGet(renderPart(chunk, trainLookup, part));
+                    sampleHeap();
+                    return null;
+                }));
+            }
+            if (awaitAll(pending) > 0) {
+                throw new IOException("Rendering a ticket batch failed");
+            }
+
+            PDFMergerUtility merger = new PDFMergerUtility();
+            merger.setDestinationFileName(outputFile);
+            for (File part : parts) {
+                merger.addSource(part);
+            }
+            merger.mergeDocuments(MemoryUsageSetting.setupTempFileOnly());
+        } finally {
+            for (File part : parts) {
+                part.delete();
+            }
+        }
+
+        sampleHeap();
+        int failed = failures.get();
+        return new BatchRenderReport(tickets.size() - failed, failed, System.nanoTime() - start, peakHeap.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // Returns the number of tickets that could not be rendered
+    private int renderPart(List<Ticket> chunk, IntFunction<Train> trainLookup, File part) throws IOException {
+        int failed = 0;
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            PDImageXObject logo = PDFTicketGenerator.createLogo(document);
+            for (Ticket ticket : chunk) {
+                Train train = trainLookup.apply(ticket.getTrainId());
+                if (train == null) {
+                    failed++;
+                    continue;
+                }
+                PDFTicketGenerator.renderTicketPage(document, logo, ticket, train);
+            }
+            document.save(part);
+        }
+        return failed;
+    }
+
+    private static boolean renderSingle(Ticket ticket, Train train, String file) {
+        try (PDDocument document = new PDDocument()) {
+            PDFTicketGenerator.renderTicketPage(document, PDFTicketGenerator.createLogo(document), ticket, train);
+            document.save(file);
+            return true;
+        } catch (IOException e) {
+            EventLog.error("BatchTicketRenderer.renderSingle", "PDF generation failed for ticket " + ticket.getTicketId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    static String fileName(Ticket ticket) {
+        return "Ticket_" + ticket.getTicketId() + "_" + ticket.getPassengerName().replaceAll("\\s+", "_") + ".pdf";
+    }
+
+    // Returns the number of tasks that threw
+    private static int awaitAll(List<Future<?>> pending) {
+        int failed = 0;
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                EventLog.error("BatchTicketRenderer.awaitAll", "PDF batch task failed: " + e.getCause().getMessage());
+                failed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private void sampleHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        peakHeap.accumulateAndGet(used, Math::max);
+    }
+}
@@ -0,0 +1,104 @@
+package com.railway.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unique, roughly time-ordered numeric ids for PNRs and payment transactions,
+ * generated in memory with no database round-trip. An id is 14 decimal digits:
+ *
+ * <pre>
+ *   SSSSSSSSS NN QQQ
+ *   seconds since 2024-01-01T00:00Z (good until 2055), node id, sequence within the second
+ * </pre>
+ *
+ * Each node (-Drailway.node.id, 0-99) owns its own id space, so nodes never
+ * coordinate. Within a node the last issued (second, sequence) pair is one
+ * AtomicLong advanced by compare-and-set to max(last + 1, now), so concurrent
+ * bookings never block each other. A burst of more than 1000 ids in a second
+ * borrows sequence numbers from the following seconds instead of waiting, and a
+ * clock that steps backwards is absorbed the same way; ids from one node never
+ * repeat or go backwards while it runs. The unique key on tickets.pnr_number
+ * is the backstop for a node restarted while still ahead of its clock.
+ *
+ * A PNR is the id followed by its Damm check digit (15 digits), which catches
+ * every single-digit typo and every swap of adjacent digits.
+ */
+public final class IdGenerator {
+    private static final long EPOCH_SECOND = 1704067200L; // 2024-01-01T00:00:00Z
+    private static final int SEQUENCE_PER_SECOND = 1000;
+    private static final int NODES = 100;
+    private static final int PNR_LENGTH = 15;
+
+    private static final int[][] DAMM = {
+        {0, 3, 1, 7, 5, 9, 8, 6, 4, 2},
+        {7, 0, 9, 2, 1, 5, 4, 8, 6, 3},
+        {4, 2, 0, 6, 8, 7, 1, 3, 5, 9},
+        {1, 7, 5, 0, 9, 8, 3, 4, 2, 6},
+        {6, 1, 2, 3, 0, 4, 5, 9, 7, 8},
+        {3, 6, 7, 4, 2, 0, 9, 5, 8, 1},
+        {5, 8, 6, 9, 7, 2, 0, 1, 3, 4},
+        {8, 9, 4, 5, 3, 6, 2, 0, 1, 7},
+        {9, 4, 3, 8, 6, 1, 7, 2, 0, 5},
+        {2, 5, 8, 1, 4, 3, 6, 7, 9, 0}
+    };
+
+    private static final IdGenerator PNRS = new IdGenerator(Integer.getInteger("railway.node.id", 0));
+    private static final IdGenerator TRANSACTIONS = new IdGenerator(Integer.getInteger("railway.node.id", 0));
+
+    private final int node;
+    // second * SEQUENCE_PER_SECOND + sequence of the last id issued
+    private final AtomicLong last = new AtomicLong();
+
+    IdGenerator(int node) {
+        if (node < 0 || node >= NODES) {
+            throw new IllegalArgumentException("railway.node.id must be between 0 and " + (NODES - 1) + ": " + node);
+        }
+        this.node = node;
+    }
+
+    long next() {
+        long now = (System.currentTimeMillis() / 1000 - EPOCH_SECOND) * SEQUENCE_PER_SECOND;
+        long prev;
+        long tick;
+        do {
+            prev = last.get();
+            tick = Math.max(prev + 1, now);
+        } while (!last.compareAndSet(prev, tick));
+
+        long second = tick / SEQUENCE_PER_SECOND;
+        long sequence = tick % SEQUENCE_PER_SECOND;
+        return (second * NODES + node) * SEQUENCE_PER_SECOND + sequence;
+    }
+
+    // 15-digit PNR: a 14-digit id and its check digit
+    public static String nextPnr() {
+        String id = String.format("%014d", PNRS.next());
+        return id + checkDigit(id);
+    }
+
+    public static String nextTransactionId() {
+        return String.format("TXN%014d", TRANSACTIONS.next());
+    }
+
+    // True for a 15-digit PNR whose check digit matches; legacy 10-digit PNRs are not checksummed
+    public static boolean isValidPnr(String pnr) {
+        if (pnr == null || pnr.length() != PNR_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < pnr.length(); i++) {
+            if (pnr.charAt(i) < '0' || pnr.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return checkDigit(pnr) == 0;
+    }
+
+    // Damm check digit of a digit string; 0 when the string already ends in its own check digit
+    static int checkDigit(CharSequence digits) {
+        int interim = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            interim = DAMM[interim][digits.charAt(i) - '0'];
+        }
+        return interim;
+    }
+}
@@ -1,7 +1,12 @@
 package com.railway.util;
 
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 import java.time.format.DateTimeFormatter;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -11,6 +16,9 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 
+import com.railway.logging.EventLog;
+import com.railway.metrics.MethodMetrics;
+import com.railway.metrics.MetricsRegistry;
 import com.railway.model.Ticket;
 import com.railway.model.Train;
 
@@ -20,101 +28,188 @@ public class PDFTicketGenerator {
     private static final float PAGE_WIDTH = 226;   // 80mm
     private static final float PAGE_HEIGHT = 1000; // large height (auto cut)
 
+    private static final MethodMetrics GENERATE_TICKET_PDF = MetricsRegistry.timer("PDFTicketGenerator.generateTicketPDF");
+    private static final MethodMetrics WRITE_TICKET_PDF = MetricsRegistry.timer("PDFTicketGenerator.writeTicketPDF");
+    private static final MethodMetrics RENDER_TICKET_PAGE = MetricsRegistry.timer("PDFTicketGenerator.renderTicketPage");
+
+    private static final String LOGO_PATH = "src/irctc.png";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    // Raw PNG bytes, read from disk once; PNGs embed without re-encoding
+    private static volatile byte[] logoBytes;
+    private static volatile boolean logoLoaded;
+
     public static boolean generateTicketPDF(Ticket ticket, Train train, String outputFile) {
+        long start = System.nanoTime();
         try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage(new PDRectangle(PAGE_WIDTH, PAGE_HEIGHT));
-            document.addPage(page);
+            renderTicketPage(document, createLogo(document), ticket, train);
+            document.save(outputFile);
+            EventLog.log(EventLog.Level.INFO, "PDFTicketGenerator.generateTicketPDF", ticket.getTicketId(),
+                         train.getTrainId(), System.nanoTime() - start, "GENERATED", outputFile);
+            return true;
 
-            try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
-                
-                // ===== ADD IRCTC LOGO BACKGROUND =====
-                try {
-                    File logoFile = new File("src/irctc.png");
-                    if (logoFile.exists()) {
-                        PDImageXObject logoImage = PDImageXObject.createFromFile("src/irctc.png", document);
-                        
-                        // Add logo as watermark in background (center, light)
-                        float logoWidth = 80;
-                        float logoHeight = 80;
-                        float logoX = (PAGE_WIDTH - logoWidth) / 2;
-                        float logoY = PAGE_HEIGHT / 2;
-                        
-                        // Draw background logo (watermark effect)
-                        cs.drawImage(logoImage, logoX, logoY, logoWidth, logoHeight);
-                        
-                        // Add small logo in header
-                        cs.drawImage(logoImage, PAGE_WIDTH - 35, PAGE_HEIGHT - 50, 25, 25);
+        } catch (IOException e) {
+            GENERATE_TICKET_PDF.error();
+            EventLog.error("PDFTicketGenerator.generateTicketPDF", "PDF generation failed: " + e.getMessage());
+            return false;
+        } finally {
+            GENERATE_TICKET_PDF.record(start);
+        }
+    }
+
+    /**
+     * Renders the ticket straight into the caller's stream, e.g. an HTTP response
+     * body or a mail attachment, without touching the tickets/ directory. The
+     * stream is flushed but left open for the caller to close.
+     */
+    public static void writeTicketPDF(Ticket ticket, Train train, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        try (PDDocument document = new PDDocument()) {
+            renderTicketPage(document, createLogo(document), ticket, train);
+            // PDDocument.save closes the stream it is given
+            document.save(new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            WRITE_TICKET_PDF.error();
+            throw e;
+        } finally {
+            WRITE_TICKET_PDF.record(start);
+        }
+    }
+
+    public static void writeTicketPDF(Ticket ticket, Train train, WritableByteChannel channel) throws IOException {
+        writeTicketPDF(ticket, train, Channels.newOutputStream(channel));
+    }
+
+    // Logo image bound to the given document, or null if the logo file is missing
+    static PDImageXObject createLogo(PDDocument document) {
+        byte[] bytes = loadLogo();
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return PDImageXObject.createFromByteArray(document, bytes, LOGO_PATH);
+        } catch (IOException e) {
+            EventLog.warn("PDFTicketGenerator.createLogo", "Could not load IRCTC logo - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] loadLogo() {
+        if (!logoLoaded) {
+            synchronized (PDFTicketGenerator.class) {
+                if (!logoLoaded) {
+                    try {
+                        File logoFile = new File(LOGO_PATH);
+                        if (logoFile.exists()) {
+                            logoBytes = Files.readAllBytes(logoFile.toPath());
+                        }
+                    } catch (IOException e) {
+                        EventLog.warn("PDFTicketGenerator.loadLogo", "Could not load IRCTC logo - " + e.getMessage());
                     }
-                } catch (IOException e) {
-                    System.out.println("Warning: Could not load IRCTC logo - " + e.getMessage());
+                    logoLoaded = true;
                 }
+            }
+        }
+        return logoBytes;
+    }
+
+    // Appends one ticket page to the document; the logo may be shared by every page of the document
+    static void renderTicketPage(PDDocument document, PDImageXObject logoImage, Ticket ticket, Train train)
+            throws IOException {
+        long start = System.nanoTime();
+        PDPage page = new PDPage(new PDRectangle(PAGE_WIDTH, PAGE_HEIGHT));
+        document.addPage(page);
+
+        try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+            
+            // ===== ADD IRCTC LOGO BACKGROUND =====
+            if (logoImage != null) {
+                // Add logo as watermark in background (center, light)
+                float logoWidth = 80;
+                float logoHeight = 80;
+                float logoX = (PAGE_WIDTH - logoWidth) / 2;
+                float logoY = PAGE_HEIGHT / 2;
+                
+                // Draw background logo (watermark effect)
+                cs.drawImage(logoImage, logoX, logoY, logoWidth, logoHeight);
                 
-                float y = PAGE_HEIGHT - 20;
-
-                // ===== HEADER =====
-                writeCentered(cs, PDType1Font.HELVETICA_BOLD, 14, y, "INDIAN RAILWAYS");
-                y -= 18;
-                writeCentered(cs, PDType1Font.HELVETICA, 9, y, "ELECTRONIC TRAIN TICKET");
-                y -= 20;
-                drawLine(cs, y);
-                y -= 15;
-
-                // ===== TICKET DETAILS =====
-                write(cs, 10, y, "PNR : " + (ticket.getPnrNumber() != null ? ticket.getPnrNumber() : ticket.getTicketId())); 
-                y -= 14;
-                write(cs, 10, y, "Status : " + ticket.getStatus()); 
-                y -= 14;
-                drawLine(cs, y);
-                y -= 15;
-
-                // ===== PASSENGER =====
-                writeAutoScale(cs, PDType1Font.HELVETICA_BOLD, 11, 8, 10, y,
-                        "Passenger: " + ticket.getPassengerName());
-                y -= 14;
-                write(cs, 10, y, "Age: " + ticket.getPassengerAge() + " | Gender: " + ticket.getPassengerGender());
-                y -= 14;
-                write(cs, 10, y, "Seat: " + ticket.getCoachNumber() + "-" + ticket.getSeatNumber());
-                y -= 14;
-                write(cs, 10, y, "Class: " + ticket.getTicketClass() + " | " + ticket.getBerthType());
-                y -= 14;
-                drawLine(cs, y);
-                y -= 15;
-
-                // ===== TRAIN DETAILS =====
-                writeAutoScale(cs, PDType1Font.HELVETICA_BOLD, 11, 8, 10, y,
-                        train.getSource() + " TO " + train.getDestination());
-                y -= 14;
-                writeAutoScale(cs, PDType1Font.HELVETICA, 10, 8, 10, y,
-                        "Train: " + train.getTrainId() + " - " + train.getTrainName());
-                y -= 14;
-                write(cs, 10, y, "Journey: " + (ticket.getJourneyDate() != null ? 
-                        ticket.getJourneyDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy")) :
-                        ticket.getBookingTime().format(DateTimeFormatter.ofPattern("dd-MM-yyyy"))));
-                y -= 14;
-                write(cs, 10, y, "Base: Rs." + ticket.getBaseFare() + " + Tax: Rs." + ticket.getTaxes());
-                y -= 14;
-                write(cs, 10, y, "Total Fare: Rs. " + ticket.getTotalFare());
-                y -= 20;
-                drawLine(cs, y);
-                y -= 18;
-
-                // ===== FOOTER =====
-                writeCentered(cs, PDType1Font.HELVETICA_OBLIQUE, 9, y, "Carry " + ticket.getIdProofType() + " ID");
-                y -= 12;
-                writeCentered(cs, PDType1Font.HELVETICA_OBLIQUE, 9, y, "SAFE JOURNEY");
-                y -= 12;
-                writeCentered(cs, PDType1Font.HELVETICA, 7, y, "Booked via " + ticket.getBookingSource());
-                y -= 10;
-                writeCentered(cs, PDType1Font.HELVETICA, 7, y, "IRCTC - Indian Railways");
+                // Add small logo in header
+                cs.drawImage(logoImage, PAGE_WIDTH - 35, PAGE_HEIGHT - 50, 25, 25);
             }
+            
+            float y = PAGE_HEIGHT - 20;
 
-            document.save(outputFile);
-            System.out.println("Thermal Ticket PDF with IRCTC logo generated: " + outputFile);
-            return true;
+            // ===== HEADER =====
+            writeCentered(cs, PDType1Font.HELVETICA_BOLD, 14, y, "INDIAN RAILWAYS");
+            y -= 18;
+            writeCentered(cs, PDType1Font.HELVETICA, 9, y, "ELECTRONIC TRAIN TICKET");
+            y -= 20;
+            drawLine(cs, y);
+            y -= 15;
 
-        } catch (IOException e) {
-            System.err.println("PDF generation failed: " + e.getMessage());
-            return false;
+            // ===== TICKET DETAILS =====
+            write(cs, 10, y, "PNR : " + (ticket.getPnrNumber() != null ? ticket.getPnrNumber() : ticket.getTicketId())); 
+            y -= 14;
+            write(cs, 10, y, "Status : " + ticket.getStatus()); 
+            y -= 14;
+            drawLine(cs, y);
+            y -= 15;
+
+            // ===== PASSENGER =====
+            writeAutoScale(cs, PDType1Font.HELVETICA_BOLD, 11, 8, 10, y,
+                    "Passenger: " + ticket.getPassengerName());
+            y -= 14;
+            write(cs, 10, y, "Age: " + ticket.getPassengerAge() + " | Gender: " + ticket.getPassengerGender());
+            y -= 14;
+            write(cs, 10, y, "Seat: " + (ticket.getSeatNumber() != null ? ticket.getSeatNumber() : ticket.getStatus()));
+            y -= 14;
+            write(cs, 10, y, "Class: " + ticket.getTicketClass()
+                    + (ticket.getBerthType() != null ? " | " + ticket.getBerthType() : ""));
+            y -= 14;
+            drawLine(cs, y);
+            y -= 15;
+
+            // ===== TRAIN DETAILS =====
+            writeAutoScale(cs, PDType1Font.HELVETICA_BOLD, 11, 8, 10, y,
+                    train.getSource() + " TO " + train.getDestination());
+            y -= 14;
+            writeAutoScale(cs, PDType1Font.HELVETICA, 10, 8, 10, y,
+                    "Train: " + train.getTrainId() + " - " + train.getTrainName());
+            y -= 14;
+            write(cs, 10, y, "Journey: " + (ticket.getJourneyDate() != null ? 
+                    ticket.getJourneyDate().format(DATE_FORMAT) :
+                    ticket.getBookingTime().format(DATE_FORMAT)));
+            y -= 14;
+            write(cs, 10, y, String.format("Base: Rs.%.2f + Tax: Rs.%.2f", ticket.getBaseFare(), ticket.getTaxes()));
+            y -= 14;
+            write(cs, 10, y, String.format("Total Fare: Rs. %.2f", ticket.getTotalFare()));
+            y -= 20;
+            drawLine(cs, y);
+            y -= 18;
+
+            // ===== FOOTER =====
+            writeCentered(cs, PDType1Font.HELVETICA_OBLIQUE, 9, y, "Carry " + ticket.getIdProofType() + " ID");
+            y -= 12;
+            writeCentered(cs, PDType1Font.HELVETICA_OBLIQUE, 9, y, "SAFE JOURNEY");
+            y -= 12;
+            writeCentered(cs, PDType1Font.HELVETICA, 7, y, "Booked via " + ticket.getBookingSource());
+            y -= 10;
+            writeCentered(cs, PDType1Font.HELVETICA, 7, y, "IRCTC - Indian Railways");
+        } catch (IOException | RuntimeException e) {
+            RENDER_TICKET_PAGE.error();
+            throw e;
+        } finally {
+            RENDER_TICKET_PAGE.record(start);
         }
     }
 
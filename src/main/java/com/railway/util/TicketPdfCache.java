@@ -0,0 +1,185 @@
+package com.railway.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.railway.logging.EventLog;
+import com.railway.model.Ticket;
+import com.railway.model.Train;
+
+/**
+ * Content-addressed on-disk cache of rendered ticket PDFs. The file name is a
+ * SHA-256 of every value the ticket prints (PNR, status, passenger, seat, fare
+ * and train), so a cancelled or edited ticket simply misses and re-renders
+ * however quickly it changed, while unchanged reprints are copied out
+ * byte-for-byte. Stale versions are never read again and are pruned oldest
+ * first once the directory grows past its size budget.
+ */
+public class TicketPdfCache {
+    // Bump when the ticket layout changes so old renders stop matching
+    private static final int RENDER_VERSION = 1;
+    private static final String SUFFIX = ".pdf";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Running total since the last scan; the directory is only rescanned once this passes maxBytes
+    private final AtomicLong approximateBytes = new AtomicLong();
+
+    public TicketPdfCache(String directory, long maxBytes) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.maxBytes = maxBytes;
+        prune();
+    }
+
+    public void write(Ticket ticket, Train train, OutputStream out) throws IOException {
+        try {
+            Files.copy(lookup(ticket, train), out);
+        } catch (NoSuchFileException e) {
+            // Pruned between lookup and copy; render it again
+            Files.copy(lookup(ticket, train), out);
+        }
+        out.flush();
+    }
+
+    // Cached bytes go to the channel with FileChannel.transferTo, which avoids a user-space copy where supported
+    public void write(Ticket ticket, Train train, WritableByteChannel channel) throws IOException {
+        FileChannel file;
+        try {
+            file = FileChannel.open(lookup(ticket, train), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            file = FileChannel.open(lookup(ticket, train), StandardOpenOption.READ);
+        }
+        try (FileChannel source = file) {
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, channel);
+            }
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+
+    public long getMisses() { return misses.get(); }
+
+    // Path of the rendered PDF for this ticket version, rendering it on a miss
+    private Path lookup(Ticket ticket, Train train) throws IOException {
+        Path file = directory.resolve(key(ticket, train) + SUFFIX);
+        if (Files.exists(file)) {
+            hits.incrementAndGet();
+            touch(file);
+            return file;
+        }
+
+        misses.incrementAndGet();
+        Path temp = Files.createTempFile(directory, "render-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                PDFTicketGenerator.writeTicketPDF(ticket, train, out);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another thread rendered the same version first; its bytes are identical
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        if (approximateBytes.addAndGet(Files.size(file)) > maxBytes) {
+            prune();
+        }
+        return file;
+    }
+
+    // Keep in step with PDFTicketGenerator.renderTicketPage: every field it prints goes in
+    static String key(Ticket ticket, Train train) {
+        String source = String.join("\u0000", String.valueOf(RENDER_VERSION), String.valueOf(ticket.getTicketId()),
+            ticket.getPnrNumber(), ticket.getStatus(), ticket.getPassengerName(),
+            String.valueOf(ticket.getPassengerAge()), ticket.getPassengerGender(), ticket.getSeatNumber(),
+            ticket.getTicketClass(), ticket.getBerthType(), String.valueOf(ticket.getJourneyDate()),
+            String.valueOf(ticket.getBookingTime()), String.valueOf(ticket.getBaseFare()),
+            String.valueOf(ticket.getTaxes()), String.valueOf(ticket.getTotalFare()), ticket.getIdProofType(),
+            ticket.getBookingSource(), String.valueOf(train.getTrainId()), train.getTrainName(), train.getSource(),
+            train.getDestination());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Recently served files survive pruning
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects pruning order
+        }
+    }
+
+    private synchronized void prune() {
+        List<Path> files = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path entry : entries) {
+                files.add(entry);
+                total += Files.size(entry);
+            }
+        } catch (IOException e) {
+            EventLog.warn("TicketPdfCache.prune", "Could not scan PDF cache: " + e.getMessage());
+            return;
+        }
+        if (total <= maxBytes) {
+            approximateBytes.set(total);
+            return;
+        }
+
+        files.sort(Comparator.comparingLong(TicketPdfCache::lastModifiedMillis));
+        for (Path file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            try {
+                long size = Files.size(file);
+                Files.deleteIfExists(file);
+                total -= size;
+            } catch (IOException e) {
+                EventLog.warn("TicketPdfCache.prune", "Could not prune PDF cache entry " + file + ": " + e.getMessage());
+            }
+        }
+        approximateBytes.set(total);
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.railway.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SeatBitmapTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void allocatesLowestFreeSeatAndReusesReleasedOnes() {
+        SeatBitmap bitmap = new SeatBitmap(3);
+        assertEquals(1, bitmap.allocate());
+        assertEquals(2, bitmap.allocate());
+        assertEquals(3, bitmap.allocate());
+        assertEquals(-1, bitmap.allocate());
+
+        assertTrue(bitmap.release(2));
+        assertFalse(bitmap.release(2));
+        assertEquals(1, bitmap.getFreeSeats());
+        assertEquals(2, bitmap.allocate());
+    }
+
+    @Test
+    void rejectsSeatsOutOfRange() {
+        SeatBitmap bitmap = new SeatBitmap(70);
+        assertFalse(bitmap.markTaken(0));
+        assertFalse(bitmap.markTaken(71));
+        assertFalse(bitmap.release(71));
+        assertTrue(bitmap.markTaken(70));
+        assertFalse(bitmap.markTaken(70));
+        assertEquals(69, bitmap.getFreeSeats());
+    }
+
+    @Test
+    void concurrentAllocationsNeverShareASeat() throws Exception {
+        int capacity = 1000;
+        SeatBitmap bitmap = new SeatBitmap(capacity);
+        List<List<Integer>> claimed = runConcurrently(() -> {
+            List<Integer> seats = new ArrayList<>();
+            for (int seat = bitmap.allocate(); seat > 0; seat = bitmap.allocate()) {
+                seats.add(seat);
+            }
+            return seats;
+        });
+
+        boolean[] seen = new boolean[capacity + 1];
+        int total = 0;
+        for (List<Integer> seats : claimed) {
+            for (int seat : seats) {
+                assertFalse(seen[seat], "seat " + seat + " handed out twice");
+                seen[seat] = true;
+                total++;
+            }
+        }
+        assertEquals(capacity, total);
+        assertEquals(0, bitmap.getFreeSeats());
+    }
+
+    @Test
+    void concurrentBlocksAreDisjoint() throws Exception {
+        int capacity = 640;
+        SeatBitmap bitmap = new SeatBitmap(capacity);
+        List<List<Integer>> claimed = runConcurrently(() -> {
+            List<Integer> seats = new ArrayList<>();
+            for (int[] block = bitmap.allocateBlock(5); block != null; block = bitmap.allocateBlock(5)) {
+                for (int seat : block) {
+                    seats.add(seat);
+                }
+            }
+            return seats;
+        });
+
+        boolean[] seen = new boolean[capacity + 1];
+        int total = 0;
+        for (List<Integer> seats : claimed) {
+            for (int seat : seats) {
+                assertFalse(seen[seat], "seat " + seat + " handed out twice");
+                seen[seat] = true;
+                total++;
+            }
+        }
+        assertEquals(capacity, total);
+        assertEquals(0, bitmap.getFreeSeats());
+    }
+
+    @Test
+    void blockStaysInsideOneWordWhenItFits() {
+        SeatBitmap bitmap = new SeatBitmap(128);
+        for (int seat = 1; seat <= 62; seat++) {
+            bitmap.markTaken(seat);
+        }
+        int[] block = bitmap.allocateBlock(4);
+        assertEquals(65, block[0]);
+        assertEquals(68, block[3]);
+    }
+
+    @Test
+    void concurrentReleaseAndReallocationKeepCountsConsistent() throws Exception {
+        int capacity = 200;
+        SeatBitmap bitmap = new SeatBitmap(capacity);
+        runConcurrently(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                int seat = bitmap.allocate();
+                if (seat > 0) {
+                    assertTrue(bitmap.release(seat), "seat " + seat + " was released by another thread");
+                }
+            }
+            return null;
+        });
+
+        int taken = 0;
+        for (int seat = 1; seat <= capacity; seat++) {
+            if (bitmap.isTaken(seat)) {
+                taken++;
+            }
+        }
+        assertEquals(0, taken);
+        assertEquals(capacity, bitmap.getFreeSeats());
+    }
+
+    // Runs the task on THREADS threads released together and returns each thread's result
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
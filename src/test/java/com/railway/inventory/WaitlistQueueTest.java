@@ -0,0 +1,86 @@
+package com.railway.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class WaitlistQueueTest {
+
+    @Test
+    void keepsJoinOrder() {
+        WaitlistQueue queue = new WaitlistQueue();
+        queue.add(101);
+        queue.add(102);
+        queue.add(103);
+
+        assertEquals(101, queue.head());
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.position(102));
+        assertEquals(103, queue.get(3));
+        assertEquals(-1, queue.get(4));
+        assertEquals(-1, queue.get(0));
+        assertEquals(-1, queue.position(999));
+    }
+
+    @Test
+    void removalFromTheMiddleMovesLaterTicketsUp() {
+        WaitlistQueue queue = new WaitlistQueue();
+        for (int id = 1; id <= 5; id++) {
+            queue.add(id);
+        }
+
+        assertTrue(queue.remove(3));
+        assertFalse(queue.remove(3));
+        assertEquals(4, queue.size());
+        assertEquals(3, queue.position(4));
+        assertEquals(4, queue.get(3));
+        assertEquals(-1, queue.position(3));
+
+        assertTrue(queue.remove(1));
+        assertEquals(2, queue.head());
+        assertEquals(1, queue.position(2));
+        assertEquals(5, queue.get(3));
+    }
+
+    @Test
+    void emptyQueueHasNoHead() {
+        WaitlistQueue queue = new WaitlistQueue();
+        queue.add(7);
+        queue.remove(7);
+        assertEquals(-1, queue.head());
+        assertEquals(0, queue.size());
+    }
+
+    // Enough joins and departures to force compaction and growth, checked against a plain list
+    @Test
+    void matchesAListThroughCompactionAndGrowth() {
+        WaitlistQueue queue = new WaitlistQueue();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(42);
+        int nextId = 1;
+        for (int step = 0; step < 5_000; step++) {
+            if (expected.isEmpty() || random.nextInt(3) != 0) {
+                queue.add(nextId);
+                expected.add(nextId);
+                nextId++;
+            } else {
+                Integer leaving = expected.remove(random.nextInt(expected.size()));
+                assertTrue(queue.remove(leaving));
+            }
+
+            assertEquals(expected.size(), queue.size());
+            if (!expected.isEmpty()) {
+                int position = random.nextInt(expected.size()) + 1;
+                assertEquals((int) expected.get(position - 1), queue.get(position));
+                assertEquals(position, queue.position(expected.get(position - 1)));
+                assertEquals((int) expected.get(0), queue.head());
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.railway.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.railway.model.Itinerary;
+import com.railway.model.Train;
+
+class JourneyPlannerTest {
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+    private static final int SIX_AM = 6 * 60;
+
+    private static final List<Train> TRAINS = Arrays.asList(
+        train(1, "Alpha", "Beta", "08:00", "10:00"),
+        train(2, "Beta", "Gamma", "10:30", "12:00"),
+        train(3, "Alpha", "Gamma", "07:00", "14:00"),
+        // Leaves Beta only five minutes after train 1 arrives, inside the transfer time
+        train(4, "Beta", "Gamma", "10:05", "11:00"),
+        train(5, "Gamma", "Alpha", "22:00", "06:00"));
+
+    @Test
+    void findsTheDirectTrainAndAFasterConnection() {
+        JourneyPlanner planner = new JourneyPlanner(TRAINS, 15, 1000, (trainId, date) -> -1);
+        List<Itinerary> journeys = planner.plan("Alpha", "Gamma", DATE, SIX_AM, 2, 5);
+
+        assertEquals(2, journeys.size());
+        assertEquals(Arrays.asList(1, 2), trainIds(journeys.get(0)));
+        assertEquals(1, journeys.get(0).getTransfers());
+        assertEquals(12 * 60, journeys.get(0).getArrivalMinute());
+        assertEquals(Arrays.asList(3), trainIds(journeys.get(1)));
+    }
+
+    @Test
+    void maxTransfersLimitsTheTrainsUsed() {
+        JourneyPlanner planner = new JourneyPlanner(TRAINS, 15, 1000, (trainId, date) -> -1);
+        List<Itinerary> journeys = planner.plan("Alpha", "Gamma", DATE, SIX_AM, 0, 5);
+
+        assertEquals(1, journeys.size());
+        assertEquals(Arrays.asList(3), trainIds(journeys.get(0)));
+    }
+
+    @Test
+    void stationNamesAreMatchedCaseInsensitively() {
+        JourneyPlanner planner = new JourneyPlanner(TRAINS, 15, 1000, (trainId, date) -> -1);
+        assertEquals(2, planner.plan(" alpha", "GAMMA ", DATE, SIX_AM, 2, 5).size());
+    }
+
+    @Test
+    void overnightTrainArrivesTheNextDay() {
+        JourneyPlanner planner = new JourneyPlanner(TRAINS, 15, 1000, (trainId, date) -> -1);
+        List<Itinerary> journeys = planner.plan("Gamma", "Alpha", DATE, 20 * 60, 0, 1);
+
+        assertEquals(1, journeys.size());
+        assertEquals(22 * 60, journeys.get(0).getDepartureMinute());
+        assertEquals(30 * 60, journeys.get(0).getArrivalMinute());
+    }
+
+    @Test
+    void runSoldOutOnTheDateIsNotBoardedButTheNextDaysRunIs() {
+        SeatAvailability secondLegFull = (trainId, date) -> trainId == 2 && date.equals(DATE) ? 0 : -1;
+        JourneyPlanner planner = new JourneyPlanner(TRAINS, 15, 1000, secondLegFull);
+        List<Itinerary> journeys = planner.plan("Alpha", "Gamma", DATE, SIX_AM, 2, 5);
+
+        assertEquals(Arrays.asList(3), trainIds(journeys.get(0)));
+        for (Itinerary journey : journeys) {
+            for (Itinerary.Leg leg : journey.getLegs()) {
+                if (leg.getTrain().getTrainId() == 2) {
+                    assertTrue(leg.getDepartureMinute() >= 1440, "boarded train 2 on its sold out date");
+                }
+            }
+        }
+    }
+
+    @Test
+    void unknownStationsOrSameStationGiveNoJourneys() {
+        JourneyPlanner planner = new JourneyPlanner(TRAINS, 15, 1000, (trainId, date) -> -1);
+        assertTrue(planner.plan("Alpha", "Delta", DATE, SIX_AM, 2, 5).isEmpty());
+        assertTrue(planner.plan("Alpha", "Alpha", DATE, SIX_AM, 2, 5).isEmpty());
+    }
+
+    private static List<Integer> trainIds(Itinerary itinerary) {
+        List<Integer> ids = new ArrayList<>();
+        for (Itinerary.Leg leg : itinerary.getLegs()) {
+            ids.add(leg.getTrain().getTrainId());
+        }
+        return ids;
+    }
+
+    private static Train train(int id, String source, String destination, String departs, String arrives) {
+        return new Train(id, "Train " + id, source, destination, departs, arrives, 100, 100, 0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.railway.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.railway.model.Station;
+
+class StationIndexTest {
+    private final StationIndex index = new StationIndex(Arrays.asList(
+        station("MAS", "Chennai Central", "Puratchi Thalaivar Dr. M.G. Ramachandran Central", "Madras Central"),
+        station("MS", "Chennai Egmore", "Chennai Egmore", "Madras Egmore"),
+        station("MDU", "Madurai", "Madurai Junction"),
+        station("TPJ", "Tiruchirappalli", "Tiruchirappalli Junction", "Trichy"),
+        station("QLN", "Kollam", "Kollam Junction"),
+        station("KLM", "Kallam", "Kallam Road")));
+
+    @Test
+    void resolvesCodesNamesAndAliasesExactly() {
+        assertEquals("MAS", index.resolve("mas").getCode());
+        assertEquals("MS", index.resolve("  chennai   EGMORE ").getCode());
+        assertEquals("TPJ", index.resolve("Trichy").getCode());
+        assertEquals("MAS", index.resolve("Madras Central").getCode());
+    }
+
+    @Test
+    void resolvesATypoWithinTheAllowance() {
+        assertEquals("MDU", index.resolve("Madurei").getCode());
+        assertEquals("TPJ", index.resolve("Tiruchirapalli").getCode());
+    }
+
+    @Test
+    void typoAsCloseToTwoStationsIsAmbiguous() {
+        // One edit from both Kollam and Kallam
+        assertNull(index.resolve("Kellam"));
+    }
+
+    @Test
+    void shortInputsGetNoTypoAllowance() {
+        assertNull(index.resolve("MDX"));
+    }
+
+    @Test
+    void resolvesAUniquePrefixButNotASharedOne() {
+        assertEquals("TPJ", index.resolve("Tiruchi").getCode());
+        assertNull(index.resolve("Chennai"));
+    }
+
+    @Test
+    void unknownOrBlankInputResolvesToNothing() {
+        assertNull(index.resolve("Bengaluru"));
+        assertNull(index.resolve("   "));
+        assertNull(index.resolve(null));
+    }
+
+    @Test
+    void suggestsPrefixMatchesBeforeNearMisses() {
+        List<String> names = new ArrayList<>();
+        for (Station station : index.suggest("Chen", 5)) {
+            names.add(station.getName());
+        }
+        assertEquals(Arrays.asList("Chennai Egmore", "Chennai Central"), names);
+
+        List<String> near = new ArrayList<>();
+        for (Station station : index.suggest("Kellam", 5)) {
+            near.add(station.getName());
+        }
+        assertEquals(Arrays.asList("Kallam", "Kollam"), near);
+    }
+
+    private static Station station(String code, String name, String officialName, String... aliases) {
+        List<String> aliasList = new ArrayList<>();
+        Collections.addAll(aliasList, aliases);
+        return new Station(code, name, officialName, "Tamil Nadu", "SR", "Chennai", 4, aliasList);
+    }
+}
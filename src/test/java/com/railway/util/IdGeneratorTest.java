@@ -0,0 +1,103 @@
+package com.railway.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class IdGeneratorTest {
+
+    @Test
+    void pnrIsFifteenDigitsWithAValidCheckDigit() {
+        String pnr = IdGenerator.nextPnr();
+        assertEquals(15, pnr.length());
+        assertTrue(pnr.chars().allMatch(Character::isDigit));
+        assertTrue(IdGenerator.isValidPnr(pnr));
+    }
+
+    @Test
+    void checkDigitCatchesEverySingleDigitTypo() {
+        String pnr = IdGenerator.nextPnr();
+        for (int i = 0; i < pnr.length(); i++) {
+            for (char digit = '0'; digit <= '9'; digit++) {
+                if (digit == pnr.charAt(i)) {
+                    continue;
+                }
+                String typo = pnr.substring(0, i) + digit + pnr.substring(i + 1);
+                assertFalse(IdGenerator.isValidPnr(typo), typo);
+            }
+        }
+    }
+
+    @Test
+    void checkDigitCatchesAdjacentSwaps() {
+        String pnr = IdGenerator.nextPnr();
+        for (int i = 0; i + 1 < pnr.length(); i++) {
+            if (pnr.charAt(i) == pnr.charAt(i + 1)) {
+                continue;
+            }
+            String swapped = pnr.substring(0, i) + pnr.charAt(i + 1) + pnr.charAt(i) + pnr.substring(i + 2);
+            assertFalse(IdGenerator.isValidPnr(swapped), swapped);
+        }
+    }
+
+    @Test
+    void rejectsMalformedPnrs() {
+        assertFalse(IdGenerator.isValidPnr(null));
+        assertFalse(IdGenerator.isValidPnr("0000000042"));
+        assertFalse(IdGenerator.isValidPnr("12345678901234X"));
+        assertFalse(IdGenerator.isValidPnr("1234567890123456"));
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(100));
+    }
+
+    // More ids than fit in one second's sequence, so the generator has to borrow from later seconds
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        IdGenerator generator = new IdGenerator(7);
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.next();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(seen.add(ids[i]), "duplicate id " + ids[i]);
+                    assertEquals(7, ids[i] / 1000 % 100, "node digits of " + ids[i]);
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "id went backwards: " + ids[i]);
+                    }
+                }
+            }
+            assertEquals(threads * perThread, seen.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}